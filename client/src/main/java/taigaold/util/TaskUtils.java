@@ -1,16 +1,15 @@
 package taigaold.util;
 
 import taiga.TaigaClient;
-import taiga.models.taskhistory.ItemHistory;
-import taiga.models.taskhistory.ItemHistoryValuesDiff;
+import taiga.models.compact.CompactHistory;
+import taiga.models.compact.ProjectStatuses;
+import taiga.models.compact.StatusCategory;
+import taiga.models.compact.StatusDictionary;
 import taiga.models.tasks.Task;
 import taigaold.util.timeAnalysis.CycleTimeEntry;
 import ui.tooltips.CycleTimeTaskTooltip;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Date;
-import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 
 public class TaskUtils {
@@ -22,27 +21,24 @@ public class TaskUtils {
      * @return a CycleTimeEntry object
      */
     public static CycleTimeEntry<Task> getCycleTimeForTask(Task task) {
-        AtomicReference<List<ItemHistory>> historyListReference = new AtomicReference<>();
-        TaigaClient.getTaskHistoryAPI().getTaskHistory(task.getId(), result -> {
-            historyListReference.set(new ArrayList<>(List.of(result.getContent())));
+        AtomicReference<CompactHistory> historyReference = new AtomicReference<>();
+        TaigaClient.getTaskHistoryAPI().getCompactTaskHistory(task.getId(), result -> {
+            historyReference.set(result.getContent());
         }).join();
 
-        List<ItemHistory> historyList = historyListReference.get();
-        Collections.sort(historyList);
+        CompactHistory history = historyReference.get();
 
-        //get first time moved to "In Progress"
-        Date startDate = null;
-        for (ItemHistory history : historyList) {
-            ItemHistoryValuesDiff valuesDiff = history.getValuesDiff();
-            if (valuesDiff.getStatus() == null) {
-                continue;
-            }
-
-            if (valuesDiff.getStatus()[1].equalsIgnoreCase("In progress")) {
-                startDate = history.getCreatedAt();
-                break;
-            }
+        AtomicReference<ProjectStatuses> statusesReference = new AtomicReference<>();
+        TaigaClient.getProjectAPI().getProjectStatuses(task.getProject(), statusesReference::set).join();
+        if (statusesReference.get() == null) {
+            // fail the calculation rather than report every task as never started
+            throw new IllegalStateException("Could not fetch the statuses of project " + task.getProject());
         }
+        StatusDictionary statuses = statusesReference.get().getTaskStatuses();
+
+        //get first time moved to "In Progress"
+        int started = statuses.firstMoveTo(history, StatusCategory.IN_PROGRESS);
+        Date startDate = started < 0 ? null : history.getCreatedAt(started);
 
         if (startDate == null) {
             CycleTimeEntry<Task> entry = new CycleTimeEntry<>(null, null, null, false);
@@ -51,19 +47,8 @@ public class TaskUtils {
         }
 
         //get last time moved to "Done"
-        Collections.reverse(historyList);
-        Date endDate = null;
-        for (ItemHistory history : historyList) {
-            ItemHistoryValuesDiff valuesDiff = history.getValuesDiff();
-            if (valuesDiff.getStatus() == null) {
-                continue;
-            }
-
-            if (valuesDiff.getStatus()[1].equalsIgnoreCase("done")) {
-                endDate = history.getCreatedAt();
-                break;
-            }
-        }
+        int finished = statuses.lastMoveTo(history, StatusCategory.DONE);
+        Date endDate = finished < 0 ? null : history.getCreatedAt(finished);
 
         if (endDate == null || !task.getIsClosed()) {
             CycleTimeEntry<Task> entry = new CycleTimeEntry<>(null, startDate, null, false);
@@ -1,10 +1,11 @@
 package taigaold.util;
 
 import taiga.TaigaClient;
-import taiga.models.customattributes.UserStoryCustomAttribute;
-import taiga.models.customattributes.UserStoryCustomAttributesValues;
+import taiga.models.compact.CompactHistory;
+import taiga.models.compact.ProjectStatuses;
+import taiga.models.compact.StatusCategory;
+import taiga.models.compact.StatusDictionary;
 import taiga.models.taskhistory.ItemHistory;
-import taiga.models.taskhistory.ItemHistoryValuesDiff;
 import taiga.models.userstories.UserStoryInterface;
 import taigaold.util.timeAnalysis.CycleTimeEntry;
 import taigaold.util.timeAnalysis.LeadTimeEntry;
@@ -14,78 +15,14 @@ import java.util.*;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * Utility class for User Stories current functionality: extract BV, .
+ * Utility class for User Stories current functionality. Business value is resolved by
+ * {@link taiga.api.BusinessValueResolver}.
  */
 public class UserStoryUtils {
 
     //    private static final UserStoryCustomAttributesAPI userStoryCustomAttributesAPI = new UserStoryCustomAttributesAPI();
 //    private static final UserStoryCustomAttributesValuesAPI userStoryCustomAttributesValuesAPI = new UserStoryCustomAttributesValuesAPI();
 //    private static final UserStoryHistoryAPI userStoryHistoryAPI = new UserStoryHistoryAPI();
-    private static final HashMap<Integer, UserStoryCustomAttribute> userStoryCustomAttributes = new HashMap<>();
-
-    /**
-     * Gets the Attribute of the UserStory which contains the Business Value. This si tricky because
-     * Business value is not natively supported by Taiga, so we have to parse the custom attributes
-     * and find the one that refers to Business Value specifically, and return it
-     *
-     * @param projectId the Id of the project that we are working in
-     * @return A UserStoryCustomAttribute which is the Business Value attribute in this project.
-     */
-    private static UserStoryCustomAttribute loadBvAttribute(int projectId) {
-        AtomicReference<List<UserStoryCustomAttribute>> attributes = new AtomicReference<>();
-        TaigaClient.getUserStoryCustomAttributesAPI().getUserStoryCustomAttributeList(projectId, results -> {
-            attributes.set(Arrays.asList(results.getContent()));
-        }).join();
-
-        for (UserStoryCustomAttribute attribute : attributes.get()) {
-            if (attribute.getName().equals("BV")) {
-                return attribute;
-            }
-        }
-
-        throw new RuntimeException("Project doesn't have a business value custom attribute that matches the pattern!");
-    }
-
-    /**
-     * Gets the business value (in the form of a custom attribute) of a user story
-     *
-     * @param story The user story to extract business value from
-     * @return The business value of the user story
-     */
-    public static Double getBusinessValueForUserStory(UserStoryInterface story) {
-        if (!userStoryCustomAttributes.containsKey(story.getProject())) {
-            try {
-                userStoryCustomAttributes.put(story.getProject(), loadBvAttribute(story.getProject()));
-            } catch (RuntimeException e) {
-                return 0d;
-            }
-        }
-
-        UserStoryCustomAttribute bvAttribute = userStoryCustomAttributes.get(story.getProject());
-
-        AtomicReference<UserStoryCustomAttributesValues> values = new AtomicReference<>();
-        TaigaClient.getUserStoryCustomAttributesValuesAPI().getUserStoryCustomAttributeValue(story.getId(), result -> {
-            values.set(result.getContent());
-        }).join();
-
-        String bvString = values.get().getAttributesValues().get(String.valueOf(bvAttribute.getId()));
-
-        double bv = 0.0;
-
-        if (bvString != null) {
-            try {
-                bv = Double.parseDouble(bvString);
-            } catch (NumberFormatException e) {
-                System.out.println("Business value attribute had non-number value " + bvString +
-                        " on User Story " + story.getId() + "!");
-            } catch (Exception e) {
-                System.out.println("Exception during parsing BV attribute in US " + story.getId());
-                e.printStackTrace();
-            }
-        }
-
-        return bv;
-    }
 
     /**
      * Gets the cycle time for the specified UserStory
@@ -94,13 +31,13 @@ public class UserStoryUtils {
      * @return a CycleTimeEntry for the specified UserStory
      */
     public static CycleTimeEntry<UserStoryInterface> getCycleTimeForUserStory(UserStoryInterface story) {
-        AtomicReference<List<ItemHistory>> historyListReference = new AtomicReference<>();
-        TaigaClient.getUserStoryHistoryAPI().getUserStoryHistory(story.getId(), result -> {
-            historyListReference.set(new ArrayList<>(List.of(result.getContent())));
+        AtomicReference<CompactHistory> historyReference = new AtomicReference<>();
+        TaigaClient.getUserStoryHistoryAPI().getCompactUserStoryHistory(story.getId(), result -> {
+            historyReference.set(result.getContent());
         }).join();
 
-        List<ItemHistory> historyList = historyListReference.get();
-        Collections.sort(historyList);
+        CompactHistory history = historyReference.get();
+        StatusDictionary statuses = getUserStoryStatuses(story.getProject());
 
         /*
         Note here that we take the *first* time the story is moved to in progress and the *last*
@@ -111,18 +48,8 @@ public class UserStoryUtils {
          */
 
         //get first time moved to "In Progress"
-        Date startDate = null;
-        for (ItemHistory history : historyList) {
-            ItemHistoryValuesDiff valuesDiff = history.getValuesDiff();
-            if (valuesDiff.getStatus() == null) {
-                continue;
-            }
-
-            if (valuesDiff.getStatus()[1].equalsIgnoreCase("In progress")) {
-                startDate = history.getCreatedAt();
-                break;
-            }
-        }
+        int started = statuses.firstMoveTo(history, StatusCategory.IN_PROGRESS);
+        Date startDate = started < 0 ? null : history.getCreatedAt(started);
 
         if (startDate == null) {
             CycleTimeEntry<UserStoryInterface> entry = new CycleTimeEntry<>(null, null, null);
@@ -131,19 +58,8 @@ public class UserStoryUtils {
         }
 
         //get last time moved to "Done"
-        Collections.reverse(historyList);
-        Date endDate = null;
-        for (ItemHistory history : historyList) {
-            ItemHistoryValuesDiff valuesDiff = history.getValuesDiff();
-            if (valuesDiff.getStatus() == null) {
-                continue;
-            }
-
-            if (valuesDiff.getStatus()[1].equalsIgnoreCase("Done")) {
-                endDate = history.getCreatedAt();
-                break;
-            }
-        }
+        int finished = statuses.lastMoveTo(history, StatusCategory.DONE);
+        Date endDate = finished < 0 ? null : history.getCreatedAt(finished);
 
         if (endDate == null || !story.getIsClosed()) {
             CycleTimeEntry<UserStoryInterface> entry = new CycleTimeEntry<>(null, startDate, null, false);
@@ -164,6 +80,18 @@ public class UserStoryUtils {
      * @return a LeadTimeEntry for this UserStory
      */
     public static LeadTimeEntry getLeadTimeForUserStory(UserStoryInterface story) {
+        return getLeadTimeForUserStory(story, getUserStoryStatuses(story.getProject()));
+    }
+
+    /**
+     * Gets a LeadTimeEntry for the specified UserStory, with the statuses of its project already at
+     * hand.
+     *
+     * @param story    any UserStory object, including UserStoryDetail
+     * @param statuses the user story statuses of the story's project
+     * @return a LeadTimeEntry for this UserStory
+     */
+    public static LeadTimeEntry getLeadTimeForUserStory(UserStoryInterface story, StatusDictionary statuses) {
         AtomicReference<List<ItemHistory>> historyListReference = new AtomicReference<>();
         TaigaClient.getUserStoryHistoryAPI().getUserStoryHistory(story.getId(), result -> {
             historyListReference.set(new ArrayList<>(List.of(result.getContent())));
@@ -172,6 +100,23 @@ public class UserStoryUtils {
         List<ItemHistory> historyList = historyListReference.get();
         Collections.sort(historyList);
 
-        return new LeadTimeEntry(historyList, story);
+        return new LeadTimeEntry(historyList, story, statuses);
+    }
+
+    /**
+     * Gets the user story statuses of a project, so stories are measured by what their statuses
+     * mean rather than what they are called.
+     *
+     * @param projectId the id of the project
+     * @return the user story statuses of the project
+     */
+    public static StatusDictionary getUserStoryStatuses(int projectId) {
+        AtomicReference<ProjectStatuses> statusesReference = new AtomicReference<>();
+        TaigaClient.getProjectAPI().getProjectStatuses(projectId, statusesReference::set).join();
+        if (statusesReference.get() == null) {
+            // fail the calculation rather than report every story as never started
+            throw new IllegalStateException("Could not fetch the statuses of project " + projectId);
+        }
+        return statusesReference.get().getUserStoryStatuses();
     }
 }
\ No newline at end of file
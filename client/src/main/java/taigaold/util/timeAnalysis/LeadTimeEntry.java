@@ -1,5 +1,8 @@
 package taigaold.util.timeAnalysis;
 
+import taiga.models.compact.CompactHistory;
+import taiga.models.compact.StatusCategory;
+import taiga.models.compact.StatusDictionary;
 import taiga.models.taskhistory.ItemHistory;
 import taiga.models.taskhistory.ItemHistoryValuesDiff;
 import taiga.models.userstories.UserStoryInterface;
@@ -14,6 +17,12 @@ public class LeadTimeEntry {
     private final List<ItemHistory> historyList;
     private final UserStoryInterface userStory;
 
+    /**
+     * When each history entry was made, oldest first, and the status the US was in after it.
+     */
+    private final long[] times;
+    private final Status[] statuses;
+
     /**
      * Enum for representing the states that a UserStory can be in
      */
@@ -27,19 +36,83 @@ public class LeadTimeEntry {
     }
 
     /**
-     * Create a new LeadTimeEntry.
+     * Create a new LeadTimeEntry for a story whose project statuses are not known. Every status
+     * change then counts as {@link Status#IN_PROGRESS}.
      *
      * @param historyList the list of ItemHistory objects for the associated UserStory
      * @param userStory   the UserStory associated with the ItemHistory list that we want to be abel to get the status for
      */
     public LeadTimeEntry(List<ItemHistory> historyList, UserStoryInterface userStory) {
+        this(historyList, userStory, StatusDictionary.EMPTY);
+    }
+
+    /**
+     * Create a new LeadTimeEntry.
+     *
+     * @param historyList   the list of ItemHistory objects for the associated UserStory
+     * @param userStory     the UserStory associated with the ItemHistory list that we want to be abel to get the status for
+     * @param storyStatuses the user story statuses of the story's project
+     */
+    public LeadTimeEntry(List<ItemHistory> historyList, UserStoryInterface userStory, StatusDictionary storyStatuses) {
         this.historyList = historyList;
         Collections.sort(this.historyList);
         this.userStory = userStory;
+
+        this.times = new long[historyList.size()];
+        this.statuses = new Status[historyList.size()];
+        Status lastStatus = Status.BACKLOG;
+        for (int i = 0; i < historyList.size(); i++) {
+            ItemHistory history = historyList.get(i);
+            lastStatus = applyChange(lastStatus, history, storyStatuses);
+            times[i] = history.getCreatedAt().getTime();
+            statuses[i] = lastStatus;
+        }
+    }
+
+    private static Status applyChange(Status lastStatus, ItemHistory history, StatusDictionary statuses) {
+        ItemHistoryValuesDiff valuesDiff = history.getValuesDiff();
+        if (valuesDiff == null) {
+            return lastStatus;
+        }
+
+        if (valuesDiff.getMilestone() != null) {
+            if (valuesDiff.getMilestone()[1] != null) {
+                lastStatus = Status.IN_SPRINT;
+            } else {
+                lastStatus = Status.BACKLOG;
+            }
+        }
+
+        if (valuesDiff.getStatus() == null) {
+            return lastStatus;
+        }
+
+        // go by the status id when the entry has one, older entries only name the status
+        Integer[] statusIds = history.getDiff() == null ? null : history.getDiff().getStatus();
+        int code = statusIds != null && statusIds.length == 2 ? statuses.code(statusIds[1]) : CompactHistory.NONE;
+        if (code == CompactHistory.NONE) {
+            code = statuses.code(valuesDiff.getStatus()[1]);
+        }
+        StatusCategory category = statuses.getCategory(code);
+        if (category == null) {
+            return Status.IN_PROGRESS;
+        }
+        switch (category) {
+            case NEW:
+                return Status.IN_SPRINT;
+            case TEST:
+                return Status.READY_FOR_TEST;
+            case DONE:
+            case CLOSED:
+                return Status.DONE;
+            default:
+                return Status.IN_PROGRESS;
+        }
     }
 
     /**
      * Computes the status of the US on the given date from the History data of the US. Doesn't make any API calls.
+     * Runs in logarithmic time in the number of history entries.
      *
      * @param date the date to compute the status for
      * @return a Status enum describing the status of the US at the specified date
@@ -49,41 +122,19 @@ public class LeadTimeEntry {
             return Status.NOT_CREATED;
         }
 
-        Status lastStatus = Status.BACKLOG;
-
-        for (ItemHistory history : historyList) {
-            ItemHistoryValuesDiff valuesDiff = history.getValuesDiff();
-
-            if (history.getCreatedAt().after(date)) {
-                break;
-            }
-
-            if (valuesDiff.getMilestone() != null) {
-                if (valuesDiff.getMilestone()[1] != null) {
-                    lastStatus = Status.IN_SPRINT;
-                } else {
-                    lastStatus = Status.BACKLOG;
-                }
-            }
-
-            if (valuesDiff.getStatus() == null) {
-                continue;
-            }
-
-            String statusString = valuesDiff.getStatus()[1];
-
-            if (statusString.equalsIgnoreCase("Ready For Test")) {
-                lastStatus = Status.READY_FOR_TEST;
-            } else if (statusString.equalsIgnoreCase("New")) {
-                lastStatus = Status.IN_SPRINT;
-            } else if (statusString.equalsIgnoreCase("Done")) {
-                lastStatus = Status.DONE;
+        // the statuses were worked out once in the constructor; find the last entry made by this date
+        long time = date.getTime();
+        int low = 0;
+        int high = times.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] <= time) {
+                low = mid + 1;
             } else {
-                lastStatus = Status.IN_PROGRESS;
+                high = mid;
             }
         }
-
-        return lastStatus;
+        return low == 0 ? Status.BACKLOG : statuses[low - 1];
     }
 
     public UserStoryInterface getUserStory() {
@@ -1,6 +1,7 @@
 package taigaold.util.timeAnalysis;
 
 import taiga.TaigaClient;
+import taiga.models.compact.StatusDictionary;
 import taiga.models.project.Project;
 import taiga.models.sprint.UserStoryDetail;
 import taiga.models.userstories.UserStoryInterface;
@@ -30,10 +31,11 @@ public class LeadTimeHelper {
         }).join();
 
         List<UserStoryDetail> userStoryList = userStoryListReference.get();
+        StatusDictionary statuses = UserStoryUtils.getUserStoryStatuses(projectId);
 
         this.leadTimeEntryList = userStoryList
                 .parallelStream()
-                .map(UserStoryUtils::getLeadTimeForUserStory)
+                .map(story -> UserStoryUtils.getLeadTimeForUserStory(story, statuses))
                 .toList();
     }
 
@@ -1,40 +1,27 @@
 package ui.metrics.burndown;
 
 import taiga.TaigaClient;
+import taiga.api.BusinessValueResolver;
+import taiga.models.compact.BusinessValues;
 import taiga.models.sprint.Sprint;
 import taiga.models.sprint.UserStoryDetail;
-import taiga.models.userstories.UserStoryInterface;
-import taigaold.util.UserStoryUtils;
 import ui.util.DateUtil;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 public class BusinessValueBurndown implements BurndownCalculator {
-    private final HashMap<Integer, Double> businessValues;
-
-    public BusinessValueBurndown() {
-//        this.userStoryAPI = new UserStoryAPI();
-        this.businessValues = new HashMap<>();
-
-    }
-
-    private double calculateTotalBusinessValue(List<UserStoryDetail> userStories) {
-        double tempTotal = 0;
-        userStories
-                .parallelStream()
-                .forEach(story -> {
-                    Double bv = UserStoryUtils.getBusinessValueForUserStory(story);
-                    businessValues.put(story.getId(), bv);
-                });
-        for (UserStoryInterface userStory : userStories) {
-            tempTotal += businessValues.get(userStory.getId());
-        }
-        return tempTotal;
+    private BusinessValues businessValues;
+
+    private double calculateTotalBusinessValue(Sprint sprint, List<UserStoryDetail> userStories) {
+        // one round of parallel requests for the whole sprint instead of one request per story
+        businessValues = BusinessValueResolver.forProject(sprint.getProject())
+                .resolve(userStories.stream().map(UserStoryDetail::getId).toList())
+                .join();
+        return businessValues.total();
     }
 
     @Override
@@ -45,9 +32,6 @@ public class BusinessValueBurndown implements BurndownCalculator {
             userStories.set(List.of(result.getContent()));
         }).join();
 
-        double businessValueTotal = calculateTotalBusinessValue(userStories.get());
-
-
         List<BurnDownEntry> burndown = new ArrayList<>();
 
         LocalDate start = DateUtil.toLocal(sprint.getEstimatedStart());
@@ -58,6 +42,8 @@ public class BusinessValueBurndown implements BurndownCalculator {
                     .collect(Collectors.toList());
         }
 
+        double businessValueTotal = calculateTotalBusinessValue(sprint, userStories.get());
+
         List<LocalDate> sprintDates = start.datesUntil(end.plusDays(1)).toList();
 
         for (int i = 0; i < sprintDates.size(); i++) {
@@ -1,16 +1,20 @@
 package ui.metrics.burndown;
 
+import bostonhttp.api.BulkOptions;
 import taiga.TaigaClient;
+import taiga.models.compact.CompactHistory;
+import taiga.models.compact.StatusCategory;
+import taiga.models.compact.StatusDictionary;
 import taiga.models.history.History;
 import taiga.models.history.ValuesDiff;
 import taiga.models.sprint.Sprint;
 import taiga.models.sprint.UserStory;
+import taigaold.util.UserStoryUtils;
 import ui.util.DateUtil;
 
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
 
 public class UserStoryBurndown implements BurndownCalculator {
     private final HashMap<Integer, List<History>> histories;
@@ -20,7 +24,7 @@ public class UserStoryBurndown implements BurndownCalculator {
 
     }
 
-    private History findDoneHistoryEntry(int id) {
+    private History findDoneHistoryEntry(int id, StatusDictionary statuses) {
         List<History> entries = histories.get(id);
         if (entries == null) {
             return null;
@@ -36,33 +40,38 @@ public class UserStoryBurndown implements BurndownCalculator {
                     if (status == null || status.size() != 2) {
                         return false;
                     }
-                    return status.get(1).equals("Done");
+                    // go by the status id when the entry has one, older entries only name the status
+                    List<Integer> statusIds = e.getDiff() == null ? null : e.getDiff().getStatus();
+                    int code = statusIds != null && statusIds.size() == 2
+                            ? statuses.code(statusIds.get(1))
+                            : CompactHistory.NONE;
+                    if (code == CompactHistory.NONE) {
+                        code = statuses.code(status.get(1));
+                    }
+                    return statuses.getCategory(code) == StatusCategory.DONE;
                 })
                 .findFirst();
         return doneEntry.orElse(null);
     }
 
     private void populateAllUserStoryHistories(Sprint sprint) {
-        List<CompletableFuture<Void>> futures = sprint
+        List<Integer> missing = sprint
                 .getUserStories()
-                .parallelStream()
-                .filter(s -> !histories.containsKey(s.getId())) // TODO: technically caching, should really be handled by the api class
-                .map(s ->
-                        TaigaClient.getHistoryAPI().getUserStoryHistory(s.getId(), result -> {
-                            if (result.getStatus() != 200) {
-                                return;
-                            }
-                            histories.put(s.getId(), new ArrayList<>(List.of(result.getContent())));
-                        })
-                )
+                .stream()
+                .map(UserStory::getId)
+                .filter(id -> !histories.containsKey(id)) // TODO: technically caching, should really be handled by the api class
                 .toList();
-        futures.forEach(CompletableFuture::join);
+        TaigaClient.getUserStoryHistoryAPI()
+                .getDetailedUserStoryHistories(missing, BulkOptions.defaults())
+                .join()
+                .forEach((id, history) -> histories.put(id, new ArrayList<>(List.of(history))));
     }
 
     private List<DoneUserStory> getDoneUserStories(Sprint sprint) {
+        StatusDictionary statuses = UserStoryUtils.getUserStoryStatuses(sprint.getProject());
         List<DoneUserStory> completed = new ArrayList<>();
         sprint.getUserStories().forEach(story -> {
-            History history = findDoneHistoryEntry(story.getId());
+            History history = findDoneHistoryEntry(story.getId(), statuses);
             if (history == null) {
                 return;
             }
@@ -1,6 +1,10 @@
 package ui.metrics.pbHealth;
 
 import taiga.TaigaClient;
+import taiga.models.compact.CompactHistory;
+import taiga.models.compact.ProjectStatuses;
+import taiga.models.compact.StatusCategory;
+import taiga.models.compact.StatusDictionary;
 import taiga.models.project.Project;
 import taiga.models.sprint.UserStoryDetail;
 
@@ -11,6 +15,8 @@ import java.util.concurrent.atomic.AtomicReference;
 public class PBHealthHelper {
 
     private final List<UserStoryDetail> pbUserStories;
+    private final StatusDictionary statuses;
+    private final int sprintReady;
 
     public PBHealthHelper(Project project) {
         this(project.getId());
@@ -28,19 +34,27 @@ public class PBHealthHelper {
                 .stream()
                 .filter(us -> us.getMilestone() == null)
                 .toList();
+
+        AtomicReference<ProjectStatuses> statusesReference = new AtomicReference<>();
+        TaigaClient.getProjectAPI().getProjectStatuses(projectId, statusesReference::set).join();
+        if (statusesReference.get() == null) {
+            throw new IllegalStateException("Could not fetch the statuses of project " + projectId);
+        }
+        this.statuses = statusesReference.get().getUserStoryStatuses();
+        this.sprintReady = statuses.code("Sprint-ready");
     }
 
     public List<UserStoryDetail> getGroomedPB() {
         return pbUserStories
                 .stream()
-                .filter(us -> us.getStatusExtraInfo().getName().equalsIgnoreCase("Sprint-ready")) //TODO: test if these are the correct strings
+                .filter(us -> sprintReady != CompactHistory.NONE && statuses.code(us.getStatus()) == sprintReady)
                 .toList();
     }
 
     public List<UserStoryDetail> getNotGroomedPB() {
         return pbUserStories
                 .stream()
-                .filter(us -> us.getStatusExtraInfo().getName().equalsIgnoreCase("New")) //TODO: test if these are the correct strings
+                .filter(us -> statuses.categoryOf(us.getStatus()) == StatusCategory.NEW)
                 .toList();
     }
 }
@@ -28,7 +28,7 @@ public class PBChangeCalculator {
 
     protected Date getRemovedFromPbAfterStartDate(UserStoryDetail userStory, Sprint sprint) {
         AtomicReference<Date> removedDate = new AtomicReference<>();
-        TaigaClient.getHistoryAPI().getUserStoryHistory(userStory.getId(), result -> {
+        TaigaClient.getUserStoryHistoryAPI().getDetailedUserStoryHistory(userStory.getId(), result -> {
             if (result.getStatus() != 200) {
                 return;
             }
@@ -24,7 +24,7 @@ public class ScopeChangeCalculator {
      */
     protected Date getAddedAfterStartDate(UserStory userStory, Sprint sprint) {
         AtomicReference<Date> addedDate = new AtomicReference<>();
-        TaigaClient.getHistoryAPI().getUserStoryHistory(userStory.getId(), result -> {
+        TaigaClient.getUserStoryHistoryAPI().getDetailedUserStoryHistory(userStory.getId(), result -> {
             if (result.getStatus() != 200) {
                 return;
             }
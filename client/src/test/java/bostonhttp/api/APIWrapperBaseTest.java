@@ -0,0 +1,204 @@
+package bostonhttp.api;
+
+import bostonhttp.util.Deadline;
+import bostonhttp.util.RetryBudget;
+import bostonhttp.util.TransportStats;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class APIWrapperBaseTest {
+    private HttpServer server;
+    private final ExecutorService serverExecutor = Executors.newCachedThreadPool();
+    private final CountDownLatch answer = new CountDownLatch(1);
+    private final AtomicInteger requests = new AtomicInteger();
+    private final List<Long> throttledRequestTimes = new CopyOnWriteArrayList<>();
+    private volatile int throttledAnswers;
+    private volatile Supplier<String> retryAfter = () -> "0";
+
+    private static class NumbersAPI extends APIWrapperBase {
+        NumbersAPI(String baseURL) {
+            super("numbers");
+            setAPIBaseURL(baseURL);
+        }
+
+        CompletableFuture<APIResponse<int[]>> get() {
+            return queryAsync("", int[].class, false, false);
+        }
+    }
+
+    private static class ThrottledAPI extends APIWrapperBase {
+        ThrottledAPI(String baseURL) {
+            super("throttled");
+            setAPIBaseURL(baseURL);
+        }
+
+        CompletableFuture<APIResponse<int[]>> get() {
+            return queryAsync("", int[].class, false, false);
+        }
+    }
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/numbers", exchange -> {
+            requests.incrementAndGet();
+            try {
+                answer.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "[1, 2, 3]".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/throttled", exchange -> {
+            throttledRequestTimes.add(System.nanoTime());
+            if (throttledRequestTimes.size() <= throttledAnswers) {
+                exchange.getResponseHeaders().add("Retry-After", retryAfter.get());
+                exchange.sendResponseHeaders(429, -1);
+                exchange.close();
+                return;
+            }
+            byte[] body = "[1, 2, 3]".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.setExecutor(serverExecutor);
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        Deadline.setCurrent(null);
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testExpiredCallerDoesNotFailSharedRequest() {
+        NumbersAPI api = new NumbersAPI("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+
+        Deadline.setCurrent(Deadline.after(Duration.ofMillis(100)));
+        CompletableFuture<APIResponse<int[]>> hurried = api.get();
+        Deadline.setCurrent(null);
+        CompletableFuture<APIResponse<int[]>> patient = api.get();
+
+        CompletionException error = assertThrows(CompletionException.class, hurried::join);
+        assertInstanceOf(TimeoutException.class, error.getCause());
+
+        answer.countDown();
+        APIResponse<int[]> response = patient.join();
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(new int[]{1, 2, 3}, response.getContent());
+        assertEquals(1, requests.get());
+    }
+
+    private ThrottledAPI throttledAPI() {
+        return new ThrottledAPI("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+    }
+
+    private long millisBetweenThrottledRequests(int first, int second) {
+        return TimeUnit.NANOSECONDS.toMillis(throttledRequestTimes.get(second) - throttledRequestTimes.get(first));
+    }
+
+    @Test
+    public void testThrottledRequestIsRetried() {
+        throttledAnswers = 1;
+        long retriedBefore = TransportStats.getInstance().getRetriedCount();
+
+        APIResponse<int[]> response = throttledAPI().get().join();
+
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(new int[]{1, 2, 3}, response.getContent());
+        assertEquals(2, throttledRequestTimes.size());
+        assertEquals(retriedBefore + 1, TransportStats.getInstance().getRetriedCount());
+    }
+
+    @Test
+    public void testRetryAfterSecondsIsHonored() {
+        throttledAnswers = 1;
+        retryAfter = () -> "1";
+
+        assertEquals(200, throttledAPI().get().join().getStatus());
+
+        assertTrue(millisBetweenThrottledRequests(0, 1) >= 1000);
+    }
+
+    @Test
+    public void testRetryAfterDateIsHonored() {
+        throttledAnswers = 1;
+        // the date only has whole seconds, so two seconds ahead is at least one second away
+        retryAfter = () -> DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(2));
+
+        assertEquals(200, throttledAPI().get().join().getStatus());
+
+        assertTrue(millisBetweenThrottledRequests(0, 1) >= 1000);
+    }
+
+    @Test
+    public void testExhaustedRetryBudgetReturnsThrottledResponse() {
+        throttledAnswers = Integer.MAX_VALUE;
+        long droppedBefore = TransportStats.getInstance().getDroppedCount();
+        RetryBudget budget = RetryBudget.getInstance();
+        while (budget.tryWithdraw()) {
+            // spend the whole budget
+        }
+
+        try {
+            APIResponse<int[]> response = throttledAPI().get().join();
+
+            assertEquals(429, response.getStatus());
+            assertNull(response.getContent());
+            // what is left of the budget is less than a retry, at most one more fits
+            assertTrue(throttledRequestTimes.size() <= 2);
+            assertEquals(droppedBefore + 1, TransportStats.getInstance().getDroppedCount());
+        } finally {
+            for (int i = 0; i < 500; i++) {
+                budget.deposit();
+            }
+        }
+    }
+
+    @Test
+    public void testFailedRequestGetsErrorResponse() throws IOException {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        NumbersAPI api = new NumbersAPI("http://127.0.0.1:" + closedPort + "/");
+
+        APIResponse<int[]> response = api.get().join();
+
+        assertEquals(500, response.getStatus());
+        assertNull(response.getContent());
+    }
+}
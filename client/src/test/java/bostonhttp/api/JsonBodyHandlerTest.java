@@ -0,0 +1,179 @@
+package bostonhttp.api;
+
+import bostonhttp.util.GsonSingleton;
+import bostonhttp.util.HTTPClientSingleton;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonBodyHandlerTest {
+    private static final String BODY = "[1, 2, 3]";
+
+    private HttpServer server;
+    private final ExecutorService serverExecutor = Executors.newCachedThreadPool();
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/gzip", exchange -> {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(BODY.getBytes(StandardCharsets.UTF_8));
+            }
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, compressed.size());
+            try (OutputStream out = exchange.getResponseBody()) {
+                compressed.writeTo(out);
+            }
+        });
+        server.createContext("/truncated", exchange -> {
+            // a complete response carrying a compressed body cut short
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(BODY.getBytes(StandardCharsets.UTF_8));
+            }
+            byte[] body = Arrays.copyOf(compressed.toByteArray(), compressed.size() / 2);
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/empty", exchange -> {
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.createContext("/etag", exchange -> {
+            byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("ETag", "\"numbers\"");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/missing", exchange -> {
+            byte[] body = "{\"detail\": \"not found\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(404, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/stall", exchange -> {
+            // promise a longer body than is ever sent
+            exchange.sendResponseHeaders(200, 100);
+            OutputStream out = exchange.getResponseBody();
+            out.write("[1, ".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            try {
+                Thread.sleep(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        server.setExecutor(serverExecutor);
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private <T> HttpResponse<Supplier<T>> get(String path, JsonBodyHandler<T> handler) {
+        URI uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path);
+        return client.sendAsync(HttpRequest.newBuilder(uri).build(), handler).join();
+    }
+
+    @Test
+    public void testCompressedBodyIsDecodedBeforeTheExchangeCompletes() {
+        JsonBodyHandler<int[]> handler = new JsonBodyHandler<>(GsonSingleton.getInstance().getAdapter(int[].class));
+
+        HttpResponse<Supplier<int[]>> response = get("/gzip", handler);
+
+        assertArrayEquals(new int[]{1, 2, 3}, response.body().get());
+        assertEquals(BODY.length(), handler.getBodySize());
+    }
+
+    @Test
+    public void testStalledBodyTimesOut() {
+        JsonBodyHandler<int[]> handler = new JsonBodyHandler<>(GsonSingleton.getInstance().getAdapter(int[].class),
+                HTTPClientSingleton.getDecodeExecutor(), Duration.ofMillis(200));
+
+        CompletionException error = assertThrows(CompletionException.class, () -> get("/stall", handler));
+        assertInstanceOf(HttpTimeoutException.class, error.getCause());
+    }
+
+    @Test
+    public void testTruncatedBodyFailsTheExchange() {
+        JsonBodyHandler<int[]> handler = new JsonBodyHandler<>(GsonSingleton.getInstance().getAdapter(int[].class));
+
+        CompletionException error = assertThrows(CompletionException.class, () -> get("/truncated", handler));
+        assertInstanceOf(IOException.class, error.getCause());
+    }
+
+    @Test
+    public void testEmptyBodyDecodesToNull() {
+        JsonBodyHandler<int[]> handler = new JsonBodyHandler<>(GsonSingleton.getInstance().getAdapter(int[].class));
+
+        HttpResponse<Supplier<int[]>> response = get("/empty", handler);
+
+        assertEquals(200, response.statusCode());
+        assertNull(response.body().get());
+    }
+
+    @Test
+    public void testValidatedBodyIsKeptAndDecodedToANewCopy() {
+        JsonBodyHandler<int[]> handler = new JsonBodyHandler<>(GsonSingleton.getInstance().getAdapter(int[].class))
+                .withValidatedBodyKept();
+
+        int[] first = get("/etag", handler).body().get();
+        int[] again = handler.decodeKept(handler.getKeptBody());
+
+        assertArrayEquals(first, again);
+        assertNotSame(first, again);
+    }
+
+    @Test
+    public void testBodyWithoutValidatorsIsNotKept() {
+        JsonBodyHandler<int[]> handler = new JsonBodyHandler<>(GsonSingleton.getInstance().getAdapter(int[].class))
+                .withValidatedBodyKept();
+
+        get("/gzip", handler);
+
+        assertNull(handler.getKeptBody());
+    }
+
+    @Test
+    public void testErrorBodiesAreDiscarded() {
+        JsonBodyHandler<int[]> handler = new JsonBodyHandler<>(GsonSingleton.getInstance().getAdapter(int[].class));
+
+        HttpResponse<Supplier<int[]>> response = get("/missing", handler);
+
+        assertEquals(404, response.statusCode());
+        assertNull(response.body().get());
+    }
+}
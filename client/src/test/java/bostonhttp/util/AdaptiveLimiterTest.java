@@ -0,0 +1,164 @@
+package bostonhttp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveLimiterTest {
+
+    @Test
+    void testSameHostSharesLimiter() {
+        AdaptiveLimiter a = AdaptiveLimiter.forHost(URI.create("https://limiter-test.example/api/v1/history/task/1"));
+        AdaptiveLimiter b = AdaptiveLimiter.forHost(URI.create("https://limiter-test.example/api/v1/history/task/2"));
+        AdaptiveLimiter c = AdaptiveLimiter.forHost(URI.create("https://other-limiter-test.example/api/v1/"));
+
+        assertSame(a, b);
+        assertNotSame(a, c);
+    }
+
+    @Test
+    void testWaitersAreServedOnRelease() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter();
+        int limit = limiter.getLimit();
+
+        List<AdaptiveLimiter.Permit> held = new ArrayList<>();
+        for (int i = 0; i < limit; i++) {
+            held.add(limiter.acquire().join());
+        }
+
+        CompletableFuture<AdaptiveLimiter.Permit> waiting = limiter.acquire();
+        assertFalse(waiting.isDone());
+
+        held.get(0).onIgnore();
+        assertTrue(waiting.isDone());
+        assertEquals(limit, limiter.getInFlight());
+    }
+
+    @Test
+    void testWaitersAreServedInOrder() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter();
+        int limit = limiter.getLimit();
+
+        List<AdaptiveLimiter.Permit> held = new ArrayList<>();
+        for (int i = 0; i < limit; i++) {
+            held.add(limiter.acquire().join());
+        }
+        CompletableFuture<AdaptiveLimiter.Permit> first = limiter.acquire();
+        CompletableFuture<AdaptiveLimiter.Permit> second = limiter.acquire();
+
+        held.get(0).onIgnore();
+        assertTrue(first.isDone());
+        assertFalse(second.isDone());
+
+        held.get(1).onIgnore();
+        assertTrue(second.isDone());
+    }
+
+    @Test
+    void testGrowthAdmitsQueuedWaiters() {
+        // a clock that never moves keeps every sample at the no-load latency, so the limit only grows
+        AdaptiveLimiter limiter = new AdaptiveLimiter(() -> 0L);
+        int initial = limiter.getLimit();
+
+        Deque<AdaptiveLimiter.Permit> granted = new ArrayDeque<>();
+        for (int i = 0; i < initial; i++) {
+            granted.push(limiter.acquire().join());
+        }
+        List<CompletableFuture<AdaptiveLimiter.Permit>> waiting = new ArrayList<>();
+        for (int i = 0; i < 2 * initial; i++) {
+            waiting.add(limiter.acquire());
+        }
+
+        int released = 0;
+        int admitted = 0;
+        while (limiter.getLimit() == initial) {
+            // release the busiest permits first, those are the ones that let the limit grow
+            granted.pop().onSuccess();
+            released++;
+            while (admitted < waiting.size() && waiting.get(admitted).isDone()) {
+                granted.push(waiting.get(admitted++).join());
+            }
+        }
+
+        assertEquals(initial + 1, limiter.getLimit());
+        assertEquals(released + 1, admitted);
+        assertEquals(limiter.getLimit(), limiter.getInFlight());
+    }
+
+    @Test
+    void testDropShrinksLimit() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter();
+        int before = limiter.getLimit();
+
+        limiter.acquire().join().onDropped();
+
+        assertTrue(limiter.getLimit() < before);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void testBurstOfDropsCutsOnce() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter();
+        List<AdaptiveLimiter.Permit> held = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            held.add(limiter.acquire().join());
+        }
+
+        held.forEach(AdaptiveLimiter.Permit::onDropped);
+        assertEquals(10, limiter.getLimit());
+
+        // a request sent after the cut can cut again
+        limiter.acquire().join().onDropped();
+        assertEquals(5, limiter.getLimit());
+    }
+
+    @Test
+    void testBurstOfSlowResponsesCutsOnce() {
+        AtomicLong clock = new AtomicLong();
+        AdaptiveLimiter limiter = new AdaptiveLimiter(clock::get);
+        for (int i = 0; i < 20; i++) {
+            AdaptiveLimiter.Permit permit = limiter.acquire().join();
+            clock.addAndGet(10);
+            permit.onSuccess();
+        }
+        int before = limiter.getLimit();
+
+        List<AdaptiveLimiter.Permit> held = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            held.add(limiter.acquire().join());
+        }
+        clock.addAndGet(100);
+        held.forEach(AdaptiveLimiter.Permit::onSuccess);
+
+        assertEquals((int) (before * 0.9), limiter.getLimit());
+    }
+
+    @Test
+    void testLatencyIsMeasuredToTheHeaders() {
+        AtomicLong clock = new AtomicLong();
+        AdaptiveLimiter limiter = new AdaptiveLimiter(clock::get);
+        for (int i = 0; i < 20; i++) {
+            AdaptiveLimiter.Permit permit = limiter.acquire().join();
+            clock.addAndGet(10);
+            permit.onSuccess();
+        }
+        int before = limiter.getLimit();
+
+        // a large body takes long to arrive and decode after quick headers
+        AdaptiveLimiter.Permit permit = limiter.acquire().join();
+        clock.addAndGet(10);
+        permit.onHeaders();
+        clock.addAndGet(1000);
+        permit.onSuccess();
+
+        assertEquals(before, limiter.getLimit());
+    }
+}
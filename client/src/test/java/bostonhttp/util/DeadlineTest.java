@@ -0,0 +1,49 @@
+package bostonhttp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadlineTest {
+
+    @Test
+    void testHeaderRoundTrip() {
+        Deadline deadline = Deadline.fromHeader(Deadline.after(Duration.ofSeconds(10)).toHeader());
+
+        assertNotNull(deadline);
+        assertFalse(deadline.isExpired());
+        assertTrue(deadline.remaining().toMillis() > 9000);
+        assertNull(Deadline.fromHeader("soon"));
+        assertNull(Deadline.fromHeader(null));
+    }
+
+    @Test
+    void testWrappedExecutorCarriesDeadline() {
+        Deadline deadline = Deadline.after(Duration.ofSeconds(10));
+
+        Deadline seen = CompletableFuture.supplyAsync(Deadline::current, deadline.wrap(Runnable::run)).join();
+
+        assertSame(deadline, seen);
+        assertNull(Deadline.current());
+    }
+
+    @Test
+    void testExpiryCancelsAndBounds() {
+        Deadline deadline = Deadline.after(Duration.ofMillis(50));
+        CompletableFuture<Void> exchange = new CompletableFuture<>();
+        deadline.cancelOnExpiry(exchange);
+
+        CompletionException error = assertThrows(CompletionException.class,
+                () -> deadline.bound(new CompletableFuture<Void>()).join());
+
+        assertInstanceOf(TimeoutException.class, error.getCause());
+        assertTrue(deadline.isExpired());
+        assertThrows(CancellationException.class, exchange::join);
+    }
+}
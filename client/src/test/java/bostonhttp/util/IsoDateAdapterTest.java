@@ -0,0 +1,54 @@
+package bostonhttp.util;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IsoDateAdapterTest {
+    @Test
+    void testMatchesJavaTimeForTaigaTimestamps() {
+        String[] timestamps = {
+                "2024-02-01T10:15:30.123Z",
+                "2024-02-29T23:59:59.9Z",
+                "2023-12-31T00:00:00.123456Z",
+                "2024-02-01T10:15:30+00:00",
+                "2024-02-01T10:15:30.5-07:00",
+                "1969-12-31T23:59:59.999Z",
+                "2024-03-01T01:00+05:30",
+        };
+        for (String timestamp : timestamps) {
+            long expected = OffsetDateTime.parse(timestamp).toInstant().toEpochMilli();
+            assertEquals(expected, IsoDateAdapter.parse(timestamp).getTime(), timestamp);
+        }
+    }
+
+    @Test
+    void testReadsWhatTheDefaultAdapterWrote() {
+        Date date = new Date(1706782530000L);
+        String legacy = new Gson().toJson(date);
+
+        Date parsed = GsonSingleton.getInstance().fromJson(legacy, Date.class);
+
+        assertEquals(date, parsed);
+        assertEquals("\"2024-02-01T10:15:30Z\"", GsonSingleton.getInstance().toJson(date));
+    }
+
+    @Test
+    void testRejectsInvalidDates() {
+        assertThrows(JsonSyntaxException.class, () -> GsonSingleton.getInstance().fromJson("\"2024-02-30T10:15:30Z\"", Date.class));
+        assertNull(GsonSingleton.getInstance().fromJson("null", Date.class));
+    }
+
+    @Test
+    void testParsesLocalDates() {
+        assertEquals(LocalDate.of(2024, 2, 29), IsoDateAdapter.parseLocalDate("2024-02-29"));
+        assertEquals(LocalDate.of(2024, 2, 29), GsonSingleton.getInstance().fromJson("\"2024-02-29\"", LocalDate.class));
+        assertThrows(Exception.class, () -> IsoDateAdapter.parseLocalDate("2023-02-29"));
+    }
+}
@@ -0,0 +1,53 @@
+package bostonhttp.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheTest {
+
+    @AfterEach
+    void tearDown() {
+        ResponseCache.getInstance().clear();
+        ResponseCache.getInstance().setMaxWeight(64L * 1024 * 1024);
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsed() {
+        ResponseCache cache = ResponseCache.getInstance();
+        cache.setMaxWeight(100);
+
+        cache.put("a", new ResponseCache.Entry("\"a\"", null, new byte[40]));
+        cache.put("b", new ResponseCache.Entry("\"b\"", null, new byte[40]));
+        cache.get("a");
+        cache.put("c", new ResponseCache.Entry("\"c\"", null, new byte[40]));
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+    }
+
+    @Test
+    void testReplacingEntryKeepsWeight() {
+        ResponseCache cache = ResponseCache.getInstance();
+        cache.setMaxWeight(100);
+
+        cache.put("a", new ResponseCache.Entry("\"a1\"", null, new byte[60]));
+        cache.put("a", new ResponseCache.Entry("\"a2\"", null, new byte[60]));
+
+        assertEquals(1, cache.size());
+        assertEquals(60, cache.get("a").getWeight());
+        assertEquals("\"a2\"", cache.get("a").getEtag());
+    }
+
+    @Test
+    void testOversizedEntryIsNotStored() {
+        ResponseCache cache = ResponseCache.getInstance();
+        cache.setMaxWeight(100);
+
+        cache.put("big", new ResponseCache.Entry(null, "Mon, 01 Jan 2024 00:00:00 GMT", new byte[101]));
+
+        assertNull(cache.get("big"));
+    }
+}
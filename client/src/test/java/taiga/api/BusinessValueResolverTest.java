@@ -0,0 +1,89 @@
+package taiga.api;
+
+import bostonhttp.api.APIResponse;
+import org.junit.jupiter.api.Test;
+import taiga.models.compact.BusinessValues;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BusinessValueResolverTest {
+    private static final String ATTRIBUTES_JSON = "[{\"id\": 5, \"name\": \"Risk\", \"project\": 1},"
+            + " {\"id\": 9, \"name\": \"BV\", \"project\": 1}]";
+
+    private static class CountingAttributesAPI extends UserStoryCustomAttributesAPI {
+        private final FakeQueries queries = new FakeQueries(ATTRIBUTES_JSON);
+
+        @Override
+        protected <T> CompletableFuture<APIResponse<T>> queryAsync(String query, Class<T> responseType) {
+            return queries.query(query, responseType);
+        }
+    }
+
+    /**
+     * Answers with the story id as business value, except story 3 which holds text and story 4
+     * which cannot be fetched.
+     */
+    private static class CountingValuesAPI extends UserStoryCustomAttributesValuesAPI {
+        private final FakeQueries queries = new FakeQueries(CountingValuesAPI::valuesJson);
+
+        @Override
+        protected <T> CompletableFuture<APIResponse<T>> queryAsync(String query, Class<T> responseType) {
+            return queries.query(query, responseType);
+        }
+
+        private static String valuesJson(String query) {
+            if (query.equals("4")) {
+                return null;
+            }
+            String value = query.equals("3") ? "lots" : query + ".5";
+            return "{\"user_story\": " + query + ", \"version\": 1,"
+                    + " \"attributes_values\": {\"5\": \"high\", \"9\": \"" + value + "\"}}";
+        }
+    }
+
+    @Test
+    public void testResolvesEveryStoryOnce() {
+        CountingAttributesAPI attributesAPI = new CountingAttributesAPI();
+        CountingValuesAPI valuesAPI = new CountingValuesAPI();
+        BusinessValueResolver resolver = new BusinessValueResolver(1, attributesAPI, valuesAPI);
+
+        BusinessValues values = resolver.resolve(List.of(1, 2, 3, 4)).join();
+
+        assertEquals(4, values.size());
+        assertEquals(1.5, values.get(1));
+        assertEquals(2.5, values.get(2));
+        assertEquals(0, values.get(3));
+        assertEquals(0, values.get(4));
+        assertEquals(4, values.total());
+
+        // only the story that failed is fetched again, the attribute definition is not
+        resolver.resolve(List.of(1, 2, 3, 4)).join();
+        assertEquals(1, attributesAPI.queries.queries());
+        assertEquals(5, valuesAPI.queries.queries());
+    }
+
+    @Test
+    public void testOneResolverPerProject() {
+        assertSame(BusinessValueResolver.forProject(1), BusinessValueResolver.forProject(1));
+        assertNotSame(BusinessValueResolver.forProject(1), BusinessValueResolver.forProject(2));
+    }
+
+    @Test
+    public void testBusinessValuesGrow() {
+        BusinessValues values = new BusinessValues(2);
+        for (int id = 0; id < 1000; id++) {
+            values.put(id * 64, id);
+        }
+        values.put(64, 7);
+
+        assertEquals(1000, values.size());
+        assertEquals(7, values.get(64));
+        assertEquals(999, values.get(999 * 64));
+        assertTrue(values.containsKey(0));
+        assertFalse(values.containsKey(65));
+        assertEquals(0, values.get(65));
+    }
+}
@@ -0,0 +1,118 @@
+package taiga.api;
+
+import bostonhttp.api.APIResponse;
+import bostonhttp.util.GsonSingleton;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Answers the queries of an API wrapper from memory, for tests. The wrapper's test subclass
+ * delegates queryAsync here. Each query is answered with the JSON the test gives for it, either at
+ * once or, when holding, only once the test answers it. Queries are counted, as is the largest
+ * number held open at the same time.
+ */
+class FakeQueries {
+    private final Function<String, String> bodies;
+    private final Map<String, CompletableFuture<APIResponse<?>>> pending = new ConcurrentHashMap<>();
+    private final Map<String, Class<?>> types = new ConcurrentHashMap<>();
+    private final AtomicInteger queries = new AtomicInteger();
+    private final AtomicInteger open = new AtomicInteger();
+    private final AtomicInteger maxOpen = new AtomicInteger();
+    private volatile boolean holding;
+    private volatile int status = 200;
+    private volatile boolean noResponse;
+
+    /**
+     * @param json the body of every answer
+     */
+    FakeQueries(String json) {
+        this(query -> json);
+    }
+
+    /**
+     * @param bodies the body to answer a query with, null to answer 404 Not Found
+     */
+    FakeQueries(Function<String, String> bodies) {
+        this.bodies = bodies;
+    }
+
+    /**
+     * Hold every later query open until {@link #answer(String, int)} is called for it.
+     *
+     * @return this
+     */
+    FakeQueries holding() {
+        holding = true;
+        return this;
+    }
+
+    /**
+     * @param status status of the answers given at once; anything but 200 answers without content
+     */
+    void setStatus(int status) {
+        this.status = status;
+    }
+
+    /**
+     * @param noResponse whether answers given at once are null, as if no response came back
+     */
+    void setNoResponse(boolean noResponse) {
+        this.noResponse = noResponse;
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> CompletableFuture<APIResponse<T>> query(String query, Class<T> responseType) {
+        queries.incrementAndGet();
+        if (!holding) {
+            return CompletableFuture.completedFuture(noResponse ? null : respond(query, responseType, status));
+        }
+        maxOpen.accumulateAndGet(open.incrementAndGet(), Math::max);
+        CompletableFuture<APIResponse<?>> future = new CompletableFuture<>();
+        types.put(query, responseType);
+        pending.put(query, future);
+        return future.thenApply(response -> {
+            open.decrementAndGet();
+            return (APIResponse<T>) response;
+        });
+    }
+
+    /**
+     * Answer a query being held open.
+     *
+     * @param query  the query
+     * @param status status of the answer; anything but 200 answers without content
+     */
+    void answer(String query, int status) {
+        pending.remove(query).complete(respond(query, types.get(query), status));
+    }
+
+    /**
+     * @return the queries being held open
+     */
+    Set<String> pending() {
+        return pending.keySet();
+    }
+
+    int queries() {
+        return queries.get();
+    }
+
+    int maxOpen() {
+        return maxOpen.get();
+    }
+
+    private <T> APIResponse<T> respond(String query, Class<T> responseType, int status) {
+        if (status != 200) {
+            return new APIResponse<>(status, null);
+        }
+        String json = bodies.apply(query);
+        return json == null
+                ? new APIResponse<>(404, null)
+                : new APIResponse<>(200, GsonSingleton.getInstance().fromJson(json, responseType));
+    }
+}
@@ -0,0 +1,38 @@
+package taiga.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaigaQueryTest {
+    @Test
+    public void testOrderOfSettersDoesNotMatter() {
+        TaigaQuery first = TaigaQuery.create().project(12).statusIsClosed(true).milestone(3);
+        TaigaQuery second = TaigaQuery.create().milestone(3).project(12).statusIsClosed(true);
+
+        assertEquals("?milestone=3&project=12&status__is_closed=true", first.toQuery());
+        assertEquals(first.getCacheKey(), second.getCacheKey());
+        assertEquals(first, second);
+    }
+
+    @Test
+    public void testNewFiltersAreEncoded() {
+        TaigaQuery query = TaigaQuery.create()
+                .project(12)
+                .milestoneIsNull(true)
+                .includeAttachments(false)
+                .modifiedSince(Instant.parse("2024-02-01T09:00:00Z"));
+
+        assertEquals("?include_attachments=false&milestone__isnull=true"
+                + "&modified_date__gte=2024-02-01T09%3A00%3A00Z&project=12", query.toQuery());
+    }
+
+    @Test
+    public void testPathAndEmptyQuery() {
+        assertEquals("", TaigaQuery.create().toQuery());
+        assertEquals("/by_slug?slug=my+project", TaigaQuery.create().slug("my project").toQuery("/by_slug"));
+        assertEquals("?project=2", TaigaQuery.create().project(1).project(2).toQuery());
+    }
+}
@@ -0,0 +1,113 @@
+package taiga.api;
+
+import bostonhttp.api.APIResponse;
+import bostonhttp.api.BulkOptions;
+import org.junit.jupiter.api.Test;
+import taiga.models.taskhistory.ItemHistory;
+
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskHistoryAPITest {
+    private static final String HISTORY_JSON = "[{\"id\": \"a\", \"created_at\": \"2024-02-01T09:00:00.000Z\","
+            + " \"values_diff\": {\"status\": [\"New\", \"In progress\"]}}]";
+
+    /**
+     * Holds every query open until the test answers it.
+     */
+    private static class PendingHistoryAPI extends TaskHistoryAPI {
+        private final FakeQueries queries = new FakeQueries(HISTORY_JSON).holding();
+
+        @Override
+        protected <T> CompletableFuture<APIResponse<T>> queryAsync(String query, Class<T> responseType) {
+            return queries.query(query, responseType);
+        }
+    }
+
+    @Test
+    public void testBulkFetchIsBoundedAndReportsFailures() {
+        PendingHistoryAPI api = new PendingHistoryAPI();
+        List<Integer> failed = new ArrayList<>();
+        AtomicInteger lastProgress = new AtomicInteger();
+        BulkOptions options = BulkOptions.defaults()
+                .withConcurrency(2)
+                .withErrorHandler((id, status) -> failed.add(id))
+                .withProgressListener((done, total) -> lastProgress.set(done));
+
+        CompletableFuture<Map<Integer, ItemHistory[]>> result = api.getTaskHistories(List.of(1, 2, 3, 4, 2), options);
+
+        // answer queries as they open, failing the one for task 3
+        while (!result.isDone()) {
+            assertTrue(api.queries.pending().size() <= 2);
+            String query = api.queries.pending().iterator().next();
+            api.queries.answer(query, query.equals("/3") ? 404 : 200);
+        }
+
+        Map<Integer, ItemHistory[]> histories = result.join();
+        assertEquals(2, api.queries.maxOpen());
+        assertEquals(3, histories.size());
+        assertFalse(histories.containsKey(3));
+        assertEquals("In progress", histories.get(4)[0].getValuesDiff().getStatus()[1]);
+        assertEquals(List.of(3), failed);
+        assertEquals(4, lastProgress.get());
+    }
+
+    @Test
+    public void testStreamingFetchHandsOverEveryHistoryDespiteAThrowingConsumer() {
+        PendingHistoryAPI api = new PendingHistoryAPI();
+        Map<Integer, Integer> statusChanges = new ConcurrentHashMap<>();
+
+        CompletableFuture<Void> result = api.forEachCompactTaskHistory(List.of(1, 2, 3),
+                BulkOptions.defaults().withConcurrency(2), (id, history) -> {
+                    statusChanges.put(id, history.hasStatusChange(0) ? 1 : 0);
+                    if (id == 1) {
+                        throw new IllegalStateException("consumer failure");
+                    }
+                });
+
+        while (!result.isDone()) {
+            api.queries.answer(api.queries.pending().iterator().next(), 200);
+        }
+
+        assertEquals(Map.of(1, 1, 2, 1, 3, 1), statusChanges);
+    }
+
+    @Test
+    public void testRequestsThatCannotStartAreReportedAsFailures() {
+        FakeQueries queries = new FakeQueries(HISTORY_JSON);
+        TaskHistoryAPI api = new TaskHistoryAPI() {
+            @Override
+            protected <T> CompletableFuture<APIResponse<T>> queryAsync(String query, Class<T> responseType) {
+                switch (query) {
+                    case "/2":
+                        return null;
+                    case "/3":
+                        return CompletableFuture.failedFuture(new URISyntaxException(query, "bad query"));
+                    default:
+                        return queries.query(query, responseType);
+                }
+            }
+        };
+        List<Integer> failed = new CopyOnWriteArrayList<>();
+
+        Map<Integer, ItemHistory[]> histories = api.getTaskHistories(List.of(1, 2, 3, 4),
+                BulkOptions.defaults().withConcurrency(1).withErrorHandler((id, status) -> failed.add(id))).join();
+
+        assertEquals(Set.of(1, 4), histories.keySet());
+        assertEquals(List.of(2, 3), failed);
+    }
+
+    @Test
+    public void testEmptyBulkFetchCompletes() {
+        assertTrue(new PendingHistoryAPI().getTaskHistories(List.of()).join().isEmpty());
+    }
+}
@@ -0,0 +1,128 @@
+package taiga.api;
+
+import bostonhttp.api.APIResponse;
+import bostonhttp.util.Deadline;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import taiga.models.compact.CompactHistory;
+import taiga.models.history.History;
+import taiga.models.taskhistory.ItemHistory;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserStoryHistoryAPITest {
+    private static final String HISTORY_JSON = "[{\"id\": \"a\", \"created_at\": \"2024-02-01T09:00:00.000Z\","
+            + " \"diff\": {\"milestone\": [null, 42]},"
+            + " \"values_diff\": {\"milestone\": [null, \"Sprint 1\"], \"status\": [\"New\", \"In progress\"]}}]";
+
+    /**
+     * Answers every query from memory and counts them.
+     */
+    private static class CountingHistoryAPI extends UserStoryHistoryAPI {
+        private final FakeQueries queries;
+
+        CountingHistoryAPI() {
+            this(new FakeQueries(HISTORY_JSON));
+        }
+
+        CountingHistoryAPI(FakeQueries queries) {
+            this.queries = queries;
+        }
+
+        @Override
+        protected <T> CompletableFuture<APIResponse<T>> queryAsync(String query, Class<T> responseType) {
+            return queries.query(query, responseType);
+        }
+    }
+
+    @AfterEach
+    public void clearDeadline() {
+        Deadline.setCurrent(null);
+    }
+
+    @Test
+    public void testViewsShareOneDownload() {
+        CountingHistoryAPI api = new CountingHistoryAPI();
+        AtomicReference<ItemHistory[]> items = new AtomicReference<>();
+        AtomicReference<History[]> detailed = new AtomicReference<>();
+        AtomicReference<CompactHistory> compact = new AtomicReference<>();
+
+        api.getUserStoryHistory(7, result -> items.set(result.getContent())).join();
+        api.getDetailedUserStoryHistory(7, result -> detailed.set(result.getContent())).join();
+        api.getCompactUserStoryHistory(7, result -> compact.set(result.getContent())).join();
+
+        assertEquals(1, api.queries.queries());
+        assertEquals("In progress", items.get()[0].getValuesDiff().getStatus()[1]);
+        assertEquals(42L, detailed.get()[0].getDiff().getMilestone().get(1));
+        assertEquals(42, compact.get().getMilestone(0));
+    }
+
+    @Test
+    public void testFailuresAndExpiredEntriesAreFetchedAgain() {
+        CountingHistoryAPI api = new CountingHistoryAPI();
+        api.queries.setStatus(500);
+        api.getUserStoryHistory(7, result -> assertNull(result.getContent())).join();
+        api.queries.setStatus(200);
+        api.getUserStoryHistory(7, result -> assertNotNull(result.getContent())).join();
+        assertEquals(2, api.queries.queries());
+
+        api.setTimeToLive(Duration.ZERO);
+        api.getUserStoryHistory(7, result -> assertNotNull(result.getContent())).join();
+        assertEquals(3, api.queries.queries());
+
+        api.setTimeToLive(Duration.ofMinutes(1));
+        api.invalidate(7);
+        api.getUserStoryHistory(7, result -> assertNotNull(result.getContent())).join();
+        api.getUserStoryHistory(7, result -> assertNotNull(result.getContent())).join();
+        assertEquals(4, api.queries.queries());
+    }
+
+    @Test
+    public void testCompactViewIsDecodedOnce() {
+        CountingHistoryAPI api = new CountingHistoryAPI();
+        AtomicReference<CompactHistory> first = new AtomicReference<>();
+        AtomicReference<CompactHistory> second = new AtomicReference<>();
+
+        api.getCompactUserStoryHistory(7, result -> first.set(result.getContent())).join();
+        api.getCompactUserStoryHistory(7, result -> second.set(result.getContent())).join();
+
+        assertSame(first.get(), second.get());
+    }
+
+    @Test
+    public void testMissingResponseIsAnErrorAndNotCached() {
+        CountingHistoryAPI api = new CountingHistoryAPI();
+        api.queries.setNoResponse(true);
+        AtomicReference<APIResponse<ItemHistory[]>> failed = new AtomicReference<>();
+        api.getUserStoryHistory(7, failed::set).join();
+
+        assertEquals(500, failed.get().getStatus());
+        assertNull(failed.get().getContent());
+
+        api.queries.setNoResponse(false);
+        api.getUserStoryHistory(7, result -> assertNotNull(result.getContent())).join();
+        assertEquals(2, api.queries.queries());
+    }
+
+    @Test
+    public void testCallerDeadlineDoesNotFailCachedDownload() {
+        CountingHistoryAPI api = new CountingHistoryAPI(new FakeQueries(HISTORY_JSON).holding());
+
+        Deadline.setCurrent(Deadline.after(Duration.ofMillis(50)));
+        CompletableFuture<Void> hurried = api.getUserStoryHistory(7, result -> { });
+        Deadline.setCurrent(null);
+
+        CompletionException error = assertThrows(CompletionException.class, hurried::join);
+        assertInstanceOf(TimeoutException.class, error.getCause());
+
+        api.queries.answer("/7", 200);
+        api.getUserStoryHistory(7, result -> assertEquals(200, result.getStatus())).join();
+        assertEquals(1, api.queries.queries());
+    }
+}
@@ -0,0 +1,79 @@
+package taiga.models;
+
+import bostonhttp.util.GsonSingleton;
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+import taiga.models.customattributes.UserStoryCustomAttributesValues;
+import taiga.models.projections.TaskProjection;
+import taiga.models.taskhistory.ItemHistory;
+import taiga.models.taskhistory.ItemHistoryTypeAdapter;
+import taiga.models.tasks.Task;
+import taiga.models.tasks.TaskTypeAdapter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeneratedTypeAdapterTest {
+    private static final String TASK_JSON = "{\"id\": 7, \"ref\": \"12\", \"subject\": \"Write tests\", \"is_closed\": true,"
+            + " \"milestone\": null, \"status\": 3, \"created_date\": \"2024-02-01T10:15:30.000Z\","
+            + " \"status_extra_info\": {\"name\": \"Done\", \"is_closed\": true, \"color\": \"#fff\"},"
+            + " \"tags\": [[\"backend\", null]], \"unknown_field\": {\"nested\": [1, 2, 3]}}";
+
+    private static final String HISTORY_JSON = "{\"id\": \"abc\", \"created_at\": \"2024-02-02T08:00:00.000Z\","
+            + " \"user\": {\"pk\": 4, \"username\": \"sam\", \"gravatar_id\": \"g\"},"
+            + " \"values_diff\": {\"status\": [\"New\", \"In progress\"]}}";
+
+    @Test
+    void testSharedGsonUsesGeneratedAdapters() {
+        Gson gson = GsonSingleton.getInstance();
+
+        assertInstanceOf(TaskTypeAdapter.class, gson.getAdapter(Task.class));
+        assertInstanceOf(ItemHistoryTypeAdapter.class, gson.getAdapter(ItemHistory.class));
+    }
+
+    @Test
+    void testTaskMatchesReflectiveDecoding() {
+        Gson reflective = new Gson();
+
+        Task generated = GsonSingleton.getInstance().fromJson(TASK_JSON, Task.class);
+        Task expected = reflective.fromJson(TASK_JSON, Task.class);
+
+        assertEquals(reflective.toJson(expected), reflective.toJson(generated));
+        String written = GsonSingleton.getInstance().toJson(generated);
+        assertEquals(reflective.toJson(expected), reflective.toJson(GsonSingleton.getInstance().fromJson(written, Task.class)));
+        assertEquals(12, generated.getRef());
+    }
+
+    @Test
+    void testFieldsWithoutAccessorsAreDecoded() {
+        Gson reflective = new Gson();
+
+        ItemHistory generated = GsonSingleton.getInstance().fromJson(HISTORY_JSON, ItemHistory.class);
+        ItemHistory expected = reflective.fromJson(HISTORY_JSON, ItemHistory.class);
+
+        assertEquals(reflective.toJson(expected), reflective.toJson(generated));
+        assertEquals("abc", generated.getId());
+        assertEquals("sam", generated.getUser().getUsername());
+        assertArrayEquals(new String[]{"New", "In progress"}, generated.getValuesDiff().getStatus());
+    }
+
+    @Test
+    void testProjectionKeepsOnlyDeclaredFields() {
+        TaskProjection[] tasks = GsonSingleton.getInstance().fromJson("[" + TASK_JSON + "]", TaskProjection[].class);
+
+        assertEquals(1, tasks.length);
+        assertEquals(7, tasks[0].getId());
+        assertEquals("Done", tasks[0].getStatusExtraInfo().getName());
+        assertNotNull(tasks[0].getCreatedDate());
+        assertNull(tasks[0].getMilestone());
+    }
+
+    @Test
+    void testPrimitiveFieldsKeepDefaultOnNull() {
+        UserStoryCustomAttributesValues values = GsonSingleton.getInstance().fromJson(
+                "{\"version\": null, \"user_story\": \"42\", \"attributes_values\": {}}",
+                UserStoryCustomAttributesValues.class);
+
+        assertEquals(0, values.getVersion());
+        assertEquals(42, values.getUserStory());
+    }
+}
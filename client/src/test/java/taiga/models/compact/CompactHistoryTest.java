@@ -0,0 +1,125 @@
+package taiga.models.compact;
+
+import bostonhttp.util.GsonSingleton;
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+import taiga.models.project.ProjectStatus;
+import taiga.models.project.UserStoryStatus;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactHistoryTest {
+    // newest first, the way Taiga lists history
+    private static final String HISTORY_JSON = "["
+            + "{\"id\": \"c\", \"created_at\": \"2024-02-03T09:00:00.000Z\", \"user\": {\"pk\": 4, \"username\": \"sam\"},"
+            + " \"diff\": {\"status\": [2, 3]}, \"values\": {\"status\": {\"2\": \"In progress\", \"3\": \"Done\"}},"
+            + " \"values_diff\": {\"status\": [\"In progress\", \"Done\"]}},"
+            + "{\"id\": \"b\", \"created_at\": \"2024-02-02T09:00:00.000Z\", \"comment\": \"looks good\","
+            + " \"values_diff\": {\"assigned_to\": [null, \"sam\"], \"subject\": [\"a\", \"b\"]}},"
+            + "{\"id\": \"a\", \"created_at\": \"2024-02-01T09:00:00.000Z\", \"diff\": {\"milestone\": [null, 42]},"
+            + " \"values_diff\": {\"milestone\": [null, \"Sprint 1\"], \"status\": [\"New\", \"In progress\"]}},"
+            + "{\"id\": \"z\", \"created_at\": \"2024-02-04T09:00:00.000Z\", \"values_diff\": null}"
+            + "]";
+
+    private static ProjectStatus status(int id, String name, int order, boolean closed) {
+        UserStoryStatus status = new UserStoryStatus();
+        status.setId(id);
+        status.setName(name);
+        status.setOrder(order);
+        status.setIsClosed(closed);
+        return status;
+    }
+
+    @Test
+    void testReadsOnlyTheTransitionColumns() {
+        CompactHistory history = GsonSingleton.getInstance().fromJson(HISTORY_JSON, CompactHistory.class);
+
+        assertEquals(4, history.size());
+        assertTrue(history.getTime(0) < history.getTime(1));
+        assertTrue(history.getTime(2) < history.getTime(3));
+
+        assertEquals("In progress", history.getStatusName(0));
+        assertEquals(42, history.getMilestone(0));
+        assertFalse(history.hasAssigneeChange(0));
+
+        assertFalse(history.hasStatusChange(1));
+        assertFalse(history.hasMilestoneChange(1));
+        assertTrue(history.hasAssigneeChange(1));
+        assertTrue(history.hasValuesDiff(1));
+
+        assertEquals("Done", history.getStatusName(2));
+        assertFalse(history.hasValuesDiff(3));
+
+        assertEquals(0, history.firstStatusChange());
+        assertEquals(3, history.getStatusId(2));
+        assertEquals(CompactHistory.NONE, history.getStatusId(0));
+    }
+
+    @Test
+    void testDictionaryCodesHistoryByIdAndName() {
+        CompactHistory history = GsonSingleton.getInstance().fromJson(HISTORY_JSON, CompactHistory.class);
+        StatusDictionary statuses = StatusDictionary.of(new ProjectStatus[]{
+                status(3, "Finished", 4, true),
+                status(1, "New", 1, false),
+                status(2, "In progress", 2, false),
+                status(5, "Ready for test", 3, false),
+                status(6, "Archived", 5, true),
+        });
+
+        assertEquals(StatusCategory.NEW, statuses.categoryOf(1));
+        assertEquals(StatusCategory.IN_PROGRESS, statuses.categoryOf(2));
+        assertEquals(StatusCategory.TEST, statuses.categoryOf(5));
+        assertEquals(StatusCategory.DONE, statuses.categoryOf(3));
+        assertEquals(StatusCategory.CLOSED, statuses.categoryOf(6));
+        assertNull(statuses.categoryOf(99));
+
+        // entry 0 only has the status name, entry 2 has the id of a status renamed since
+        assertEquals(statuses.code(2), statuses.code(history, 0));
+        assertEquals(statuses.code(3), statuses.code(history, 2));
+        assertEquals(0, statuses.firstMoveTo(history, StatusCategory.IN_PROGRESS));
+        assertEquals(2, statuses.lastMoveTo(history, StatusCategory.DONE));
+        assertEquals(-1, statuses.firstMoveTo(history, StatusCategory.TEST));
+    }
+
+    @Test
+    void testBadStatusIdFallsBackToTheName() {
+        CompactHistory history = GsonSingleton.getInstance().fromJson("[{\"created_at\": \"2024-02-01T09:00:00.000Z\","
+                + " \"diff\": {\"status\": [1, \"two\"]},"
+                + " \"values_diff\": {\"status\": [\"New\", \"In progress\"]}}]", CompactHistory.class);
+        StatusDictionary statuses = StatusDictionary.of(new ProjectStatus[]{
+                status(1, "New", 1, false),
+                status(2, "In progress", 2, false),
+        });
+
+        assertEquals(CompactHistory.NONE, history.getStatusId(0));
+        assertEquals(CompactHistory.NONE, history.getMilestone(0));
+        assertEquals(statuses.code(2), statuses.code(history, 0));
+    }
+
+    @Test
+    void testStatusNamesAreShared() {
+        CompactHistory first = GsonSingleton.getInstance().fromJson(HISTORY_JSON, CompactHistory.class);
+        CompactHistory second = GsonSingleton.getInstance().fromJson(HISTORY_JSON, CompactHistory.class);
+
+        assertEquals(first.getStatus(2), second.getStatus(2));
+        assertEquals(StatusNames.code("Done"), first.getStatus(2));
+    }
+
+    @Test
+    void testRoundTrip() {
+        Gson gson = GsonSingleton.getInstance();
+        CompactHistory history = gson.fromJson(HISTORY_JSON, CompactHistory.class);
+
+        CompactHistory copy = gson.fromJson(gson.toJson(history), CompactHistory.class);
+
+        assertEquals(history.size(), copy.size());
+        for (int i = 0; i < history.size(); i++) {
+            assertEquals(history.getTime(i), copy.getTime(i));
+            assertEquals(history.getStatusId(i), copy.getStatusId(i));
+            assertEquals(history.getStatus(i), copy.getStatus(i));
+            assertEquals(history.getMilestone(i), copy.getMilestone(i));
+            assertEquals(history.hasAssigneeChange(i), copy.hasAssigneeChange(i));
+            assertEquals(history.hasValuesDiff(i), copy.hasValuesDiff(i));
+        }
+    }
+}
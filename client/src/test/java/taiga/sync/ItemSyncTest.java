@@ -0,0 +1,86 @@
+package taiga.sync;
+
+import bostonhttp.api.APIResponse;
+import bostonhttp.util.GsonSingleton;
+import org.junit.jupiter.api.Test;
+import taiga.api.TaigaQuery;
+import taiga.models.projections.TaskProjection;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ItemSyncTest {
+    /**
+     * Serves the tasks set by the test as a single page and records every query.
+     */
+    private static class FakeListing implements ItemSync.Listing<TaskProjection> {
+        private final List<String> queries = new ArrayList<>();
+        private String tasksJson = "[]";
+        private int status = 200;
+
+        @Override
+        public CompletableFuture<Void> list(TaigaQuery query, Consumer<APIResponse<TaskProjection[]>> pageCallback) {
+            queries.add(query.toQuery());
+            TaskProjection[] page = status == 200 ? GsonSingleton.getInstance().fromJson(tasksJson, TaskProjection[].class) : null;
+            pageCallback.accept(new APIResponse<>(status, page));
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private static String task(int id, String modified) {
+        return "{\"id\": " + id + ", \"project\": 1, \"modified_date\": \"" + modified + "\"}";
+    }
+
+    private static ItemSync<TaskProjection> newSync(FakeListing listing) {
+        return new ItemSync<>(() -> TaigaQuery.create().project(1), listing,
+                TaskProjection::getId, TaskProjection::getModifiedDate);
+    }
+
+    @Test
+    public void testDeltaOnlyAsksForModifiedItems() {
+        FakeListing listing = new FakeListing();
+        ItemSync<TaskProjection> sync = newSync(listing);
+
+        listing.tasksJson = "[" + task(1, "2024-02-01T09:00:00Z") + ", " + task(2, "2024-02-02T09:00:00Z") + "]";
+        ItemSync.Result first = sync.sync().join();
+        assertTrue(first.isFull());
+        assertEquals(Set.of(1, 2), first.getChanged());
+        assertEquals("?project=1", listing.queries.get(0));
+
+        // Taiga answers with the task at the mark again and the one modified after it
+        listing.tasksJson = "[" + task(2, "2024-02-02T09:00:00Z") + ", " + task(3, "2024-02-03T09:00:00Z") + "]";
+        ItemSync.Result second = sync.sync().join();
+        assertFalse(second.isFull());
+        assertEquals(Set.of(3), second.getChanged());
+        assertEquals("?modified_date__gte=2024-02-02T09%3A00%3A00Z&project=1", listing.queries.get(1));
+        assertEquals(Set.of(1, 2, 3), sync.getItems().keySet());
+    }
+
+    @Test
+    public void testFullSyncDropsDeletedItemsAndFailuresChangeNothing() {
+        FakeListing listing = new FakeListing();
+        ItemSync<TaskProjection> sync = newSync(listing);
+        listing.tasksJson = "[" + task(1, "2024-02-01T09:00:00Z") + ", " + task(2, "2024-02-02T09:00:00Z") + "]";
+        sync.sync().join();
+
+        listing.status = 500;
+        assertTrue(sync.sync().join().isFailed());
+        assertEquals(2, sync.getItems().size());
+
+        listing.status = 200;
+        sync.setFullSyncInterval(Duration.ZERO);
+        listing.tasksJson = "[" + task(2, "2024-02-04T09:00:00Z") + "]";
+        ItemSync.Result result = sync.sync().join();
+        assertTrue(result.isFull());
+        assertEquals(Set.of(1), result.getRemoved());
+        assertEquals(Set.of(2), result.getChanged());
+        assertEquals(Set.of(2), sync.getItems().keySet());
+        assertEquals("2024-02-04T09:00:00Z", sync.getHighWaterMark().toString());
+    }
+}
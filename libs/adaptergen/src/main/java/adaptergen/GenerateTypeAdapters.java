@@ -0,0 +1,17 @@
+package adaptergen;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generate a streaming Gson {@link com.google.gson.TypeAdapter} for a model class, or for every
+ * model class in a package when placed on its package-info. The generated adapters read and write
+ * through the models' getters and setters instead of reflection, and are picked up by any Gson
+ * built with {@link GeneratedTypeAdapters#registerAll(com.google.gson.GsonBuilder)}.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target({ElementType.PACKAGE, ElementType.TYPE})
+public @interface GenerateTypeAdapters {
+}
@@ -0,0 +1,27 @@
+package adaptergen;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapterFactory;
+
+import java.util.ServiceLoader;
+
+/**
+ * Entry point for the adapters generated by {@link TypeAdapterProcessor}. Every module compiled
+ * with the processor contributes one {@link TypeAdapterFactory}, registered as a service.
+ */
+public class GeneratedTypeAdapters {
+    /**
+     * Register every generated adapter factory on the classpath with a Gson builder. Factories are
+     * consulted before Gson's reflective adapter, so the generated adapters take over for their
+     * models.
+     *
+     * @param builder the builder to register on
+     * @return the same builder
+     */
+    public static GsonBuilder registerAll(GsonBuilder builder) {
+        for (TypeAdapterFactory factory : ServiceLoader.load(TypeAdapterFactory.class, GeneratedTypeAdapters.class.getClassLoader())) {
+            builder.registerTypeAdapterFactory(factory);
+        }
+        return builder;
+    }
+}
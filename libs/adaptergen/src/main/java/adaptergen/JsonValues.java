@@ -0,0 +1,98 @@
+package adaptergen;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * Readers for the scalar values used by the generated adapters. They accept the same input as
+ * Gson's built-in adapters: JSON null reads as null, and numbers and booleans may be quoted.
+ * The {@code next} readers are for primitive fields: they read the value without boxing it and
+ * expect the caller to have handled a JSON null already.
+ */
+public class JsonValues {
+    public static String readString(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (token == JsonToken.BOOLEAN) {
+            return Boolean.toString(in.nextBoolean());
+        }
+        return in.nextString();
+    }
+
+    public static Integer readInteger(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return nextInt(in);
+    }
+
+    public static int nextInt(JsonReader in) throws IOException {
+        try {
+            return in.nextInt();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    public static Long readLong(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return nextLong(in);
+    }
+
+    public static long nextLong(JsonReader in) throws IOException {
+        try {
+            return in.nextLong();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    public static Double readDouble(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return nextDouble(in);
+    }
+
+    public static double nextDouble(JsonReader in) throws IOException {
+        return in.nextDouble();
+    }
+
+    public static Float readFloat(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return nextFloat(in);
+    }
+
+    public static float nextFloat(JsonReader in) throws IOException {
+        return (float) in.nextDouble();
+    }
+
+    public static Boolean readBoolean(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return nextBoolean(in);
+    }
+
+    public static boolean nextBoolean(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.STRING) {
+            return Boolean.parseBoolean(in.nextString());
+        }
+        return in.nextBoolean();
+    }
+}
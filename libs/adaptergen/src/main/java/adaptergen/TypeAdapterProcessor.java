@@ -0,0 +1,472 @@
+package adaptergen;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedSourceVersion;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Generates a streaming {@link com.google.gson.TypeAdapter} for every class annotated with
+ * {@link GenerateTypeAdapters}, directly or through its package. Fields are mapped the way Gson's
+ * reflective adapter maps them (by {@code @SerializedName}, otherwise by field name), but are read
+ * and written through the class's setters and getters. Fields without them are accessed through a
+ * {@link java.lang.invoke.VarHandle} resolved once per adapter class, which the JIT treats like a
+ * plain field access.
+ *
+ * <p>Classes the processor cannot handle, such as those without a public no-argument constructor,
+ * are reported as a note and left to Gson's reflection.
+ *
+ * <p>One {@link com.google.gson.TypeAdapterFactory} covering all generated adapters is written to
+ * the common package of the models, and registered as a service for
+ * {@link GeneratedTypeAdapters#registerAll(com.google.gson.GsonBuilder)} to find.
+ */
+@SupportedAnnotationTypes("adaptergen.GenerateTypeAdapters")
+@SupportedSourceVersion(SourceVersion.RELEASE_17)
+public class TypeAdapterProcessor extends AbstractProcessor {
+    private static final String SERIALIZED_NAME = "com.google.gson.annotations.SerializedName";
+    private static final String FACTORY_NAME = "GeneratedTypeAdapterFactory";
+    private static final Map<String, String> SCALAR_READERS = Map.ofEntries(
+            Map.entry("java.lang.String", "readString"),
+            Map.entry("java.lang.Integer", "readInteger"),
+            Map.entry("int", "nextInt"),
+            Map.entry("java.lang.Long", "readLong"),
+            Map.entry("long", "nextLong"),
+            Map.entry("java.lang.Double", "readDouble"),
+            Map.entry("double", "nextDouble"),
+            Map.entry("java.lang.Float", "readFloat"),
+            Map.entry("float", "nextFloat"),
+            Map.entry("java.lang.Boolean", "readBoolean"),
+            Map.entry("boolean", "nextBoolean"));
+
+    // model class name -> generated adapter class name
+    private final Map<String, String> generated = new LinkedHashMap<>();
+    private final List<Element> originating = new ArrayList<>();
+    private boolean factoryWritten;
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(GenerateTypeAdapters.class)) {
+            if (element.getKind() == ElementKind.PACKAGE) {
+                for (Element enclosed : element.getEnclosedElements()) {
+                    if (enclosed.getKind() == ElementKind.CLASS) {
+                        generate((TypeElement) enclosed);
+                    }
+                }
+            } else if (element.getKind() == ElementKind.CLASS) {
+                generate((TypeElement) element);
+            }
+        }
+
+        // the models are all in the first round, writing the factory right away lets it be compiled
+        // along with them
+        if (!generated.isEmpty() && !factoryWritten) {
+            writeFactory();
+            factoryWritten = true;
+        }
+        return true;
+    }
+
+    private void generate(TypeElement type) {
+        String typeName = type.getQualifiedName().toString();
+        if (generated.containsKey(typeName) || hasJsonAdapter(type)) {
+            // a class that names its own adapter keeps it
+            return;
+        }
+        String unsupported = checkSupported(type);
+        if (unsupported != null) {
+            note(type, "Not generating a TypeAdapter for " + typeName + ": " + unsupported);
+            return;
+        }
+        List<Property> properties = collectProperties(type);
+        if (properties == null) {
+            return;
+        }
+
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String adapterName = type.getSimpleName() + "TypeAdapter";
+        try (Writer writer = processingEnv.getFiler().createSourceFile(packageName + "." + adapterName, type).openWriter()) {
+            writer.write(renderAdapter(packageName, adapterName, typeName, properties));
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write " + adapterName + ": " + e, type);
+            return;
+        }
+        generated.put(typeName, packageName + "." + adapterName);
+        originating.add(type);
+    }
+
+    private boolean hasJsonAdapter(TypeElement type) {
+        return type.getAnnotationMirrors().stream()
+                .map(m -> (TypeElement) m.getAnnotationType().asElement())
+                .anyMatch(a -> a.getQualifiedName().contentEquals("com.google.gson.annotations.JsonAdapter"));
+    }
+
+    private String checkSupported(TypeElement type) {
+        Set<Modifier> modifiers = type.getModifiers();
+        if (type.getNestingKind() != NestingKind.TOP_LEVEL) {
+            return "nested classes are not supported";
+        }
+        if (!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.ABSTRACT)) {
+            return "class is not public and concrete";
+        }
+        if (!type.getTypeParameters().isEmpty()) {
+            return "generic classes are not supported";
+        }
+        boolean hasDefaultConstructor = type.getEnclosedElements().stream()
+                .filter(e -> e.getKind() == ElementKind.CONSTRUCTOR)
+                .map(e -> (ExecutableElement) e)
+                .anyMatch(c -> c.getParameters().isEmpty() && c.getModifiers().contains(Modifier.PUBLIC));
+        return hasDefaultConstructor ? null : "no public no-argument constructor";
+    }
+
+    /**
+     * Collect the serialized fields of a class and its superclasses, with their accessors.
+     *
+     * @return the properties, or null if any of them cannot be mapped
+     */
+    private List<Property> collectProperties(TypeElement type) {
+        List<ExecutableElement> methods = new ArrayList<>();
+        for (Element member : processingEnv.getElementUtils().getAllMembers(type)) {
+            if (member.getKind() == ElementKind.METHOD && member.getModifiers().contains(Modifier.PUBLIC)
+                    && !member.getModifiers().contains(Modifier.STATIC)) {
+                methods.add((ExecutableElement) member);
+            }
+        }
+
+        List<Property> properties = new ArrayList<>();
+        Set<String> names = new LinkedHashSet<>();
+        for (TypeElement current = type; current != null; current = superclassOf(current)) {
+            for (Element member : current.getEnclosedElements()) {
+                if (member.getKind() != ElementKind.FIELD
+                        || member.getModifiers().contains(Modifier.STATIC)
+                        || member.getModifiers().contains(Modifier.TRANSIENT)) {
+                    continue;
+                }
+                VariableElement field = (VariableElement) member;
+                if (field.asType().getKind().isPrimitive() && !SCALAR_READERS.containsKey(field.asType().toString())) {
+                    note(type, "Not generating a TypeAdapter for " + type.getQualifiedName() + ": unsupported field " + field);
+                    return null;
+                }
+                Property property = toProperty(current, field, methods);
+                for (String name : property.names) {
+                    if (!names.add(name)) {
+                        note(type, "Not generating a TypeAdapter for " + type.getQualifiedName() + ": duplicate name " + name);
+                        return null;
+                    }
+                }
+                properties.add(property);
+            }
+        }
+        return properties;
+    }
+
+    private TypeElement superclassOf(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+        return element.getQualifiedName().contentEquals("java.lang.Object") ? null : element;
+    }
+
+    private Property toProperty(TypeElement owner, VariableElement field, List<ExecutableElement> methods) {
+        String fieldName = field.getSimpleName().toString();
+        String capitalized = Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1);
+        TypeMirror fieldType = field.asType();
+
+        ExecutableElement getter = null;
+        ExecutableElement setter = null;
+        for (ExecutableElement method : methods) {
+            String name = method.getSimpleName().toString();
+            if (method.getParameters().isEmpty()
+                    && (name.equals("get" + capitalized) || name.equals("is" + capitalized))
+                    && sameType(method.getReturnType(), fieldType)) {
+                getter = method;
+            } else if (method.getParameters().size() == 1 && name.equals("set" + capitalized)
+                    && sameType(method.getParameters().get(0).asType(), fieldType)) {
+                setter = method;
+            }
+        }
+
+        List<String> names = new ArrayList<>();
+        names.add(fieldName);
+        for (AnnotationMirror annotation : field.getAnnotationMirrors()) {
+            if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(SERIALIZED_NAME)) {
+                names.clear();
+                for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotation.getElementValues().entrySet()) {
+                    String key = entry.getKey().getSimpleName().toString();
+                    if (key.equals("value")) {
+                        names.add(0, (String) entry.getValue().getValue());
+                    } else if (key.equals("alternate")) {
+                        @SuppressWarnings("unchecked")
+                        List<? extends AnnotationValue> alternates = (List<? extends AnnotationValue>) entry.getValue().getValue();
+                        alternates.forEach(alternate -> names.add((String) alternate.getValue()));
+                    }
+                }
+            }
+        }
+
+        return new Property(owner.getQualifiedName().toString(), fieldName, names, fieldType,
+                processingEnv.getTypeUtils().erasure(fieldType).toString(),
+                getter == null ? null : getter.getSimpleName().toString(),
+                setter == null ? null : setter.getSimpleName().toString());
+    }
+
+    private boolean sameType(TypeMirror a, TypeMirror b) {
+        return processingEnv.getTypeUtils().isSameType(a, b);
+    }
+
+    private String renderAdapter(String packageName, String adapterName, String typeName, List<Property> properties) {
+        // one delegate per distinct non scalar type, looked up lazily so recursive models work
+        Map<String, String> delegates = new LinkedHashMap<>();
+        for (Property property : properties) {
+            if (property.reader() == null) {
+                delegates.computeIfAbsent(property.typeName(), t -> "adapter" + delegates.size());
+            }
+        }
+
+        StringBuilder out = new StringBuilder();
+        out.append("package ").append(packageName).append(";\n\n");
+        out.append("/**\n * Generated by adaptergen from {@link ").append(typeName).append("}, do not edit.\n */\n");
+        out.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n");
+        out.append("public final class ").append(adapterName)
+                .append(" extends com.google.gson.TypeAdapter<").append(typeName).append("> {\n");
+        for (Property property : properties) {
+            if (property.getter == null || property.setter == null) {
+                out.append("    private static final java.lang.invoke.VarHandle ").append(property.handle()).append(";\n");
+            }
+        }
+        out.append("    private final com.google.gson.Gson gson;\n");
+        delegates.forEach((delegateType, field) -> out.append("    private com.google.gson.TypeAdapter<")
+                .append(delegateType).append("> ").append(field).append(";\n"));
+        if (properties.stream().anyMatch(p -> p.getter == null || p.setter == null)) {
+            out.append("\n    static {\n        try {\n");
+            // one lookup per class declaring such fields
+            Map<String, String> lookups = new LinkedHashMap<>();
+            for (Property property : properties) {
+                if (property.getter == null || property.setter == null) {
+                    String lookup = lookups.get(property.owner);
+                    if (lookup == null) {
+                        lookup = "lookup" + lookups.size();
+                        lookups.put(property.owner, lookup);
+                        out.append("            java.lang.invoke.MethodHandles.Lookup ").append(lookup)
+                                .append(" = java.lang.invoke.MethodHandles.privateLookupIn(\n                    ")
+                                .append(property.owner).append(".class, java.lang.invoke.MethodHandles.lookup());\n");
+                    }
+                    out.append("            ").append(property.handle()).append(" = ").append(lookup)
+                            .append(".findVarHandle(").append(property.owner).append(".class, \"")
+                            .append(property.fieldName).append("\", ").append(property.erasure).append(".class);\n");
+                }
+            }
+            out.append("        } catch (ReflectiveOperationException e) {\n")
+                    .append("            throw new ExceptionInInitializerError(e);\n        }\n    }\n");
+        }
+        out.append("\n    public ").append(adapterName).append("(com.google.gson.Gson gson) {\n")
+                .append("        this.gson = gson;\n    }\n");
+
+        delegates.forEach((delegateType, field) -> out.append("\n    private com.google.gson.TypeAdapter<")
+                .append(delegateType).append("> ").append(field).append("() {\n")
+                .append("        if (").append(field).append(" == null) {\n")
+                .append("            ").append(field).append(" = gson.getAdapter(new com.google.gson.reflect.TypeToken<")
+                .append(delegateType).append(">() {});\n")
+                .append("        }\n        return ").append(field).append(";\n    }\n"));
+
+        out.append("\n    @Override\n    public ").append(typeName)
+                .append(" read(com.google.gson.stream.JsonReader in) throws java.io.IOException {\n");
+        out.append("        if (in.peek() == com.google.gson.stream.JsonToken.NULL) {\n")
+                .append("            in.nextNull();\n            return null;\n        }\n");
+        out.append("        ").append(typeName).append(" value = new ").append(typeName).append("();\n");
+        out.append("        in.beginObject();\n        while (in.hasNext()) {\n            switch (in.nextName()) {\n");
+        for (Property property : properties) {
+            for (String name : property.names) {
+                out.append("                case \"").append(escape(name)).append("\":\n");
+            }
+            String read = property.reader() != null
+                    ? "adaptergen.JsonValues." + property.reader() + "(in)"
+                    : delegates.get(property.typeName()) + "().read(in)";
+            if (property.type.getKind().isPrimitive()) {
+                // like Gson, a null leaves a primitive field at its default. The value is read
+                // straight into the primitive, without boxing it first.
+                out.append("                    if (in.peek() == com.google.gson.stream.JsonToken.NULL) {\n")
+                        .append("                        in.nextNull();\n")
+                        .append("                    } else {\n")
+                        .append("                        ").append(property.set(read)).append(";\n")
+                        .append("                    }\n                    break;\n");
+            } else {
+                out.append("                    ").append(property.set(read)).append(";\n")
+                        .append("                    break;\n");
+            }
+        }
+        out.append("                default:\n                    in.skipValue();\n            }\n        }\n");
+        out.append("        in.endObject();\n        return value;\n    }\n");
+
+        out.append("\n    @Override\n    public void write(com.google.gson.stream.JsonWriter out, ").append(typeName)
+                .append(" value) throws java.io.IOException {\n");
+        out.append("        if (value == null) {\n            out.nullValue();\n            return;\n        }\n");
+        out.append("        out.beginObject();\n");
+        for (Property property : properties) {
+            out.append("        out.name(\"").append(escape(property.names.get(0))).append("\");\n");
+            if (property.reader() != null) {
+                out.append("        out.value(").append(property.get()).append(");\n");
+            } else {
+                String local = property.fieldName + "Value";
+                out.append("        ").append(property.typeName()).append(" ").append(local)
+                        .append(" = ").append(property.get()).append(";\n");
+                out.append("        if (").append(local).append(" == null) {\n            out.nullValue();\n        } else {\n")
+                        .append("            ").append(delegates.get(property.typeName())).append("().write(out, ")
+                        .append(local).append(");\n        }\n");
+            }
+        }
+        out.append("        out.endObject();\n    }\n}\n");
+        return out.toString();
+    }
+
+    private void writeFactory() {
+        String packageName = commonPackage();
+        String qualifiedName = packageName.isEmpty() ? FACTORY_NAME : packageName + "." + FACTORY_NAME;
+
+        StringBuilder out = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            out.append("package ").append(packageName).append(";\n\n");
+        }
+        out.append("/**\n * Generated by adaptergen, do not edit. Hands out the generated adapters for exact matches of\n")
+                .append(" * their model class, subclasses keep using Gson's reflective adapter.\n */\n");
+        out.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n");
+        out.append("public final class ").append(FACTORY_NAME).append(" implements com.google.gson.TypeAdapterFactory {\n");
+        out.append("    private static final java.util.Map<Class<?>, java.util.function.Function<com.google.gson.Gson, com.google.gson.TypeAdapter<?>>> adapters =\n")
+                .append("            new java.util.HashMap<>();\n\n");
+        out.append("    static {\n");
+        generated.forEach((model, adapter) -> out.append("        adapters.put(").append(model).append(".class, ")
+                .append(adapter).append("::new);\n"));
+        out.append("    }\n\n");
+        out.append("    @Override\n    @SuppressWarnings(\"unchecked\")\n")
+                .append("    public <T> com.google.gson.TypeAdapter<T> create(com.google.gson.Gson gson, com.google.gson.reflect.TypeToken<T> type) {\n")
+                .append("        java.util.function.Function<com.google.gson.Gson, com.google.gson.TypeAdapter<?>> adapter = adapters.get(type.getRawType());\n")
+                .append("        return adapter == null ? null : (com.google.gson.TypeAdapter<T>) adapter.apply(gson);\n")
+                .append("    }\n}\n");
+
+        try {
+            try (Writer writer = processingEnv.getFiler()
+                    .createSourceFile(qualifiedName, originating.toArray(new Element[0])).openWriter()) {
+                writer.write(out.toString());
+            }
+            try (Writer writer = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", "META-INF/services/com.google.gson.TypeAdapterFactory",
+                            originating.toArray(new Element[0])).openWriter()) {
+                writer.write(qualifiedName + "\n");
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write " + qualifiedName + ": " + e);
+        }
+    }
+
+    private String commonPackage() {
+        Set<String> packages = new TreeSet<>();
+        for (Element element : originating) {
+            PackageElement pkg = processingEnv.getElementUtils().getPackageOf(element);
+            packages.add(pkg.getQualifiedName().toString());
+        }
+        String common = null;
+        for (String pkg : packages) {
+            if (common == null) {
+                common = pkg;
+                continue;
+            }
+            while (!(pkg.equals(common) || pkg.startsWith(common + "."))) {
+                int dot = common.lastIndexOf('.');
+                common = dot < 0 ? "" : common.substring(0, dot);
+                if (common.isEmpty()) {
+                    return common;
+                }
+            }
+        }
+        return common == null ? "" : common;
+    }
+
+    private void note(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, message, element);
+    }
+
+    private static String escape(String name) {
+        return name.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private static class Property {
+        private final String owner;
+        private final String fieldName;
+        private final List<String> names;
+        private final TypeMirror type;
+        private final String erasure;
+        private final String getter;
+        private final String setter;
+
+        private Property(String owner, String fieldName, List<String> names, TypeMirror type, String erasure,
+                         String getter, String setter) {
+            this.owner = owner;
+            this.fieldName = fieldName;
+            this.names = names;
+            this.type = type;
+            this.erasure = erasure;
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        /**
+         * @return name of the VarHandle used when the field lacks a getter or setter
+         */
+        private String handle() {
+            return "FIELD_" + fieldName;
+        }
+
+        /**
+         * @return expression reading this property from {@code value}
+         */
+        private String get() {
+            return getter != null ? "value." + getter + "()" : "((" + typeName() + ") " + handle() + ".get(value))";
+        }
+
+        /**
+         * @return statement storing the given expression in this property of {@code value}
+         */
+        private String set(String expression) {
+            return setter != null
+                    ? "value." + setter + "(" + expression + ")"
+                    : handle() + ".set(value, (" + typeName() + ") " + expression + ")";
+        }
+
+        private String typeName() {
+            return type.toString();
+        }
+
+        /**
+         * @return the {@link JsonValues} method reading this property, or null if it needs a delegate
+         */
+        private String reader() {
+            return SCALAR_READERS.get(typeName());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package benchmarks;
+
+import bostonhttp.util.IsoDateAdapter;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes a page of Taiga timestamps with Gson's default Date adapter and with {@link IsoDateAdapter}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateAdapterBenchmark {
+    @Param({"100", "1000"})
+    private int count;
+
+    private final Gson defaultGson = new Gson();
+    private final Gson isoGson = new GsonBuilder().registerTypeAdapter(Date.class, new IsoDateAdapter()).create();
+
+    private String json;
+    private String[] localDates;
+
+    @Setup
+    public void setup() {
+        StringBuilder builder = new StringBuilder("[");
+        localDates = new String[count];
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            // the shapes Taiga sends: UTC with milliseconds, and an explicit offset
+            int day = 1 + i % 28;
+            String timestamp = i % 2 == 0
+                    ? String.format("\"2024-02-%02dT%02d:15:30.%03dZ\"", day, i % 24, i % 1000)
+                    : String.format("\"2024-02-%02dT%02d:15:30.%03d+00:00\"", day, i % 24, i % 1000);
+            builder.append(timestamp);
+            localDates[i] = String.format("2024-02-%02d", day);
+        }
+        json = builder.append(']').toString();
+    }
+
+    @Benchmark
+    public Date[] defaultDateAdapter() {
+        return defaultGson.fromJson(json, Date[].class);
+    }
+
+    @Benchmark
+    public Date[] isoDateAdapter() {
+        return isoGson.fromJson(json, Date[].class);
+    }
+
+    @Benchmark
+    public LocalDate[] localDateParse() {
+        LocalDate[] parsed = new LocalDate[localDates.length];
+        for (int i = 0; i < localDates.length; i++) {
+            parsed[i] = LocalDate.parse(localDates[i]);
+        }
+        return parsed;
+    }
+
+    @Benchmark
+    public LocalDate[] isoLocalDateParse() {
+        LocalDate[] parsed = new LocalDate[localDates.length];
+        for (int i = 0; i < localDates.length; i++) {
+            parsed[i] = IsoDateAdapter.parseLocalDate(localDates[i]);
+        }
+        return parsed;
+    }
+}
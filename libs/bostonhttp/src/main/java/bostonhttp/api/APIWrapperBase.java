@@ -2,24 +2,44 @@ package bostonhttp.api;
 
 import bostonhttp.models.AuthToken;
 import bostonhttp.models.Tokens;
+import bostonhttp.util.AdaptiveLimiter;
 import bostonhttp.util.AuthTokenSingleton;
+import bostonhttp.util.Deadline;
+import bostonhttp.util.GsonSingleton;
 import bostonhttp.util.HTTPClientSingleton;
-import bostonhttp.util.LocalDateAdapter;
+import bostonhttp.util.HttpClientOptions;
+import bostonhttp.util.ResponseCache;
+import bostonhttp.util.RetryBudget;
+import bostonhttp.util.TransportStats;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.JsonIOException;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.time.LocalDate;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Semaphore;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
 
 public abstract class APIWrapperBase {
 
@@ -28,12 +48,14 @@ public abstract class APIWrapperBase {
 
     private final String apiEndpoint;
 
-    private final Map<String, Semaphore> semaphores = new ConcurrentHashMap<>();
+    private static final Map<String, CompletableFuture<APIResponse<?>>> inFlight = new ConcurrentHashMap<>();
 
     private final static String DEFAULT_BASE_API_URL = "https://api.taiga.io/api/v1/";
-    private static final int MAX_CONCURRENT_REQUESTS_NUMBER = 100;
     private static final int MAX_RETRY_ATTEMPTS = 5;
     private static final long INITIAL_RETRY_DELAY_MS = 1000;
+    private static final long MAX_RETRY_DELAY_MS = 30000;
+    private static final int PAGE_SIZE = 100;
+    private static final String ACCEPT_ENCODING = "gzip, deflate";
 
     public APIWrapperBase(String endpoint) {
         this.apiEndpoint = endpoint;
@@ -71,26 +93,99 @@ public abstract class APIWrapperBase {
     }
 
     /**
-     * Construct an apiwrapper.APIResponse object from the received HttpResponse.
+     * Helper function to get the transport options, either the ones set on the behaviors or the
+     * process wide defaults.
      *
-     * @param response    received HttpResponse object
-     * @param contentType Class object representing type to deserialize response to
-     * @param <T>         type to deserialize response to
+     * @return the http client options
+     */
+    private HttpClientOptions getHttpClientOptions() {
+        if (this.behaviors != null && this.behaviors.getHttpClientOptions() != null) {
+            return this.behaviors.getHttpClientOptions();
+        }
+        return HTTPClientSingleton.getDefaultOptions();
+    }
+
+    /**
+     * Apply the request timeout, shortened to the deadline if that comes first. It bounds the wait
+     * for the response headers, the body is bounded by the body timeout of the
+     * {@link JsonBodyHandler}.
+     *
+     * @param request  the request being built
+     * @param deadline the deadline of the request, may be null
+     * @return the same builder
+     */
+    private HttpRequest.Builder withTimeout(HttpRequest.Builder request, Deadline deadline) {
+        Duration timeout = getHttpClientOptions().getRequestTimeout();
+        if (deadline != null && (timeout == null || deadline.remaining().compareTo(timeout) < 0)) {
+            timeout = deadline.remaining();
+        }
+        // HttpRequest rejects a zero timeout, an expired deadline is caught before sending
+        return timeout == null || timeout.isZero() ? request : request.timeout(timeout);
+    }
+
+    /**
+     * Get the executor responses are decoded on. Under a {@link Deadline} the executor carries it
+     * along, so API calls made from callbacks are bound by it as well.
+     *
+     * @param deadline the deadline, may be null
+     * @return the decode executor
+     */
+    private static Executor getDecodeExecutor(Deadline deadline) {
+        return deadline == null ? HTTPClientSingleton.getDecodeExecutor() : deadline.wrap(HTTPClientSingleton.getDecodeExecutor());
+    }
+
+    /**
+     * Give a caller its own view of a future shared between callers, so one caller cannot complete
+     * or cancel it for the others. Under a {@link Deadline} the view fails with a
+     * {@link java.util.concurrent.TimeoutException} once the deadline passes, the shared future
+     * itself carries on for the other callers.
+     *
+     * @param shared   the shared future, which should not depend on any caller's deadline
+     * @param deadline the caller's deadline, may be null
+     * @param <R>      type of the shared result
+     * @return the caller's future
+     */
+    protected static <R> CompletableFuture<R> forCaller(CompletableFuture<R> shared, Deadline deadline) {
+        if (deadline == null) {
+            return shared.copy();
+        }
+        return deadline.bound(shared.thenApplyAsync(result -> result, getDecodeExecutor(deadline)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> CompletableFuture<APIResponse<T>> typed(CompletableFuture<APIResponse<?>> shared) {
+        return (CompletableFuture<APIResponse<T>>) (CompletableFuture<?>) shared;
+    }
+
+    /**
+     * Get the array class of a model or projection class, to decode a list of them.
+     *
+     * @param type class of the items
+     * @param <T>  type of the items
+     * @return the array class
+     */
+    @SuppressWarnings("unchecked")
+    protected static <T> Class<T[]> arrayOf(Class<T> type) {
+        return (Class<T[]>) type.arrayType();
+    }
+
+    /**
+     * Construct an apiwrapper.APIResponse object from the received HttpResponse. The body of a
+     * successful response has already been decoded by its {@link JsonBodyHandler}, it is only
+     * unwrapped here.
+     *
+     * @param response received HttpResponse object, with a body from a {@link JsonBodyHandler}
+     * @param <T>      type to deserialize response to
      * @return apiwrapper.APIResponse object with HTTP status code and deserialized object
      */
-    protected <T> APIResponse<T> createResponse(
-            HttpResponse<String> response, Class<T> contentType) {
+    protected <T> APIResponse<T> createResponse(HttpResponse<Supplier<T>> response) {
         // Check if a response was received
         if (response != null) {
             // Check if request was successful
             if (response.statusCode() == 200) {
                 // If so, deserialize object, wrap it in a apiwrapper.APIResponse, and return it
-                String json = response.body();
-                Gson gson = new GsonBuilder()
-                .registerTypeAdapter(LocalDate.class, new LocalDateAdapter().nullSafe())
-                .create();
                 try {
-                    T r = gson.fromJson(json, contentType);
+                    T r = response.body().get();
                     return new APIResponse<>(200, r);
                 } catch (Exception e) {
                     e.printStackTrace();
@@ -106,6 +201,23 @@ public abstract class APIWrapperBase {
         }
     }
 
+    /**
+     * Build the response handed out when a request failed without a response. Timeouts are
+     * reported as 504 Gateway Timeout, any other failure as a 500.
+     *
+     * @param error the failure
+     * @param <T>   type of expected response object.
+     * @return the error response
+     */
+    private static <T> APIResponse<T> failedResponse(Throwable error) {
+        return new APIResponse<>(isTimeout(error) ? 504 : 500, null);
+    }
+
+    private static boolean isTimeout(Throwable error) {
+        return error instanceof HttpTimeoutException
+                || error != null && error.getCause() instanceof HttpTimeoutException;
+    }
+
     /**
      * Send an asynchronous GET request with the specified query to the configured API endpoint.
      * Unlike the synchronous version of this method, this method will handle converting the raw
@@ -164,109 +276,478 @@ public abstract class APIWrapperBase {
      * @param enable_pagination whether to enable pagination or not. This should be false in most
      *                          scenarios.
      * @param <T>               type of expected response object.
-     * @return future with result object.
+     * @return future with result object, failed if the query does not make a valid URI.
      */
     protected <T> CompletableFuture<APIResponse<T>> queryAsync(
         String query, Class<T> responseType, AuthToken token, boolean retry, boolean enable_pagination) {
+        Deadline deadline = Deadline.current();
+        if (deadline != null && deadline.isExpired()) {
+            return CompletableFuture.failedFuture(deadline.exceeded());
+        }
         try {
-            HttpRequest.Builder request =
-                    HttpRequest.newBuilder()
-                            .uri(new URI(getAPIBaseURL() + apiEndpoint + query))
-                            .header("Content-Type", "application/json");
-
-            if (!enable_pagination) {
-                request.header("x-disable-pagination", "true");
+            // Identical GETs that are already in flight share that request and its decoded result,
+            // which callers must therefore treat as read-only.
+            // The shared request is sent without any caller's deadline, each caller only applies
+            // its own in forCaller, so the first caller giving up does not fail it for the others.
+            // A propagated deadline is part of the request itself, those are sent on their own.
+            boolean shared = deadline == null || !behaviors.isDeadlinePropagated();
+            Deadline requestDeadline = shared ? null : deadline;
+            HttpRequest httpRequest = buildGetRequest(query, token, enable_pagination, requestDeadline);
+
+            String key = getRequestKey(httpRequest, responseType);
+            CompletableFuture<APIResponse<?>> leader = new CompletableFuture<>();
+            if (shared) {
+                CompletableFuture<APIResponse<?>> existing = inFlight.putIfAbsent(key, leader);
+                if (existing != null) {
+                    return forCaller(typed(existing), deadline);
+                }
             }
 
-
-            if (token != null) {
-                String authToken = token.getAuth();
-                request.header("Authorization", "Bearer " + authToken);
-            }
-            else if(behaviors.getAuthToken() != null){
-                request.header("Authorization", "Bearer " + behaviors.getAuthToken().getAuth());
+            boolean cacheable = isResponseCacheable();
+            ResponseCache.Entry cached = cacheable ? ResponseCache.getInstance().get(key) : null;
+            JsonBodyHandler<T> bodyHandler = createBodyHandler(responseType);
+            if (cacheable) {
+                bodyHandler.withValidatedBodyKept();
             }
 
-            Semaphore semaphore = semaphores.computeIfAbsent(getRequestKey(request.build()), k -> new Semaphore(MAX_CONCURRENT_REQUESTS_NUMBER));
-
-            // Acquire a permit from the semaphore
-            semaphore.acquireUninterruptibly();
-
-            return CompletableFuture.supplyAsync(() -> {
-                        try {
-                            return HTTPClientSingleton.getInstance()
-                                    .sendAsync(request.GET().build(), HttpResponse.BodyHandlers.ofString())
-                                    .thenApply(response -> {
-                                        AtomicReference<APIResponse<T>> apiResponse =
-                                                new AtomicReference<>(createResponse(response, responseType));
-
-                                          //temporarily disabled while microservices are moved
-//                                        if (retry && apiResponse.get().getStatus() == 401) {
-//                                            refreshAuthToken(query, responseType, apiResponse, retry, enable_pagination);
-//                                        } else
-                                            if (apiResponse.get().getStatus() == 429) {
-                                            // Retry the request after a delay if encountering too many concurrent streams error
-                                            retryWithBackoff(query, responseType, apiResponse, retry, enable_pagination, 1);
-                                        }
-                                        return apiResponse.get();
-                                    })
-                                    .join();
-                        } finally {
-                            // Always release the semaphore, even if an exception occurs
-                            semaphore.release();
+            fetch(cached == null ? httpRequest : withValidators(httpRequest, cached), bodyHandler, requestDeadline)
+                    .thenApplyAsync(response -> {
+                        if (cached != null && response.statusCode() == 304) {
+                            TransportStats.getInstance().recordCacheHit();
+                            return new APIResponse<>(200, bodyHandler.decodeKept(cached.getBody()));
                         }
-                    })
+                        APIResponse<T> apiResponse = createResponse(response);
+                        if (cacheable && apiResponse.getStatus() == 200) {
+                            TransportStats.getInstance().recordCacheMiss();
+                            cacheResponse(key, response, bodyHandler.getKeptBody());
+                        }
+
+                          //temporarily disabled while microservices are moved
+//                        if (retry && apiResponse.getStatus() == 401) {
+//                            refreshAuthToken(query, responseType, apiResponse, retry, enable_pagination);
+//                        }
+                        return apiResponse;
+                    }, getDecodeExecutor(requestDeadline))
                     .exceptionally(error -> {
-                        error.printStackTrace();
-                        return null;
+                        // requests cancelled by their deadline are expected, not worth a trace
+                        if (requestDeadline == null || !requestDeadline.isExpired()) {
+                            error.printStackTrace();
+                        }
+                        return failedResponse(error);
+                    })
+                    .whenComplete((apiResponse, error) -> {
+                        // leave the map before completing so later calls start a fresh request
+                        if (shared) {
+                            inFlight.remove(key, leader);
+                        }
+                        if (error != null) {
+                            leader.completeExceptionally(error);
+                        } else {
+                            leader.complete(apiResponse);
+                        }
                     });
+
+            return forCaller(typed(leader), deadline);
         } catch (URISyntaxException e) {
-            e.printStackTrace();
+            return CompletableFuture.failedFuture(e);
         }
+    }
 
-        return null;
+    /**
+     * Generate a key identifying a GET request, for coalescing identical requests. Requests only
+     * match if they go to the same URI with the same credentials and are decoded to the same type.
+     *
+     * @param request      the HTTP request
+     * @param responseType class the response is decoded to
+     * @return a key for the request
+     */
+    private String getRequestKey(HttpRequest request, Class<?> responseType) {
+        return request.uri() + "|" + responseType.getName() + "|"
+                + request.headers().firstValue("Authorization").orElse("") + "|"
+                + request.headers().firstValue("x-disable-pagination").orElse("");
     }
 
     /**
-     * Generate a unique key for the given HTTP request.
+     * Copy a request, adding the conditional headers needed to revalidate a cached response.
      *
-     * @param request the HTTP request
-     * @return a unique key for the request
+     * @param request the request to copy
+     * @param cached  the cached response
+     * @return the conditional request
      */
-    private String getRequestKey(HttpRequest request) {
-        return request.uri().toString();
-    }
-
-    private <T> void retryWithBackoff(String query, Class<T> responseType,
-                                      AtomicReference<APIResponse<T>> apiResponse,
-                                      boolean retry, boolean enable_pagination,
-                                      int retryAttempt) {
-        if (retryAttempt > MAX_RETRY_ATTEMPTS) {
-            // Max retry attempts reached, log an error and return
-            System.out.println("Max retry attempts reached. Unable to process request.");
-            return;
+    private HttpRequest withValidators(HttpRequest request, ResponseCache.Entry cached) {
+        TransportStats.getInstance().recordCacheRevalidation();
+        HttpRequest.Builder conditional = HttpRequest.newBuilder(request, (name, value) -> true);
+        if (cached.getEtag() != null) {
+            conditional.header("If-None-Match", cached.getEtag());
         }
+        if (cached.getLastModified() != null) {
+            conditional.header("If-Modified-Since", cached.getLastModified());
+        }
+        return conditional.build();
+    }
 
-        // Exponential backoff
-        long delayMs = INITIAL_RETRY_DELAY_MS * (1L << (retryAttempt - 1));
+    /**
+     * Store a response body in the {@link ResponseCache}, if Taiga sent validators with it.
+     *
+     * @param key      request key
+     * @param response the response the body was received with
+     * @param body     the decompressed body, or null if it was not kept
+     */
+    private void cacheResponse(String key, HttpResponse<?> response, byte[] body) {
+        String etag = response.headers().firstValue("ETag").orElse(null);
+        String lastModified = response.headers().firstValue("Last-Modified").orElse(null);
+        if (body != null && (etag != null || lastModified != null)) {
+            ResponseCache.getInstance().put(key, new ResponseCache.Entry(etag, lastModified, body));
+        }
+    }
 
-        // Retry the request after the calculated delay
-        CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS).execute(() -> {
-            CompletableFuture<APIResponse<T>> completableFutureQuery =
-                    queryAsync(query, responseType, false, enable_pagination);
+    /**
+     * Whether GET responses of this API are kept in the {@link ResponseCache} and revalidated. APIs
+     * that cache their responses themselves turn this off, so nothing is held twice.
+     *
+     * @return true to use the response cache
+     */
+    protected boolean isResponseCacheable() {
+        return true;
+    }
 
-            completableFutureQuery.thenAccept(result -> {
-                if (result != null) {
-                    // Request succeeded, set the API response and return
-                    apiResponse.set(result);
+    /**
+     * Send asynchronous GET requests for every page of a paginated listing, delivering each page to
+     * the callback as soon as it has been decoded. The first page is requested on its own to learn
+     * the number of pages from Taiga's x-pagination headers, after which all remaining pages are
+     * requested in parallel.
+     *
+     * <p>Pages may be delivered out of order and from different threads, so the callback must be
+     * thread safe. A page that fails is delivered with its error status and no content.
+     *
+     * <p>Example usage:
+     *
+     * <pre>
+     *     queryPagesAsync("?project=12345", Task[].class, page -> {
+     *         System.out.println(page.getContent().length);
+     *     }).join();
+     * </pre>
+     *
+     * @param query        query string to be appended to the base API endpoint configured.
+     * @param pageType     array class of the expected page contents.
+     * @param pageCallback Consumer function to execute for every page received.
+     * @param <T>          type of the items in a page.
+     * @return void future which completes once every page has been delivered.
+     */
+    protected <T> CompletableFuture<Void> queryPagesAsync(
+            String query, Class<T[]> pageType, Consumer<APIResponse<T[]>> pageCallback) {
+        Deadline deadline = Deadline.current();
+        if (deadline != null && deadline.isExpired()) {
+            return CompletableFuture.failedFuture(deadline.exceeded());
+        }
+        try {
+            HttpRequest firstPage = buildGetRequest(withPage(query, 1), null, true, deadline);
+            return fetch(firstPage, createBodyHandler(pageType), deadline).thenComposeAsync(response -> {
+                // start on the remaining pages before decoding this one so they overlap
+                List<CompletableFuture<Void>> remaining = new ArrayList<>();
+                for (int page = 2; page <= getPageCount(response); page++) {
+                    try {
+                        remaining.add(fetch(buildGetRequest(withPage(query, page), null, true, deadline), createBodyHandler(pageType), deadline)
+                                .thenApplyAsync(this::createResponse, getDecodeExecutor(deadline))
+                                .thenAccept(pageCallback));
+                    } catch (URISyntaxException e) {
+                        remaining.add(CompletableFuture.failedFuture(e));
+                    }
+                }
+                pageCallback.accept(createResponse(response));
+                return CompletableFuture.allOf(remaining.toArray(new CompletableFuture[0]));
+            }, getDecodeExecutor(deadline));
+        } catch (URISyntaxException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Publish every page of a paginated listing as it arrives. This is the {@link Flow} flavour of
+     * {@link #queryPagesAsync(String, Class, Consumer)}, a new set of requests is made for every
+     * subscriber. The publisher completes exceptionally if any page could not be fetched.
+     *
+     * @param query    query string to be appended to the base API endpoint configured.
+     * @param pageType array class of the expected page contents.
+     * @param <T>      type of the items in a page.
+     * @return publisher of pages.
+     */
+    protected <T> Flow.Publisher<T[]> publishPages(String query, Class<T[]> pageType) {
+        return subscriber -> {
+            SubmissionPublisher<T[]> publisher =
+                    new SubmissionPublisher<>(HTTPClientSingleton.getDecodeExecutor(), Flow.defaultBufferSize());
+            publisher.subscribe(subscriber);
+            queryPagesAsync(query, pageType, page -> {
+                if (page.getStatus() != 200) {
+                    publisher.closeExceptionally(new IOException("Page request failed with status " + page.getStatus()));
+                } else if (!publisher.isClosed()) {
+                    publisher.submit(page.getContent());
+                }
+            }).whenComplete((result, error) -> {
+                if (error != null) {
+                    publisher.closeExceptionally(error);
                 } else {
-                    // Request failed, retry with backoff
-                    retryWithBackoff(query, responseType, apiResponse, retry, enable_pagination, retryAttempt + 1);
+                    publisher.close();
                 }
             });
+        };
+    }
+
+    /**
+     * Fetch many items by id with a bounded number of requests in flight. This is the path for
+     * crawls over hundreds of items: unlike a {@code parallelStream()} of joined requests it neither
+     * ties up a thread per request nor drops failures silently.
+     *
+     * <p>Example usage:
+     *
+     * <pre>
+     *     fetchAll(ids, id -> queryAsync("/" + id, ItemHistory[].class), BulkOptions.defaults())
+     *             .thenAccept(histories -> System.out.println(histories.size()));
+     * </pre>
+     *
+     * @param ids     ids of the items, duplicates are fetched once.
+     * @param fetch   function starting the request for one id.
+     * @param options concurrency and callbacks, see {@link BulkOptions}.
+     * @param <T>     type of the items.
+     * @return future of the items that were fetched, by id. It completes once every id has finished.
+     */
+    protected <T> CompletableFuture<Map<Integer, T>> fetchAll(
+            Collection<Integer> ids, IntFunction<CompletableFuture<APIResponse<T>>> fetch, BulkOptions options) {
+        Map<Integer, T> results = new ConcurrentHashMap<>();
+        return new BulkFetch<>(ids, fetch, options, results::put).start().thenApply(ignored -> results);
+    }
+
+    /**
+     * Fetch many items by id like {@link #fetchAll}, but hand every item to a consumer as soon as
+     * its request completes instead of collecting them. Callers that only fold the items into a
+     * summary, such as counts per day, never hold all of them at once.
+     *
+     * @param ids      ids of the items, duplicates are fetched once.
+     * @param fetch    function starting the request for one id.
+     * @param options  concurrency and callbacks, see {@link BulkOptions}.
+     * @param consumer called with the id and content of every item fetched, possibly from several
+     *                 threads at once.
+     * @param <T>      type of the items.
+     * @return future which completes once every id has finished.
+     */
+    protected <T> CompletableFuture<Void> forEachFetched(
+            Collection<Integer> ids, IntFunction<CompletableFuture<APIResponse<T>>> fetch, BulkOptions options,
+            BiConsumer<Integer, T> consumer) {
+        return new BulkFetch<>(ids, fetch, options, consumer).start();
+    }
+
+    /**
+     * Work out how many pages a paginated listing has from the headers of its first page.
+     *
+     * @param response the response for the first page
+     * @return number of pages, 1 if the response was not paginated
+     */
+    private int getPageCount(HttpResponse<?> response) {
+        HttpHeaders headers = response.headers();
+        if (response.statusCode() != 200 || !headers.firstValue("x-paginated").map(Boolean::parseBoolean).orElse(false)) {
+            return 1;
+        }
+        long count = headers.firstValueAsLong("x-pagination-count").orElse(0);
+        long pageSize = headers.firstValueAsLong("x-paginated-by").orElse(PAGE_SIZE);
+        return (int) Math.max(1, (count + pageSize - 1) / pageSize);
+    }
+
+    private String withPage(String query, int page) {
+        return query + (query.contains("?") ? "&" : "?") + "page=" + page + "&page_size=" + PAGE_SIZE;
+    }
+
+    /**
+     * Build a GET request for the given query against the configured API endpoint.
+     *
+     * @param query             query string to be appended to the base API endpoint configured.
+     * @param token             auth token to use instead of the configured one, may be null
+     * @param enable_pagination whether to let Taiga paginate the response
+     * @param deadline          deadline bounding the request, may be null
+     * @return the request
+     * @throws URISyntaxException if the query does not form a valid URI
+     */
+    private HttpRequest buildGetRequest(String query, AuthToken token, boolean enable_pagination, Deadline deadline)
+            throws URISyntaxException {
+        HttpRequest.Builder request =
+                HttpRequest.newBuilder()
+                        .uri(new URI(getAPIBaseURL() + apiEndpoint + query))
+                        .header("Content-Type", "application/json")
+                        .header("Accept-Encoding", ACCEPT_ENCODING);
+
+        withTimeout(request, deadline);
+
+        if (deadline != null && behaviors.isDeadlinePropagated()) {
+            request.header(Deadline.HEADER, deadline.toHeader());
+        }
+
+        if (!enable_pagination) {
+            request.header("x-disable-pagination", "true");
+        }
+
+
+        if (token != null) {
+            String authToken = token.getAuth();
+            request.header("Authorization", "Bearer " + authToken);
+        }
+        else if(behaviors.getAuthToken() != null){
+            request.header("Authorization", "Bearer " + behaviors.getAuthToken().getAuth());
+        }
+
+        return request.GET().build();
+    }
+
+    private <T> JsonBodyHandler<T> createBodyHandler(Class<T> responseType) {
+        return new JsonBodyHandler<>(GsonSingleton.getInstance().getAdapter(responseType),
+                HTTPClientSingleton.getDecodeExecutor(), getHttpClientOptions().getBodyTimeout());
+    }
+
+    /**
+     * Send a GET request whose body is decoded as JSON, retrying if it is throttled.
+     *
+     * @param request     the request to send
+     * @param bodyHandler handler decoding the response body
+     * @param deadline    deadline after which the exchange is cancelled, may be null
+     * @param <T>         type of expected response object.
+     * @return future holding the response, completing once its body has been decoded
+     */
+    private <T> CompletableFuture<HttpResponse<Supplier<T>>> fetch(
+            HttpRequest request, JsonBodyHandler<T> bodyHandler, Deadline deadline) {
+        RetryBudget.getInstance().deposit();
+        return sendWithRetry(request, bodyHandler, 1, deadline);
+    }
+
+    /**
+     * Send a request, holding a permit from the host limiter for the duration of the exchange,
+     * body included.
+     *
+     * @param request     the request to send
+     * @param bodyHandler handler for the response body
+     * @param deadline    deadline after which the exchange is cancelled, may be null
+     * @param <B>         type of the response body
+     * @return future holding the raw response
+     */
+    private <B> CompletableFuture<HttpResponse<B>> send(
+            HttpRequest request, HttpResponse.BodyHandler<B> bodyHandler, Deadline deadline) {
+        // The permit is held from the moment it is granted until the exchange completes. The body
+        // handlers only complete once the body has been received and decoded, so the transfer and
+        // the decoding are counted against the limit too. No thread is parked waiting on either.
+        // Latency is only measured up to the headers though, a large body is not a slow host.
+        return AdaptiveLimiter.forHost(request.uri()).acquire()
+                .thenCompose(permit -> {
+                    if (deadline != null && deadline.isExpired()) {
+                        // nobody is waiting for the answer anymore, do not send it
+                        permit.onIgnore();
+                        return CompletableFuture.failedFuture(deadline.exceeded());
+                    }
+                    CompletableFuture<HttpResponse<B>> exchange = getHttpClientOptions().getClient()
+                            .sendAsync(request, responseInfo -> {
+                                permit.onHeaders();
+                                return bodyHandler.apply(responseInfo);
+                            });
+                    if (deadline != null) {
+                        deadline.cancelOnExpiry(exchange);
+                    }
+                    return exchange.whenComplete((response, error) -> releasePermit(permit, response, error));
+                });
+    }
+
+    /**
+     * Send a request and, if Taiga throttles it with a 429, send it again after a delay. The retries
+     * are part of the returned future, so callers only ever see the final response. A request is
+     * given up on, and its 429 returned, once it runs out of attempts or the process wide
+     * {@link RetryBudget} is exhausted.
+     *
+     * @param request     the request to send
+     * @param bodyHandler handler for the response body
+     * @param attempt     the attempt number, starting at 1
+     * @param deadline    deadline after which no more attempts are made, may be null
+     * @param <B>         type of the response body
+     * @return future holding the final response
+     */
+    private <B> CompletableFuture<HttpResponse<B>> sendWithRetry(
+            HttpRequest request, HttpResponse.BodyHandler<B> bodyHandler, int attempt, Deadline deadline) {
+        return send(request, bodyHandler, deadline).thenCompose(response -> {
+            if (response.statusCode() != 429) {
+                return CompletableFuture.completedFuture(response);
+            }
+            if (attempt > MAX_RETRY_ATTEMPTS || !RetryBudget.getInstance().tryWithdraw()) {
+                TransportStats.getInstance().recordDrop();
+                return CompletableFuture.completedFuture(response);
+            }
+            long delay = getRetryDelay(response, attempt);
+            if (deadline != null && delay >= deadline.remaining().toMillis()) {
+                // the retry could not finish in time
+                TransportStats.getInstance().recordDrop();
+                return CompletableFuture.completedFuture(response);
+            }
+            TransportStats.getInstance().recordRetry();
+            Executor delayed = CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS);
+            return CompletableFuture.supplyAsync(() -> null, delayed)
+                    .thenCompose(ignored -> sendWithRetry(request, bodyHandler, attempt + 1, deadline));
         });
     }
 
+    /**
+     * Work out how long to wait before retrying a throttled request. Taiga's Retry-After header is
+     * honored when present, otherwise an exponential backoff is used. Both get random jitter so that
+     * requests throttled together do not come back together.
+     *
+     * @param response the 429 response
+     * @param attempt  the attempt that was throttled, starting at 1
+     * @return delay in milliseconds
+     */
+    private long getRetryDelay(HttpResponse<?> response, int attempt) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Long retryAfter = response.headers().firstValue("Retry-After").map(this::parseRetryAfter).orElse(null);
+        if (retryAfter != null) {
+            long delay = Math.min(retryAfter, MAX_RETRY_DELAY_MS);
+            return delay + random.nextLong(delay / 5 + 1);
+        }
+        long backoff = Math.min(INITIAL_RETRY_DELAY_MS * (1L << (attempt - 1)), MAX_RETRY_DELAY_MS);
+        return backoff / 2 + random.nextLong(backoff / 2 + 1);
+    }
+
+    /**
+     * Parse a Retry-After header, which is either a number of seconds or an HTTP date.
+     *
+     * @param value header value
+     * @return delay in milliseconds, or null if the value could not be parsed
+     */
+    private Long parseRetryAfter(String value) {
+        try {
+            return Math.max(0, Long.parseLong(value.trim()) * 1000);
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime at = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Math.max(0, Duration.between(ZonedDateTime.now(at.getZone()), at).toMillis());
+            } catch (DateTimeParseException ex) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Report the outcome of an exchange to the host limiter. Throttling and timeouts shrink the
+     * limit, other failures release the permit without affecting it.
+     *
+     * @param permit   the permit held for the exchange
+     * @param response the response, or null if the exchange failed
+     * @param error    the failure, or null if a response was received
+     */
+    private void releasePermit(AdaptiveLimiter.Permit permit, HttpResponse<?> response, Throwable error) {
+        if (response != null) {
+            if (response.statusCode() == 429) {
+                permit.onDropped();
+            } else {
+                permit.onSuccess();
+            }
+        } else if (isTimeout(error)) {
+            permit.onDropped();
+        } else {
+            permit.onIgnore();
+        }
+    }
+
     /**
      * Send an asynchronous POST request with the specified query to the configured API endpoint.
      * Unlike the synchronous version of this method, this method will handle converting the raw
@@ -320,14 +801,13 @@ public abstract class APIWrapperBase {
     protected <T, U> CompletableFuture<APIResponse<T>> postAsync(
             String path, U body, Class<T> responseType, boolean useAuth) {
         try {
-            Gson gson = new GsonBuilder()
-                .registerTypeAdapter(LocalDate.class, new LocalDateAdapter().nullSafe())
-                .create();
+            Gson gson = GsonSingleton.getInstance();
             // Construct HTTP request
             HttpRequest.Builder request =
                     HttpRequest.newBuilder()
                             .uri(new URI(getAPIBaseURL() + apiEndpoint + path))
                             .header("Content-Type", "application/json")
+                            .header("Accept-Encoding", ACCEPT_ENCODING)
                             .header("x-disable-pagination", "true")
                             .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(body)));
 
@@ -338,16 +818,16 @@ public abstract class APIWrapperBase {
                 }
             }
 
+            withTimeout(request, Deadline.current());
+
             // Make request
-            return HTTPClientSingleton.getInstance()
-                    .sendAsync(request.build(), HttpResponse.BodyHandlers.ofString())
-                    .exceptionally(error -> null)
-                    .thenApply(response -> createResponse(response, responseType));
+            return getHttpClientOptions().getClient()
+                    .sendAsync(request.build(), createBodyHandler(responseType))
+                    .thenApplyAsync(this::createResponse, HTTPClientSingleton.getDecodeExecutor())
+                    .exceptionally(APIWrapperBase::failedResponse);
         } catch (URISyntaxException | JsonIOException e) {
-            e.printStackTrace();
+            return CompletableFuture.failedFuture(e);
         }
-
-        return null;
     }
 
     // public so it can be mocked
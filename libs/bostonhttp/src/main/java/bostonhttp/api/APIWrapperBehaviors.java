@@ -1,12 +1,17 @@
 package bostonhttp.api;
 
 import bostonhttp.models.AuthToken;
+import bostonhttp.util.HttpClientOptions;
 
 public class APIWrapperBehaviors {
     private BaseApiUrlResolver baseApiUrlResolver;
 
     private AuthToken authToken;
 
+    private HttpClientOptions httpClientOptions;
+
+    private boolean deadlinePropagated;
+
     public APIWrapperBehaviors withBaseApiUrlResolver(BaseApiUrlResolver resolver) {
         this.baseApiUrlResolver = resolver;
         return this;
@@ -28,4 +33,26 @@ public class APIWrapperBehaviors {
     public AuthToken getAuthToken(){
         return authToken;
     }
+
+    public APIWrapperBehaviors withHttpClientOptions(HttpClientOptions options) {
+        this.httpClientOptions = options;
+        return this;
+    }
+
+    public HttpClientOptions getHttpClientOptions() {
+        return httpClientOptions;
+    }
+
+    /**
+     * Pass the current {@link bostonhttp.util.Deadline} on to the called service in a header. Only
+     * useful for our own services, Taiga does not know about it.
+     */
+    public APIWrapperBehaviors withDeadlinePropagation(boolean propagate) {
+        this.deadlinePropagated = propagate;
+        return this;
+    }
+
+    public boolean isDeadlinePropagated() {
+        return deadlinePropagated;
+    }
 }
@@ -0,0 +1,114 @@
+package bostonhttp.api;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.IntFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * One run of a bulk fetch. A fixed number of workers take ids off a shared cursor; each worker
+ * fetches one item at a time and starts on the next id when the previous request completes, so the
+ * number of requests in flight never exceeds the configured concurrency and no thread blocks. Each
+ * fetched item is handed to a sink as soon as its request completes, so a caller that folds items
+ * into a summary never has to hold all of them.
+ *
+ * @param <T> type of the fetched items
+ */
+class BulkFetch<T> {
+    private static final Logger logger = Logger.getLogger(BulkFetch.class.getName());
+
+    private final int[] ids;
+    private final IntFunction<CompletableFuture<APIResponse<T>>> fetch;
+    private final BulkOptions options;
+    private final BiConsumer<Integer, T> sink;
+
+    private final AtomicInteger cursor = new AtomicInteger();
+    private final AtomicInteger finished = new AtomicInteger();
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+    /**
+     * @param sink called with the id and content of every item fetched, possibly from several
+     *             threads at once
+     */
+    BulkFetch(Collection<Integer> ids, IntFunction<CompletableFuture<APIResponse<T>>> fetch, BulkOptions options,
+              BiConsumer<Integer, T> sink) {
+        this.ids = new LinkedHashSet<>(ids).stream().mapToInt(Integer::intValue).toArray();
+        this.fetch = fetch;
+        this.options = options;
+        this.sink = sink;
+    }
+
+    CompletableFuture<Void> start() {
+        if (ids.length == 0) {
+            done.complete(null);
+            return done;
+        }
+        int workers = Math.min(options.getConcurrency(), ids.length);
+        for (int i = 0; i < workers; i++) {
+            next();
+        }
+        return done;
+    }
+
+    /**
+     * Fetch ids until one has to wait for its response. Requests that complete straight away, such
+     * as cached ones, are handled in this loop rather than by recursion.
+     */
+    private void next() {
+        int index;
+        while ((index = cursor.getAndIncrement()) < ids.length) {
+            int id = ids[index];
+            CompletableFuture<APIResponse<T>> request;
+            try {
+                request = fetch.apply(id);
+            } catch (RuntimeException e) {
+                request = CompletableFuture.failedFuture(e);
+            }
+            if (request == null) {
+                // a fetch that could not even start is a failed item, not a reason to stop
+                request = CompletableFuture.failedFuture(new IllegalStateException("No request made for " + id));
+            }
+            if (!request.isDone()) {
+                request.whenComplete((response, error) -> {
+                    finish(id, response, error);
+                    next();
+                });
+                return;
+            }
+            CompletableFuture<APIResponse<T>> completed = request;
+            completed.whenComplete((response, error) -> finish(id, response, error));
+        }
+    }
+
+    private void finish(int id, APIResponse<T> response, Throwable error) {
+        if (error == null && response != null && response.getStatus() == 200 && response.getContent() != null) {
+            notify(sink, id, response.getContent());
+        } else {
+            notify(options.getErrorHandler(), id, error == null && response != null ? response.getStatus() : 500);
+        }
+        int count = finished.incrementAndGet();
+        notify(options.getProgressListener(), count, ids.length);
+        if (count == ids.length) {
+            done.complete(null);
+        }
+    }
+
+    /**
+     * Call one of the callbacks. A callback that throws must not stop its worker, or the ids after
+     * it would never be fetched and the bulk future would never complete.
+     */
+    private static <A, B> void notify(BiConsumer<A, B> callback, A first, B second) {
+        if (callback == null) {
+            return;
+        }
+        try {
+            callback.accept(first, second);
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "A bulk fetch callback failed for " + first, e);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package bostonhttp.api;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Settings for a bulk fetch of many items by id, see
+ * {@link APIWrapperBase#fetchAll(java.util.Collection, java.util.function.IntFunction, BulkOptions)}.
+ * <p>
+ * At most {@code concurrency} requests are in flight at a time, on top of the per host limit every
+ * request already goes through. Items that cannot be fetched are left out of the result and
+ * reported to the error handler with their HTTP status, 500 if no response arrived. The progress
+ * listener is told how many items are done after each one finishes, whether it succeeded or not.
+ * Both callbacks may be called from several threads at once.
+ */
+public class BulkOptions {
+    public static final int DEFAULT_CONCURRENCY = 16;
+
+    private int concurrency = DEFAULT_CONCURRENCY;
+    private BiConsumer<Integer, Integer> errorHandler;
+    private BiConsumer<Integer, Integer> progressListener;
+
+    /**
+     * @return options with the default concurrency and no callbacks
+     */
+    public static BulkOptions defaults() {
+        return new BulkOptions();
+    }
+
+    /**
+     * Set how many requests of this bulk fetch may be in flight at once.
+     *
+     * @param concurrency the limit, at least 1
+     * @return these options
+     */
+    public BulkOptions withConcurrency(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be at least 1, was " + concurrency);
+        }
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    /**
+     * Set the handler told about every item that could not be fetched.
+     *
+     * @param errorHandler called with the item id and the HTTP status of the failed request
+     * @return these options
+     */
+    public BulkOptions withErrorHandler(BiConsumer<Integer, Integer> errorHandler) {
+        this.errorHandler = errorHandler;
+        return this;
+    }
+
+    /**
+     * Set the listener told about progress as items finish.
+     *
+     * @param progressListener called with the number of finished items and the total
+     * @return these options
+     */
+    public BulkOptions withProgressListener(BiConsumer<Integer, Integer> progressListener) {
+        this.progressListener = progressListener;
+        return this;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public BiConsumer<Integer, Integer> getErrorHandler() {
+        return errorHandler;
+    }
+
+    public BiConsumer<Integer, Integer> getProgressListener() {
+        return progressListener;
+    }
+}
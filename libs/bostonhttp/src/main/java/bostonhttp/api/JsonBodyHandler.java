@@ -0,0 +1,421 @@
+package bostonhttp.api;
+
+import bostonhttp.util.HTTPClientSingleton;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * A {@link HttpResponse.BodyHandler} that decodes a JSON body with a streaming reader while it
+ * arrives, so the body is never held in memory as a whole, a string or a tree. Only a few chunks of
+ * the body are buffered ahead of the decoder, and more are requested as it consumes them, so memory
+ * is bounded by the decoded objects rather than by the size of the body. Decoding runs on the decode
+ * executor; gzip and deflate Content-Encodings are decompressed on the way. Only successful
+ * responses are decoded, the bodies of all other responses are discarded.
+ *
+ * <p>The exchange completes once the body has been decoded, so {@link Supplier#get()} never
+ * blocks. It returns the decoded value, null for an empty body, or throws what decoding failed
+ * with. A body that ends early or fails to arrive fails the exchange, as does a body that takes
+ * longer than the body timeout to arrive after its headers, with an {@link HttpTimeoutException}.
+ *
+ * @param <T> type to decode the body to
+ */
+public class JsonBodyHandler<T> implements HttpResponse.BodyHandler<Supplier<T>> {
+    private final TypeAdapter<T> adapter;
+    private final Executor decodeExecutor;
+    private final Duration bodyTimeout;
+    private volatile long bodySize;
+    private boolean keepValidatedBody;
+    private volatile byte[] keptBody;
+
+    public JsonBodyHandler(TypeAdapter<T> adapter) {
+        this(adapter, HTTPClientSingleton.getDecodeExecutor(), HTTPClientSingleton.getDefaultOptions().getBodyTimeout());
+    }
+
+    /**
+     * @param adapter        adapter decoding the body
+     * @param decodeExecutor executor the body is decoded on as it arrives
+     * @param bodyTimeout    time the body may take to arrive after the headers, or null for none
+     */
+    public JsonBodyHandler(TypeAdapter<T> adapter, Executor decodeExecutor, Duration bodyTimeout) {
+        this.adapter = adapter;
+        this.decodeExecutor = decodeExecutor;
+        this.bodyTimeout = bodyTimeout;
+    }
+
+    @Override
+    public HttpResponse.BodySubscriber<Supplier<T>> apply(HttpResponse.ResponseInfo responseInfo) {
+        if (responseInfo.statusCode() != 200) {
+            return HttpResponse.BodySubscribers.replacing(() -> null);
+        }
+        String encoding = responseInfo.headers().firstValue("Content-Encoding").orElse("identity");
+        boolean keep = keepValidatedBody && (responseInfo.headers().firstValue("ETag").isPresent()
+                || responseInfo.headers().firstValue("Last-Modified").isPresent());
+        return new DecodingSubscriber(encoding, keep);
+    }
+
+    /**
+     * Keep a copy of the decompressed body of responses that carry an ETag or Last-Modified
+     * validator, so it can be cached and decoded again when the response is revalidated.
+     *
+     * @return this
+     */
+    public JsonBodyHandler<T> withValidatedBodyKept() {
+        this.keepValidatedBody = true;
+        return this;
+    }
+
+    /**
+     * @return number of decompressed bytes read from the last body decoded by this handler
+     */
+    public long getBodySize() {
+        return bodySize;
+    }
+
+    /**
+     * @return the decompressed last body decoded by this handler, if it was kept, otherwise null
+     */
+    public byte[] getKeptBody() {
+        return keptBody;
+    }
+
+    /**
+     * Decode a body kept earlier, giving a new copy of the value.
+     *
+     * @param body a body returned by {@link #getKeptBody()}
+     * @return the decoded value
+     * @throws UncheckedIOException if the body could not be decoded
+     */
+    public T decodeKept(byte[] body) {
+        try {
+            return decode(new ByteArrayInputStream(body), "identity", false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Decode a body. Like {@code Gson.fromJson}, an empty body decodes to null, but a body that ends
+     * part way through a value is an error.
+     *
+     * @throws IOException if the body could not be read to the end of the value
+     */
+    private T decode(InputStream body, String encoding, boolean keep) throws IOException {
+        ByteArrayOutputStream copy = keep ? new ByteArrayOutputStream() : null;
+        CountingInputStream counted = new CountingInputStream(decompress(body, encoding), copy);
+        try (JsonReader jsonReader = new JsonReader(new InputStreamReader(counted, StandardCharsets.UTF_8))) {
+            // match Gson.fromJson, which is lenient
+            jsonReader.setLenient(true);
+            try {
+                jsonReader.peek();
+            } catch (EOFException e) {
+                if (!counted.ended) {
+                    // the body itself broke off, say in the middle of compressed data
+                    throw e;
+                }
+                return null;
+            }
+            T value = adapter.read(jsonReader);
+            if (copy != null) {
+                keptBody = copy.toByteArray();
+            }
+            return value;
+        } finally {
+            bodySize = counted.count;
+        }
+    }
+
+    private static InputStream decompress(InputStream body, String encoding) throws IOException {
+        switch (encoding.trim().toLowerCase()) {
+            case "gzip":
+            case "x-gzip":
+                return new GZIPInputStream(body);
+            case "deflate":
+                return new InflaterInputStream(body);
+            default:
+                return body;
+        }
+    }
+
+    /**
+     * Hands the body chunks to a decoder running on the decode executor as they arrive. The decoder
+     * is started as soon as the headers are in.
+     */
+    private class DecodingSubscriber implements HttpResponse.BodySubscriber<Supplier<T>> {
+        private final BodyStream stream = new BodyStream();
+        private final CompletableFuture<Supplier<T>> decoded = new CompletableFuture<>();
+        private final String encoding;
+        private final boolean keep;
+
+        DecodingSubscriber(String encoding, boolean keep) {
+            this.encoding = encoding;
+            this.keep = keep;
+        }
+
+        @Override
+        public CompletionStage<Supplier<T>> getBody() {
+            return decoded;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            if (bodyTimeout != null) {
+                // the headers are in, start the clock on the body; failing the stream cancels the
+                // subscription so the connection is not left hanging
+                CompletableFuture<Void> timer = new CompletableFuture<Void>()
+                        .orTimeout(bodyTimeout.toNanos(), TimeUnit.NANOSECONDS);
+                timer.whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        stream.fail(new HttpTimeoutException("Response body not received within " + bodyTimeout));
+                    }
+                });
+                stream.received.whenComplete((ignored, error) -> timer.complete(null));
+            }
+            stream.subscribe(subscription);
+            decodeExecutor.execute(this::decodeStream);
+        }
+
+        private void decodeStream() {
+            try (InputStream body = stream) {
+                T value = decode(body, encoding, keep);
+                decoded.complete(() -> value);
+            } catch (IOException e) {
+                // the body did not arrive in full, there is nothing to hand out
+                decoded.completeExceptionally(e);
+            } catch (RuntimeException e) {
+                decoded.complete(() -> {
+                    throw e;
+                });
+            }
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> item) {
+            stream.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            stream.fail(throwable instanceof IOException ? (IOException) throwable : new IOException(throwable));
+        }
+
+        @Override
+        public void onComplete() {
+            stream.complete();
+        }
+    }
+
+    /**
+     * The body as an input stream over the chunks received so far. At most {@link #PREFETCH} chunks
+     * are requested ahead of the reader, the next one is requested as each is used up. A read waits
+     * for the next chunk as a {@link ForkJoinPool.ManagedBlocker}, so the decode pool can make up for
+     * the waiting thread. Closing the stream before the body is complete cancels the rest of it.
+     */
+    private static class BodyStream extends InputStream {
+        private static final int PREFETCH = 4;
+
+        private final Deque<List<ByteBuffer>> chunks = new ArrayDeque<>();
+        private final CompletableFuture<Void> received = new CompletableFuture<>();
+        private Flow.Subscription subscription;
+        private IOException error;
+        private boolean complete;
+        private boolean closed;
+
+        void subscribe(Flow.Subscription subscription) {
+            boolean cancel;
+            synchronized (this) {
+                this.subscription = subscription;
+                cancel = closed || error != null;
+            }
+            if (cancel) {
+                subscription.cancel();
+            } else {
+                subscription.request(PREFETCH);
+            }
+        }
+
+        synchronized void add(List<ByteBuffer> chunk) {
+            if (!closed) {
+                chunks.add(chunk);
+                notifyAll();
+            }
+        }
+
+        void complete() {
+            synchronized (this) {
+                complete = true;
+                notifyAll();
+            }
+            received.complete(null);
+        }
+
+        void fail(IOException failure) {
+            Flow.Subscription cancel;
+            synchronized (this) {
+                if (complete || error != null) {
+                    return;
+                }
+                error = failure;
+                cancel = subscription;
+                notifyAll();
+            }
+            received.completeExceptionally(failure);
+            if (cancel != null) {
+                cancel.cancel();
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) == -1 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            while (true) {
+                int used = 0;
+                synchronized (this) {
+                    List<ByteBuffer> chunk;
+                    while ((chunk = chunks.peek()) != null) {
+                        for (ByteBuffer buffer : chunk) {
+                            if (buffer.hasRemaining()) {
+                                int n = Math.min(len, buffer.remaining());
+                                buffer.get(b, off, n);
+                                return n;
+                            }
+                        }
+                        chunks.poll();
+                        used++;
+                    }
+                    if (used == 0) {
+                        if (error != null) {
+                            throw error;
+                        }
+                        if (complete) {
+                            return -1;
+                        }
+                        awaitChunk();
+                    }
+                }
+                if (used > 0) {
+                    // ask for more outside the lock, the subscription may deliver straight away
+                    subscription.request(used);
+                }
+            }
+        }
+
+        private void awaitChunk() throws IOException {
+            try {
+                ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+                    @Override
+                    public boolean block() throws InterruptedException {
+                        synchronized (BodyStream.this) {
+                            if (!isReleasable()) {
+                                BodyStream.this.wait();
+                            }
+                        }
+                        return isReleasable();
+                    }
+
+                    @Override
+                    public boolean isReleasable() {
+                        synchronized (BodyStream.this) {
+                            return !chunks.isEmpty() || complete || error != null;
+                        }
+                    }
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the response body");
+            }
+        }
+
+        @Override
+        public void close() {
+            Flow.Subscription cancel;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                chunks.clear();
+                cancel = complete ? null : subscription;
+            }
+            if (cancel != null) {
+                cancel.cancel();
+            }
+        }
+    }
+
+    /**
+     * Counts the bytes read through it, and copies them if given somewhere to.
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        private final ByteArrayOutputStream copy;
+        private long count;
+        private boolean ended;
+
+        CountingInputStream(InputStream in, ByteArrayOutputStream copy) {
+            super(in);
+            this.copy = copy;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b == -1) {
+                ended = true;
+            } else {
+                count++;
+                if (copy != null) {
+                    copy.write(b);
+                }
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n == -1) {
+                ended = true;
+            } else {
+                count += n;
+                if (copy != null) {
+                    copy.write(b, off, n);
+                }
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package bostonhttp.util;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrency limiter shared by every request going to the same host. The limit follows an AIMD
+ * scheme: it grows by roughly one permit per round trip while latency stays close to the host's
+ * usual latency, and is cut multiplicatively when the host starts queueing our requests or answers
+ * with 429 Too Many Requests.
+ * <p>
+ * Latency is measured up to the response headers, so the time spent receiving and decoding large
+ * bodies does not count as congestion. Recent latency is a short moving average, compared against a
+ * long moving average as the baseline, so a few unusually fast answers (say 304 Not Modified) do not
+ * make everything else look congested, and the baseline follows a host that got slower for good.
+ * <p>
+ * The limit is cut at most once per window of requests in flight: the responses to requests sent
+ * before a cut describe the load before it, so they cannot cut the limit again. A burst of slow or
+ * dropped responses therefore counts as one congestion signal, not one per response.
+ * <p>
+ * Waiters are admitted in the order they asked, and as many of them as the limit allows: whenever
+ * a permit is released or the limit grows, queued waiters are let in until it is reached again.
+ */
+public class AdaptiveLimiter {
+    private static final Map<String, AdaptiveLimiter> limiters = new ConcurrentHashMap<>();
+
+    private static final int INITIAL_LIMIT = 20;
+    private static final int MIN_LIMIT = 1;
+    private static final int MAX_LIMIT = 1000;
+    private static final double LATENCY_BACKOFF_RATIO = 0.9;
+    private static final double DROP_BACKOFF_RATIO = 0.5;
+    // recent latency above this multiple of the baseline counts as congestion
+    private static final double LATENCY_TOLERANCE = 2.0;
+    // weight of a new sample in the recent latency and in the baseline
+    private static final double RECENT_LATENCY_WEIGHT = 0.25;
+    private static final double BASELINE_LATENCY_WEIGHT = 0.01;
+
+    private final Queue<CompletableFuture<Permit>> waiters = new ArrayDeque<>();
+    private final LongSupplier clock;
+    private double limit = INITIAL_LIMIT;
+    private int inFlight;
+    private double recentLatencyNanos = -1;
+    private double baselineLatencyNanos = -1;
+    // sequence number of the last permit granted, and of the last one granted before the latest cut
+    private long issued;
+    private long issuedAtCut;
+
+    public AdaptiveLimiter() {
+        this(System::nanoTime);
+    }
+
+    /**
+     * @param clock source of {@link System#nanoTime()} style timestamps to measure latency with
+     */
+    AdaptiveLimiter(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Get the limiter for the host of the given URI, creating it if it does not exist. There is at
+     * most one limiter per scheme and authority, so the map stays as small as the set of hosts.
+     *
+     * @param uri any URI on the host
+     * @return the limiter shared by all requests to that host
+     */
+    public static AdaptiveLimiter forHost(URI uri) {
+        return limiters.computeIfAbsent(uri.getScheme() + "://" + uri.getAuthority(), k -> new AdaptiveLimiter());
+    }
+
+    /**
+     * Acquire a permit. The returned future completes once the number of requests in flight is
+     * below the current limit and every earlier waiter has been admitted. Exactly one of the
+     * {@link Permit} callbacks must be called once the request is done.
+     *
+     * @return future holding the granted permit
+     */
+    public CompletableFuture<Permit> acquire() {
+        synchronized (this) {
+            if (waiters.isEmpty() && inFlight < (int) limit) {
+                inFlight++;
+                return CompletableFuture.completedFuture(new Permit());
+            }
+            CompletableFuture<Permit> waiter = new CompletableFuture<>();
+            waiters.add(waiter);
+            return waiter;
+        }
+    }
+
+    /**
+     * @return the current concurrency limit
+     */
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * @return the number of permits currently held
+     */
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    private synchronized void onSample(long latencyNanos, long sequence, int inFlightAtStart) {
+        if (baselineLatencyNanos < 0) {
+            recentLatencyNanos = latencyNanos;
+            baselineLatencyNanos = latencyNanos;
+        } else {
+            recentLatencyNanos += (latencyNanos - recentLatencyNanos) * RECENT_LATENCY_WEIGHT;
+            baselineLatencyNanos += (latencyNanos - baselineLatencyNanos) * BASELINE_LATENCY_WEIGHT;
+        }
+
+        if (recentLatencyNanos > baselineLatencyNanos * LATENCY_TOLERANCE) {
+            cut(sequence, LATENCY_BACKOFF_RATIO);
+        } else if (inFlightAtStart * 2 >= limit) {
+            // only grow while the limit is actually being used
+            limit = Math.min(MAX_LIMIT, limit + 1 / limit);
+        }
+    }
+
+    private synchronized void onDrop(long sequence) {
+        cut(sequence, DROP_BACKOFF_RATIO);
+    }
+
+    /**
+     * Cut the limit, unless it was already cut since the request reporting congestion was sent.
+     */
+    private void cut(long sequence, double ratio) {
+        if (sequence > issuedAtCut) {
+            limit = Math.max(MIN_LIMIT, limit * ratio);
+            issuedAtCut = issued;
+        }
+    }
+
+    private synchronized long nextSequence() {
+        return ++issued;
+    }
+
+    private void release() {
+        synchronized (this) {
+            inFlight--;
+        }
+        admitWaiters();
+    }
+
+    /**
+     * Let queued waiters in, oldest first, until the limit is reached. Called after a release and
+     * after the limit grew, so added capacity is used straight away.
+     */
+    private void admitWaiters() {
+        while (true) {
+            CompletableFuture<Permit> next;
+            synchronized (this) {
+                if (inFlight >= (int) limit) {
+                    return;
+                }
+                next = waiters.poll();
+                if (next == null) {
+                    return;
+                }
+                inFlight++;
+            }
+            // complete outside the lock, the waiter's continuation may run right here
+            if (!next.complete(new Permit())) {
+                synchronized (this) {
+                    inFlight--;
+                }
+            }
+        }
+    }
+
+    /**
+     * A single granted slot. Reports the outcome of the request back to the limiter.
+     */
+    public class Permit {
+        private final long sequence = nextSequence();
+        private final long startNanos = clock.getAsLong();
+        private final int inFlightAtStart = getInFlight();
+        private volatile long headersNanos;
+        private volatile boolean headersReceived;
+
+        /**
+         * The response headers arrived. The latency reported on success is measured up to here, the
+         * body and its decoding are not part of it.
+         */
+        public void onHeaders() {
+            headersNanos = clock.getAsLong();
+            headersReceived = true;
+        }
+
+        /**
+         * The request completed normally, use its latency to adjust the limit.
+         */
+        public void onSuccess() {
+            long end = headersReceived ? headersNanos : clock.getAsLong();
+            onSample(end - startNanos, sequence, inFlightAtStart);
+            release();
+        }
+
+        /**
+         * The request was rejected or timed out because the host is overloaded.
+         */
+        public void onDropped() {
+            onDrop(sequence);
+            release();
+        }
+
+        /**
+         * The request failed for a reason unrelated to load, release without adjusting the limit.
+         */
+        public void onIgnore() {
+            release();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package bostonhttp.util;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The point in time by which the work for an incoming request has to be done. A deadline is bound
+ * to the thread handling the request, picked up by every API call made on it and carried to
+ * callbacks run on the API's executor. Once it passes, requests still in flight for it are
+ * cancelled and no new ones are sent.
+ *
+ * <p>Between processes the deadline travels as the remaining time in milliseconds, in the
+ * {@link #HEADER} header, so clocks on different hosts do not have to agree.
+ */
+public class Deadline {
+    public static final String HEADER = "X-Request-Timeout";
+
+    private static final ThreadLocal<Deadline> current = new ThreadLocal<>();
+
+    private final long deadlineNanos;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Create a deadline the given amount of time from now.
+     *
+     * @param timeout time until the deadline
+     * @return the deadline
+     */
+    public static Deadline after(Duration timeout) {
+        return new Deadline(System.nanoTime() + timeout.toNanos());
+    }
+
+    /**
+     * Read a deadline from the value of the {@link #HEADER} header.
+     *
+     * @param value header value, the remaining time in milliseconds
+     * @return the deadline, or null if the header is missing or malformed
+     */
+    public static Deadline fromHeader(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return after(Duration.ofMillis(Math.max(0, Long.parseLong(value.trim()))));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the deadline bound to the current thread, or null if there is none
+     */
+    public static Deadline current() {
+        return current.get();
+    }
+
+    /**
+     * Bind a deadline to the current thread, replacing any previous one.
+     *
+     * @param deadline the deadline, or null to clear it
+     */
+    public static void setCurrent(Deadline deadline) {
+        if (deadline == null) {
+            current.remove();
+        } else {
+            current.set(deadline);
+        }
+    }
+
+    /**
+     * @return the value of the {@link #HEADER} header to pass this deadline on
+     */
+    public String toHeader() {
+        return Long.toString(remaining().toMillis());
+    }
+
+    /**
+     * @return time left until the deadline, zero once it has passed
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(remainingNanos());
+    }
+
+    public boolean isExpired() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * @return the exception calls made after the deadline fail with
+     */
+    public TimeoutException exceeded() {
+        return new TimeoutException("Request deadline exceeded");
+    }
+
+    /**
+     * Fail the given future with a {@link TimeoutException} if it has not completed by the
+     * deadline.
+     *
+     * @param future the future to bound
+     * @param <T>    type of the future's result
+     * @return the same future
+     */
+    public <T> CompletableFuture<T> bound(CompletableFuture<T> future) {
+        return future.orTimeout(remainingNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Cancel the given future if it has not completed by the deadline. The timer is dropped as soon
+     * as the future completes, so nothing is kept alive until the deadline.
+     *
+     * @param future the future to cancel
+     */
+    public void cancelOnExpiry(CompletableFuture<?> future) {
+        CompletableFuture<Void> timer = new CompletableFuture<Void>().orTimeout(remainingNanos(), TimeUnit.NANOSECONDS);
+        timer.whenComplete((ignored, error) -> {
+            if (error != null) {
+                future.cancel(true);
+            }
+        });
+        future.whenComplete((result, error) -> timer.complete(null));
+    }
+
+    /**
+     * Wrap an executor so the tasks it runs have this deadline bound to their thread.
+     *
+     * @param executor the executor to wrap
+     * @return executor running tasks under this deadline
+     */
+    public Executor wrap(Executor executor) {
+        return task -> executor.execute(() -> {
+            Deadline previous = current.get();
+            current.set(this);
+            try {
+                task.run();
+            } finally {
+                setCurrent(previous);
+            }
+        });
+    }
+
+    private long remainingNanos() {
+        return Math.max(0, deadlineNanos - System.nanoTime());
+    }
+}
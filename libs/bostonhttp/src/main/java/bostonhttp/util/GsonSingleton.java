@@ -0,0 +1,26 @@
+package bostonhttp.util;
+
+import adaptergen.GeneratedTypeAdapters;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+public class GsonSingleton {
+    private static final Gson gson = GeneratedTypeAdapters.registerAll(new GsonBuilder())
+            .registerTypeAdapter(LocalDate.class, new LocalDateAdapter().nullSafe())
+            .registerTypeAdapter(Date.class, new IsoDateAdapter())
+            .create();
+
+    /**
+     * gets the shared Gson instance. Gson caches the type adapters it builds, so sharing one instance
+     * means each model class is only introspected once per process. Models with generated adapters
+     * are not introspected at all.
+     *
+     * @return The shared Gson
+     */
+    public static Gson getInstance() {
+        return gson;
+    }
+}
@@ -1,10 +1,15 @@
 package bostonhttp.util;
 
 import java.net.http.HttpClient;
-import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 
 public class HTTPClientSingleton {
-    private static HttpClient client;
+    private static volatile HttpClientOptions defaultOptions = new HttpClientOptions();
+
+    // created on first use, so it is sized from the options set at startup rather than the defaults
+    private static volatile ExecutorService decodeExecutor;
 
     /**
      * gets the shared instance of HTTPClient, should in theory be faster?
@@ -12,9 +17,62 @@ public class HTTPClientSingleton {
      * @return The shared HTTPClient
      */
     public static HttpClient getInstance() {
-        if (client == null) {
-            client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        return defaultOptions.getClient();
+    }
+
+    /**
+     * gets the options used by API wrappers whose behaviors do not set their own.
+     *
+     * @return The default options
+     */
+    public static HttpClientOptions getDefaultOptions() {
+        return defaultOptions;
+    }
+
+    /**
+     * Replace the default options. Should be called at startup, before any request is made.
+     *
+     * @param options the new default options
+     */
+    public static synchronized void setDefaultOptions(HttpClientOptions options) {
+        ExecutorService previous = decodeExecutor;
+        if (previous != null && options.getExecutorThreads() != defaultOptions.getExecutorThreads()) {
+            // work already queued still runs, the next caller gets a pool of the new size
+            decodeExecutor = null;
+            previous.shutdown();
         }
-        return client;
+        defaultOptions = options;
+    }
+
+    /**
+     * gets the executor response bodies are decoded on, and API callbacks run on. It has as many
+     * threads as the default options give the client executor. A decoder waiting for more of its body,
+     * or a callback joining another request, is compensated for by the pool, so neither can starve it.
+     *
+     * @return The shared decode executor
+     */
+    public static ExecutorService getDecodeExecutor() {
+        ExecutorService executor = decodeExecutor;
+        if (executor == null) {
+            synchronized (HTTPClientSingleton.class) {
+                executor = decodeExecutor;
+                if (executor == null) {
+                    executor = createDecodeExecutor(defaultOptions.getExecutorThreads());
+                    decodeExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    private static ExecutorService createDecodeExecutor(int threads) {
+        return new ForkJoinPool(
+                threads,
+                pool -> {
+                    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    thread.setName("bostonhttp-decode-" + thread.getPoolIndex());
+                    return thread;
+                },
+                null, true);
     }
 }
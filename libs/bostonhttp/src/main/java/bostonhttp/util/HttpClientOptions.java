@@ -0,0 +1,196 @@
+package bostonhttp.util;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Transport settings for the {@link HttpClient} used by the API wrappers. Each set of options owns
+ * its own client, built the first time it is needed, so the router and every service can tune the
+ * transport for their own deployment.
+ */
+public class HttpClientOptions {
+    private static final String CONNECTION_POOL_SIZE_PROPERTY = "jdk.httpclient.connectionPoolSize";
+
+    private Duration connectTimeout = Duration.ofSeconds(5);
+    private Duration requestTimeout = Duration.ofSeconds(30);
+    private Duration bodyTimeout = Duration.ofSeconds(60);
+    private HttpClient.Version version = HttpClient.Version.HTTP_2;
+    private int executorThreads = Math.max(4, Runtime.getRuntime().availableProcessors());
+    private int connectionPoolSize;
+
+    private HttpClient client;
+    private ExecutorService executor;
+
+    /**
+     * Read the options from the environment. Unset variables keep their defaults.
+     * <ul>
+     *     <li>BOSTON_HTTP_CONNECT_TIMEOUT_MS - time allowed to open a connection</li>
+     *     <li>BOSTON_HTTP_REQUEST_TIMEOUT_MS - time allowed for the response headers to arrive</li>
+     *     <li>BOSTON_HTTP_BODY_TIMEOUT_MS - time allowed for the response body to arrive after its
+     *     headers</li>
+     *     <li>BOSTON_HTTP_VERSION - 1.1 or 2</li>
+     *     <li>BOSTON_HTTP_THREADS - size of the client executor</li>
+     *     <li>BOSTON_HTTP_POOL_SIZE - maximum idle connections kept per process, 0 for no limit</li>
+     * </ul>
+     *
+     * @return options configured from the environment
+     */
+    public static HttpClientOptions fromEnvironment() {
+        HttpClientOptions options = new HttpClientOptions();
+
+        String connectTimeout = getEnv("BOSTON_HTTP_CONNECT_TIMEOUT_MS");
+        if (connectTimeout != null) {
+            options.withConnectTimeout(Duration.ofMillis(Long.parseLong(connectTimeout)));
+        }
+        String requestTimeout = getEnv("BOSTON_HTTP_REQUEST_TIMEOUT_MS");
+        if (requestTimeout != null) {
+            options.withRequestTimeout(Duration.ofMillis(Long.parseLong(requestTimeout)));
+        }
+        String bodyTimeout = getEnv("BOSTON_HTTP_BODY_TIMEOUT_MS");
+        if (bodyTimeout != null) {
+            options.withBodyTimeout(Duration.ofMillis(Long.parseLong(bodyTimeout)));
+        }
+        String version = getEnv("BOSTON_HTTP_VERSION");
+        if (version != null) {
+            options.withVersion(version.startsWith("1") ? HttpClient.Version.HTTP_1_1 : HttpClient.Version.HTTP_2);
+        }
+        String threads = getEnv("BOSTON_HTTP_THREADS");
+        if (threads != null) {
+            options.withExecutorThreads(Integer.parseInt(threads));
+        }
+        String poolSize = getEnv("BOSTON_HTTP_POOL_SIZE");
+        if (poolSize != null) {
+            options.withConnectionPoolSize(Integer.parseInt(poolSize));
+        }
+
+        return options;
+    }
+
+    private static String getEnv(String name) {
+        String value = System.getenv(name);
+        return value == null || value.trim().equals("") ? null : value.trim();
+    }
+
+    public synchronized HttpClientOptions withConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+        reset();
+        return this;
+    }
+
+    /**
+     * Set how long a request may wait for the headers of its response before failing with an
+     * {@link java.net.http.HttpTimeoutException}. This only covers the headers, the body is bounded
+     * by {@link #withBodyTimeout(Duration)}.
+     *
+     * @param requestTimeout the timeout, or null for none
+     * @return these options
+     */
+    public synchronized HttpClientOptions withRequestTimeout(Duration requestTimeout) {
+        this.requestTimeout = requestTimeout;
+        return this;
+    }
+
+    /**
+     * Set how long the body of a response may take to arrive once its headers have. A body that
+     * stalls for longer is abandoned, which closes its stream, and the request fails with an
+     * {@link java.net.http.HttpTimeoutException}. This keeps a server that stops mid-body from
+     * holding the caller forever.
+     *
+     * @param bodyTimeout the timeout, or null for none
+     * @return these options
+     */
+    public synchronized HttpClientOptions withBodyTimeout(Duration bodyTimeout) {
+        this.bodyTimeout = bodyTimeout;
+        return this;
+    }
+
+    public synchronized HttpClientOptions withVersion(HttpClient.Version version) {
+        this.version = version;
+        reset();
+        return this;
+    }
+
+    public synchronized HttpClientOptions withExecutorThreads(int executorThreads) {
+        this.executorThreads = executorThreads;
+        reset();
+        return this;
+    }
+
+    /**
+     * Limit the number of idle connections kept alive. The JDK reads this limit once per process,
+     * so it only takes effect if set before the first client is built.
+     *
+     * @param connectionPoolSize maximum idle connections, 0 for no limit
+     * @return these options
+     */
+    public synchronized HttpClientOptions withConnectionPoolSize(int connectionPoolSize) {
+        this.connectionPoolSize = connectionPoolSize;
+        reset();
+        return this;
+    }
+
+    public synchronized Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public synchronized Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    public synchronized Duration getBodyTimeout() {
+        return bodyTimeout;
+    }
+
+    public synchronized HttpClient.Version getVersion() {
+        return version;
+    }
+
+    public synchronized int getExecutorThreads() {
+        return executorThreads;
+    }
+
+    public synchronized int getConnectionPoolSize() {
+        return connectionPoolSize;
+    }
+
+    /**
+     * Get the client for these options, building it on first use.
+     *
+     * @return the client
+     */
+    public synchronized HttpClient getClient() {
+        if (client == null) {
+            if (connectionPoolSize > 0 && System.getProperty(CONNECTION_POOL_SIZE_PROPERTY) == null) {
+                System.setProperty(CONNECTION_POOL_SIZE_PROPERTY, Integer.toString(connectionPoolSize));
+            }
+
+            AtomicInteger count = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(executorThreads, runnable -> {
+                Thread thread = new Thread(runnable, "bostonhttp-client-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            client = HttpClient.newBuilder()
+                    .connectTimeout(connectTimeout)
+                    .version(version)
+                    .executor(executor)
+                    .build();
+        }
+        return client;
+    }
+
+    /**
+     * Drop the current client so the next request builds one with the new settings. Requests
+     * already in flight finish on the old executor before it shuts down.
+     */
+    private void reset() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+        client = null;
+        executor = null;
+    }
+}
@@ -0,0 +1,250 @@
+package bostonhttp.util;
+
+import java.io.IOException;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.Locale;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Reads and writes {@link Date} as ISO-8601. Taiga timestamps such as
+ * {@code 2024-02-01T10:15:30.123Z} or {@code 2024-02-01T10:15:30+00:00} are parsed by hand straight to
+ * epoch milliseconds, without the Calendar and formatter objects Gson's default adapter creates for
+ * every value. Anything else, including the locale format older services wrote, falls back to the
+ * slower parsers. Dates are written as UTC instants.
+ */
+public class IsoDateAdapter extends TypeAdapter<Date> {
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    @Override
+    public void write(final JsonWriter jsonWriter, final Date date) throws IOException {
+        if (date == null) {
+            jsonWriter.nullValue();
+            return;
+        }
+        jsonWriter.value(date.toInstant().toString());
+    }
+
+    @Override
+    public Date read(final JsonReader jsonReader) throws IOException {
+        if (jsonReader.peek() == JsonToken.NULL) {
+            jsonReader.nextNull();
+            return null;
+        }
+        String value = jsonReader.nextString();
+        try {
+            return parse(value);
+        } catch (IllegalArgumentException e) {
+            throw new JsonSyntaxException("Failed parsing '" + value + "' as Date; at path " + jsonReader.getPreviousPath(), e);
+        }
+    }
+
+    /**
+     * Parse an ISO-8601 timestamp, falling back to the formats Gson's default Date adapter accepts.
+     *
+     * @param value the text to parse
+     * @return the parsed date
+     * @throws IllegalArgumentException if the text is not a date in any supported format
+     */
+    public static Date parse(String value) {
+        long millis = parseInstant(value);
+        if (millis != Long.MIN_VALUE) {
+            return new Date(millis);
+        }
+        return parseSlow(value);
+    }
+
+    /**
+     * Parse a timestamp like {@link #parse(String)}, without allocating a Date on the fast path.
+     *
+     * @param value the text to parse
+     * @return the epoch milliseconds
+     * @throws IllegalArgumentException if the text is not a date in any supported format
+     */
+    public static long parseMillis(String value) {
+        long millis = parseInstant(value);
+        if (millis != Long.MIN_VALUE) {
+            return millis;
+        }
+        return parseSlow(value).getTime();
+    }
+
+    /**
+     * Parse a {@code yyyy-MM-dd} date, falling back to {@link LocalDate#parse} for anything else.
+     *
+     * @param value the text to parse
+     * @return the parsed date
+     */
+    public static LocalDate parseLocalDate(String value) {
+        if (value.length() == 10 && value.charAt(4) == '-' && value.charAt(7) == '-') {
+            int year = digits(value, 0, 4);
+            int month = digits(value, 5, 2);
+            int day = digits(value, 8, 2);
+            if (year >= 0 && month >= 1 && month <= 12 && day >= 1 && day <= lengthOfMonth(year, month)) {
+                return LocalDate.of(year, month, day);
+            }
+        }
+        return LocalDate.parse(value);
+    }
+
+    /**
+     * Parse {@code yyyy-MM-ddTHH:mm[:ss[.fraction]]} followed by {@code Z} or a {@code ±hh[:mm]} offset.
+     *
+     * @return the epoch milliseconds, or {@link Long#MIN_VALUE} if the text is not in that form
+     */
+    static long parseInstant(String s) {
+        int length = s.length();
+        if (length < 17 || s.charAt(4) != '-' || s.charAt(7) != '-' || s.charAt(10) != 'T' || s.charAt(13) != ':') {
+            return Long.MIN_VALUE;
+        }
+        int year = digits(s, 0, 4);
+        int month = digits(s, 5, 2);
+        int day = digits(s, 8, 2);
+        int hour = digits(s, 11, 2);
+        int minute = digits(s, 14, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month) || hour < 0 || hour > 23
+                || minute < 0 || minute > 59) {
+            return Long.MIN_VALUE;
+        }
+
+        int pos = 16;
+        int second = 0;
+        int millis = 0;
+        if (pos < length && s.charAt(pos) == ':') {
+            second = digits(s, pos + 1, 2);
+            if (second < 0 || second > 59) {
+                return Long.MIN_VALUE;
+            }
+            pos += 3;
+            if (pos < length && (s.charAt(pos) == '.' || s.charAt(pos) == ',')) {
+                int start = ++pos;
+                while (pos < length && isDigit(s.charAt(pos))) {
+                    if (pos - start < 3) {
+                        millis = millis * 10 + (s.charAt(pos) - '0');
+                    }
+                    pos++;
+                }
+                int fractionDigits = pos - start;
+                if (fractionDigits == 0) {
+                    return Long.MIN_VALUE;
+                }
+                for (int i = fractionDigits; i < 3; i++) {
+                    millis *= 10;
+                }
+            }
+        }
+
+        if (pos >= length) {
+            // no zone designator: the slow path resolves it against the local zone
+            return Long.MIN_VALUE;
+        }
+        int offsetSeconds;
+        char zone = s.charAt(pos);
+        if (zone == 'Z' || zone == 'z') {
+            if (pos + 1 != length) {
+                return Long.MIN_VALUE;
+            }
+            offsetSeconds = 0;
+        } else if (zone == '+' || zone == '-') {
+            int offsetHours = digits(s, pos + 1, 2);
+            int offsetMinutes = 0;
+            int end = pos + 3;
+            if (end < length) {
+                if (s.charAt(end) == ':') {
+                    end++;
+                }
+                offsetMinutes = digits(s, end, 2);
+                end += 2;
+            }
+            if (end != length || offsetHours < 0 || offsetHours > 18 || offsetMinutes < 0 || offsetMinutes > 59) {
+                return Long.MIN_VALUE;
+            }
+            offsetSeconds = (offsetHours * 3600 + offsetMinutes * 60) * (zone == '-' ? -1 : 1);
+        } else {
+            return Long.MIN_VALUE;
+        }
+
+        long seconds = hour * 3600L + minute * 60L + second - offsetSeconds;
+        return daysFromCivil(year, month, day) * MILLIS_PER_DAY + seconds * 1000L + millis;
+    }
+
+    private static Date parseSlow(String value) {
+        try {
+            return Date.from(OffsetDateTime.parse(value).toInstant());
+        } catch (DateTimeParseException ignored) {
+        }
+        try {
+            return Date.from(LocalDateTime.parse(value).atZone(ZoneId.systemDefault()).toInstant());
+        } catch (DateTimeParseException ignored) {
+        }
+        try {
+            return Date.from(LocalDate.parse(value).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        } catch (DateTimeParseException ignored) {
+        }
+        try {
+            // the format Gson's default adapter writes
+            return DateFormat.getDateTimeInstance(DateFormat.DEFAULT, DateFormat.DEFAULT, Locale.US).parse(value);
+        } catch (ParseException e) {
+            throw new IllegalArgumentException("Unparseable date: " + value, e);
+        }
+    }
+
+    /**
+     * @return the value of {@code count} ASCII digits starting at {@code start}, or -1 if any is missing
+     */
+    private static int digits(String s, int start, int count) {
+        if (start + count > s.length()) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = s.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Days since 1970-01-01 for a proleptic Gregorian date (Howard Hinnant's days_from_civil).
+     */
+    private static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - 719_468L;
+    }
+}
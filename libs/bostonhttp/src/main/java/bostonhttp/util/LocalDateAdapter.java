@@ -18,6 +18,6 @@ public class LocalDateAdapter extends TypeAdapter<LocalDate> {
 
     @Override
     public LocalDate read( final JsonReader jsonReader ) throws IOException {
-        return LocalDate.parse(jsonReader.nextString());
+        return IsoDateAdapter.parseLocalDate(jsonReader.nextString());
     }
 }
\ No newline at end of file
@@ -0,0 +1,117 @@
+package bostonhttp.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Process wide cache of GET response bodies together with the validators (ETag and Last-Modified)
+ * Taiga sent with them. A cached entry is revalidated with a conditional request, and when Taiga
+ * answers 304 Not Modified the body is decoded from the cache instead of being downloaded again.
+ *
+ * <p>Bodies are kept as the decompressed bytes that were validated, not as decoded models, so every
+ * hit hands out its own copy that the caller is free to change, and the weight of an entry is what
+ * it actually holds on to. Entries are evicted least recently used first once the total weight
+ * exceeds the limit.
+ */
+public class ResponseCache {
+    private static final ResponseCache instance = new ResponseCache();
+
+    private static final long DEFAULT_MAX_WEIGHT = 64L * 1024 * 1024;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long maxWeight = DEFAULT_MAX_WEIGHT;
+    private long weight;
+
+    private ResponseCache() {
+    }
+
+    public static ResponseCache getInstance() {
+        return instance;
+    }
+
+    public synchronized Entry get(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Add or replace an entry, evicting the least recently used entries if the cache is over its
+     * limit afterwards. Entries heavier than the whole cache are not stored.
+     *
+     * @param key   request key
+     * @param entry entry to store
+     */
+    public synchronized void put(String key, Entry entry) {
+        Entry previous = entries.remove(key);
+        if (previous != null) {
+            weight -= previous.getWeight();
+        }
+        if (entry.getWeight() > maxWeight) {
+            return;
+        }
+        entries.put(key, entry);
+        weight += entry.getWeight();
+        evict();
+    }
+
+    /**
+     * Set the maximum total weight of the cache, in bytes of cached body.
+     *
+     * @param maxWeight the new limit
+     */
+    public synchronized void setMaxWeight(long maxWeight) {
+        this.maxWeight = maxWeight;
+        evict();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (weight > maxWeight && iterator.hasNext()) {
+            weight -= iterator.next().getValue().getWeight();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * A response body and the validators needed to revalidate it.
+     */
+    public static class Entry {
+        private final String etag;
+        private final String lastModified;
+        private final byte[] body;
+
+        public Entry(String etag, String lastModified, byte[] body) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.body = body;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        /**
+         * @return the decompressed JSON body, not to be modified
+         */
+        public byte[] getBody() {
+            return body;
+        }
+
+        public long getWeight() {
+            return body.length;
+        }
+    }
+}
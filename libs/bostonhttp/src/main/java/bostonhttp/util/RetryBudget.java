@@ -0,0 +1,54 @@
+package bostonhttp.util;
+
+/**
+ * Process wide budget for retrying throttled requests. Every original request deposits a fraction
+ * of a token and every retry withdraws a whole one, so retries can never add more than
+ * {@link #RETRY_RATIO} of extra load on top of the regular traffic. A small reserve refills over
+ * time so that a quiet process can still retry the odd request.
+ */
+public class RetryBudget {
+    private static final RetryBudget instance = new RetryBudget();
+
+    private static final double RETRY_RATIO = 0.2;
+    private static final double MIN_RETRIES_PER_SECOND = 5;
+    private static final double MAX_TOKENS = 100;
+
+    private double tokens = MAX_TOKENS;
+    private long lastRefillNanos = System.nanoTime();
+
+    private RetryBudget() {
+    }
+
+    public static RetryBudget getInstance() {
+        return instance;
+    }
+
+    /**
+     * Record an original (non-retry) request.
+     */
+    public synchronized void deposit() {
+        refill();
+        tokens = Math.min(MAX_TOKENS, tokens + RETRY_RATIO);
+    }
+
+    /**
+     * Try to take a token for a retry.
+     *
+     * @return true if the retry may be sent, false if the budget is exhausted
+     */
+    public synchronized boolean tryWithdraw() {
+        refill();
+        if (tokens < 1) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        double elapsedSeconds = (now - lastRefillNanos) / 1e9;
+        lastRefillNanos = now;
+        tokens = Math.min(MAX_TOKENS, tokens + elapsedSeconds * MIN_RETRIES_PER_SECOND);
+    }
+}
@@ -0,0 +1,80 @@
+package bostonhttp.util;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters describing what the HTTP transport did on behalf of the API wrappers.
+ */
+public class TransportStats {
+    private static final TransportStats instance = new TransportStats();
+
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder cacheRevalidations = new LongAdder();
+
+    private TransportStats() {
+    }
+
+    public static TransportStats getInstance() {
+        return instance;
+    }
+
+    public void recordRetry() {
+        retried.increment();
+    }
+
+    public void recordDrop() {
+        dropped.increment();
+    }
+
+    public void recordCacheHit() {
+        cacheHits.increment();
+    }
+
+    public void recordCacheMiss() {
+        cacheMisses.increment();
+    }
+
+    public void recordCacheRevalidation() {
+        cacheRevalidations.increment();
+    }
+
+    /**
+     * @return number of throttled requests that were sent again
+     */
+    public long getRetriedCount() {
+        return retried.sum();
+    }
+
+    /**
+     * @return number of throttled requests given up on, either because they ran out of attempts or
+     * because the retry budget was exhausted
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return number of conditional requests answered with 304 Not Modified and served from the
+     * response cache
+     */
+    public long getCacheHitCount() {
+        return cacheHits.sum();
+    }
+
+    /**
+     * @return number of GET requests whose body had to be downloaded and decoded
+     */
+    public long getCacheMissCount() {
+        return cacheMisses.sum();
+    }
+
+    /**
+     * @return number of conditional requests sent to revalidate a cached response
+     */
+    public long getCacheRevalidationCount() {
+        return cacheRevalidations.sum();
+    }
+}
@@ -0,0 +1,18 @@
+package bostonmodel.util;
+
+import bostonhttp.util.Deadline;
+import spark.Filter;
+import spark.Request;
+import spark.Response;
+
+/**
+ * Binds the deadline sent by the router to the thread handling the request, so every Taiga call
+ * made for it stops once the router has given up.
+ */
+public class DeadlineFilter implements Filter {
+    @Override
+    public void handle(Request request, Response response) {
+        // always set, so a deadline never leaks into the next request on this thread
+        Deadline.setCurrent(Deadline.fromHeader(request.headers(Deadline.HEADER)));
+    }
+}
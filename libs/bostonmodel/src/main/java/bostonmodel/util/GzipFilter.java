@@ -0,0 +1,20 @@
+package bostonmodel.util;
+
+import spark.Filter;
+import spark.Request;
+import spark.Response;
+
+/**
+ * Spark after-filter that compresses responses for clients that accept gzip. Spark gzips the body
+ * itself once the response carries a gzip Content-Encoding, so the header is only set when the
+ * request asked for it.
+ */
+public class GzipFilter implements Filter {
+    @Override
+    public void handle(Request request, Response response) {
+        String acceptEncoding = request.headers("Accept-Encoding");
+        if (acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip")) {
+            response.header("Content-Encoding", "gzip");
+        }
+    }
+}
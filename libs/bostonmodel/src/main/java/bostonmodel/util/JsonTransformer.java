@@ -1,7 +1,9 @@
 package bostonmodel.util;
 
 import java.time.LocalDate;
+import java.util.Date;
 
+import bostonhttp.util.IsoDateAdapter;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 
@@ -11,6 +13,7 @@ public class JsonTransformer implements ResponseTransformer {
 
     private final Gson gson = new GsonBuilder()
             .registerTypeAdapter(LocalDate.class, new LocalDateAdapter().nullSafe())
+            .registerTypeAdapter(Date.class, new IsoDateAdapter())
             .create();
 
     @Override
@@ -3,6 +3,7 @@ package bostonmodel.util;
 import java.io.IOException;
 import java.time.LocalDate;
 
+import bostonhttp.util.IsoDateAdapter;
 import com.google.gson.TypeAdapter;
 import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonWriter;
@@ -18,6 +19,6 @@ public class LocalDateAdapter extends TypeAdapter<LocalDate> {
 
     @Override
     public LocalDate read( final JsonReader jsonReader ) throws IOException {
-        return LocalDate.parse(jsonReader.nextString());
+        return IsoDateAdapter.parseLocalDate(jsonReader.nextString());
     }
 }
\ No newline at end of file
@@ -23,7 +23,6 @@ public class TaigaClient {
     static {
         authAPI = new AuthAPI();
         epicsAPI = new EpicsAPI();
-        historyAPI = new HistoryAPI();
         projectAPI = new ProjectAPI();
         sprintAPI = new SprintAPI();
         sprintStatsAPI = new SprintStatsAPI();
@@ -34,6 +33,7 @@ public class TaigaClient {
         userStoryCustomAttributesAPI = new UserStoryCustomAttributesAPI();
         userStoryCustomAttributesValuesAPI = new UserStoryCustomAttributesValuesAPI();
         userStoryHistoryAPI = new UserStoryHistoryAPI();
+        historyAPI = new HistoryAPI(userStoryHistoryAPI);
     }
 
     public static void setDefaultBehavior(APIWrapperBehaviors behaviors) {
@@ -70,6 +70,10 @@ public class TaigaClient {
         return epicsAPI;
     }
 
+    /**
+     * @deprecated use {@link #getUserStoryHistoryAPI()}, which caches each story's history
+     */
+    @Deprecated
     public static HistoryAPI getHistoryAPI() {
         return historyAPI;
     }
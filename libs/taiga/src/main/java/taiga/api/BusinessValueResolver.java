@@ -0,0 +1,136 @@
+package taiga.api;
+
+import bostonhttp.api.BulkOptions;
+import taiga.TaigaClient;
+import taiga.models.compact.BusinessValues;
+import taiga.models.customattributes.UserStoryCustomAttribute;
+import taiga.models.customattributes.UserStoryCustomAttributesValues;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Resolves the business value of the user stories of one project. The business value attribute
+ * definition is looked up once, and the custom attribute values of all the requested stories are
+ * fetched in one round of parallel requests. Values are kept, so asking again for a story already
+ * resolved by this resolver costs no request. {@link #forProject(int)} shares one resolver per
+ * project for {@link #TIME_TO_LIVE}, after which a fresh one picks up values changed in Taiga.
+ * <p>
+ * Stories whose value is blank, not a number, or could not be fetched count as 0, as does every
+ * story of a project without a business value attribute.
+ */
+public class BusinessValueResolver {
+    private static final Logger logger = Logger.getLogger(BusinessValueResolver.class.getName());
+
+    public static final Duration TIME_TO_LIVE = Duration.ofMinutes(10);
+
+    private static final Map<Integer, BusinessValueResolver> resolvers = new ConcurrentHashMap<>();
+
+    private final int projectId;
+    private final UserStoryCustomAttributesAPI attributesAPI;
+    private final UserStoryCustomAttributesValuesAPI valuesAPI;
+    // guarded by itself
+    private final BusinessValues values = new BusinessValues();
+    private final long createdAt = System.nanoTime();
+
+    public BusinessValueResolver(int projectId) {
+        this(projectId, TaigaClient.getUserStoryCustomAttributesAPI(), TaigaClient.getUserStoryCustomAttributesValuesAPI());
+    }
+
+    public BusinessValueResolver(int projectId, UserStoryCustomAttributesAPI attributesAPI,
+                                 UserStoryCustomAttributesValuesAPI valuesAPI) {
+        this.projectId = projectId;
+        this.attributesAPI = attributesAPI;
+        this.valuesAPI = valuesAPI;
+    }
+
+    /**
+     * Get the resolver shared by everyone asking about the given project, creating a new one if
+     * there is none or it is older than {@link #TIME_TO_LIVE}.
+     *
+     * @param projectId id of the project.
+     * @return the shared resolver of the project.
+     */
+    public static BusinessValueResolver forProject(int projectId) {
+        long now = System.nanoTime();
+        return resolvers.compute(projectId, (id, resolver) ->
+                resolver == null || now - resolver.createdAt >= TIME_TO_LIVE.toNanos()
+                        ? new BusinessValueResolver(id)
+                        : resolver);
+    }
+
+    public int getProjectId() {
+        return projectId;
+    }
+
+    /**
+     * Get the business value of the given user stories of this project.
+     *
+     * @param userStoryIds IDs of the user stories.
+     * @return future of the business value of every given story.
+     */
+    public CompletableFuture<BusinessValues> resolve(Collection<Integer> userStoryIds) {
+        List<Integer> missing;
+        synchronized (values) {
+            missing = userStoryIds.stream().filter(id -> !values.containsKey(id)).distinct().toList();
+        }
+        CompletableFuture<Void> fetched = missing.isEmpty()
+                ? CompletableFuture.completedFuture(null)
+                : prefetch(missing);
+        return fetched.thenApply(ignored -> {
+            BusinessValues result = new BusinessValues(userStoryIds.size());
+            synchronized (values) {
+                for (Integer id : userStoryIds) {
+                    result.put(id, values.get(id));
+                }
+            }
+            return result;
+        });
+    }
+
+    private CompletableFuture<Void> prefetch(List<Integer> userStoryIds) {
+        CompletableFuture<UserStoryCustomAttribute> attribute = new CompletableFuture<>();
+        // a lookup that failed without calling back counts as no attribute
+        attributesAPI.getBusinessValueAttribute(projectId, attribute::complete)
+                .whenComplete((ignored, error) -> attribute.complete(null));
+        return attribute.thenCompose(bvAttribute -> {
+            if (bvAttribute == null) {
+                logger.log(Level.WARNING, "Project " + projectId + " doesn't have a business value custom attribute");
+                return CompletableFuture.completedFuture(null);
+            }
+            String key = String.valueOf(bvAttribute.getId());
+            return valuesAPI.getUserStoryCustomAttributeValues(userStoryIds, BulkOptions.defaults()
+                            .withErrorHandler((id, status) -> logger.log(Level.WARNING,
+                                    "Could not fetch custom attributes of user story " + id + ", status " + status)))
+                    .thenAccept(fetched -> fetched.forEach((id, attributeValues) -> {
+                        double value = parse(id, attributeValues, key);
+                        synchronized (values) {
+                            values.put(id, value);
+                        }
+                    }));
+        });
+    }
+
+    private static double parse(int userStoryId, UserStoryCustomAttributesValues attributeValues, String key) {
+        if (attributeValues.getAttributesValues() == null) {
+            return 0;
+        }
+        String bvString = attributeValues.getAttributesValues().get(key);
+        if (bvString == null || bvString.isBlank()) {
+            return 0;
+        }
+        try {
+            return Double.parseDouble(bvString.trim());
+        } catch (NumberFormatException e) {
+            logger.log(Level.WARNING, "Business value attribute had non-number value " + bvString
+                    + " on User Story " + userStoryId + "!");
+            return 0;
+        }
+    }
+}
@@ -33,7 +33,7 @@ public class EpicsAPI extends APIWrapperBase {
      */
     public CompletableFuture<Void> listProjectEpics(
             int projectId, Consumer<APIResponse<EpicDetail[]>> callback) {
-        return queryAsync("?project=" + projectId, EpicDetail[].class).thenAccept(callback);
+        return queryAsync(TaigaQuery.create().project(projectId).toQuery(), EpicDetail[].class).thenAccept(callback);
     }
 
     /**
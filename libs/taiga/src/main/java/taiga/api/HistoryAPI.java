@@ -7,13 +7,20 @@ import taiga.models.history.History;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
+/**
+ * @deprecated user story history is fetched and cached by {@link UserStoryHistoryAPI}; use
+ * {@link UserStoryHistoryAPI#getDetailedUserStoryHistory} instead.
+ */
+@Deprecated
 public class HistoryAPI extends APIWrapperBase {
+    private final UserStoryHistoryAPI userStoryHistoryAPI;
 
-    public HistoryAPI() {
+    public HistoryAPI(UserStoryHistoryAPI userStoryHistoryAPI) {
         super("history");
+        this.userStoryHistoryAPI = userStoryHistoryAPI;
     }
 
     public CompletableFuture<Void> getUserStoryHistory(int id, Consumer<APIResponse<History[]>> callback) {
-        return queryAsync("/userstory/" + id, History[].class).thenAccept(callback);
+        return userStoryHistoryAPI.getDetailedUserStoryHistory(id, callback);
     }
 }
@@ -2,10 +2,14 @@ package taiga.api;
 
 import bostonhttp.api.APIResponse;
 import bostonhttp.api.APIWrapperBase;
+import taiga.models.compact.ProjectStatuses;
 import taiga.models.project.Project;
 import taiga.models.project.ProjectListEntry;
 
+import java.time.Duration;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -13,6 +17,11 @@ import java.util.logging.Logger;
 public class ProjectAPI extends APIWrapperBase {
     private static final Logger logger = Logger.getLogger(ProjectAPI.class.getName());
 
+    // statuses are rarely edited, but a project that changes its board should not wait for a restart
+    private static final Duration STATUSES_TIME_TO_LIVE = Duration.ofMinutes(10);
+
+    private final Map<Integer, CachedStatuses> statuses = new ConcurrentHashMap<>();
+
     public ProjectAPI() {
         super("projects");
     }
@@ -56,7 +65,7 @@ public class ProjectAPI extends APIWrapperBase {
      * @return void future which can be joined to wait for call to complete.
      */
     public CompletableFuture<Void> getProject(String slug, Consumer<APIResponse<Project>> callback) {
-        return queryAsync("/by_slug?slug=" + slug, Project.class)
+        return queryAsync(TaigaQuery.create().slug(slug).toQuery("/by_slug"), Project.class)
                 .thenAccept(callback)
                 .exceptionally(throwable -> {
                     handleError(throwable);
@@ -72,7 +81,7 @@ public class ProjectAPI extends APIWrapperBase {
      * @return void future which can be joined to wait for call to complete.
      */
     public CompletableFuture<Void> listUserProjects(int id, Consumer<APIResponse<ProjectListEntry[]>> callback) {
-        return queryAsync("?member=" + id, ProjectListEntry[].class)
+        return queryAsync(TaigaQuery.create().member(id).toQuery(), ProjectListEntry[].class)
                 .thenAccept(callback)
                 .exceptionally(throwable -> {
                     handleError(throwable);
@@ -80,7 +89,47 @@ public class ProjectAPI extends APIWrapperBase {
                 });
     }
 
+    /**
+     * Get the status dictionaries of the project with the given ID asynchronously. They are built from
+     * the project and kept for ten minutes. A failed lookup is not cached: the callback receives null,
+     * so callers can report the failure rather than measure against no statuses at all, and the next
+     * call tries again.
+     *
+     * @param id       id of project.
+     * @param callback Consumer function to execute with the project's statuses, or null if they could
+     *                 not be fetched.
+     * @return void future which can be joined to wait for call to complete.
+     */
+    public CompletableFuture<Void> getProjectStatuses(int id, Consumer<ProjectStatuses> callback) {
+        CachedStatuses cached = statuses.get(id);
+        if (cached != null && System.nanoTime() - cached.fetchedAt < STATUSES_TIME_TO_LIVE.toNanos()) {
+            callback.accept(cached.statuses);
+            return CompletableFuture.completedFuture(null);
+        }
+        return getProject(id, result -> {
+            if (result == null || result.getStatus() != 200 || result.getContent() == null) {
+                logger.warning("Could not fetch the statuses of project " + id
+                        + (result == null ? "" : ", status " + result.getStatus()));
+                callback.accept(null);
+                return;
+            }
+            ProjectStatuses fetched = new ProjectStatuses(result.getContent());
+            statuses.put(id, new CachedStatuses(fetched, System.nanoTime()));
+            callback.accept(fetched);
+        });
+    }
+
     private void handleError(Throwable throwable) {
         logger.log(Level.SEVERE, "An error occurred during API call", throwable);
     }
+
+    private static class CachedStatuses {
+        private final ProjectStatuses statuses;
+        private final long fetchedAt;
+
+        private CachedStatuses(ProjectStatuses statuses, long fetchedAt) {
+            this.statuses = statuses;
+            this.fetchedAt = fetchedAt;
+        }
+    }
 }
\ No newline at end of file
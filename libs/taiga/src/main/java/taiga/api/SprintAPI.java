@@ -12,6 +12,18 @@ public class SprintAPI extends APIWrapperBase {
         super("milestones");
     }
 
+    /**
+     * Get the {@link Sprint}s matching a query asynchronously.
+     *
+     * @param query    filters to narrow the listing down server-side
+     * @param callback Consumer function to execute upon receiving query result.
+     * @return void future which can be joined to wait for call to complete.
+     */
+    public CompletableFuture<Void> listSprints(
+            TaigaQuery query, Consumer<APIResponse<Sprint[]>> callback) {
+        return queryAsync(query.toQuery(), Sprint[].class).thenAccept(callback);
+    }
+
     /**
      * Get a list of {@link Sprint} objects from a project asynchronously.
      *
@@ -21,7 +33,7 @@ public class SprintAPI extends APIWrapperBase {
      */
     public CompletableFuture<Void> listSprints(
             int project, Consumer<APIResponse<Sprint[]>> callback) {
-        return queryAsync("?project=" + project, Sprint[].class).thenAccept(callback);
+        return listSprints(TaigaQuery.create().project(project), callback);
     }
 
     /**
@@ -34,8 +46,7 @@ public class SprintAPI extends APIWrapperBase {
      */
     public CompletableFuture<Void> listSprints(
             int project, boolean closed, Consumer<APIResponse<Sprint[]>> callback) {
-        return queryAsync("?project=" + project + "&closed=" + closed, Sprint[].class)
-                .thenAccept(callback);
+        return listSprints(TaigaQuery.create().project(project).closed(closed), callback);
     }
 
     /**
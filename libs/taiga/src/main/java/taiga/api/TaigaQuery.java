@@ -0,0 +1,172 @@
+package taiga.api;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Query string for a Taiga listing endpoint. Parameters are kept sorted by name and their values
+ * encoded the same way every time, so two queries asking for the same thing are the same string.
+ * That string is what identical requests are coalesced and cached by in the API wrappers, so
+ * building queries here rather than by concatenation lets equivalent requests share one download.
+ * <p>
+ * Setting a parameter again replaces its value. Example:
+ *
+ * <pre>
+ *     TaigaQuery.create().project(12).modifiedSince(since).includeAttachments(false)
+ *     // ?include_attachments=false&amp;modified_date__gte=2024-02-01T09%3A00%3A00Z&amp;project=12
+ * </pre>
+ */
+public final class TaigaQuery {
+    private final TreeMap<String, String> parameters = new TreeMap<>();
+
+    private TaigaQuery() {
+    }
+
+    /**
+     * @return an empty query
+     */
+    public static TaigaQuery create() {
+        return new TaigaQuery();
+    }
+
+    public TaigaQuery project(int projectId) {
+        return param("project", projectId);
+    }
+
+    public TaigaQuery milestone(int milestoneId) {
+        return param("milestone", milestoneId);
+    }
+
+    public TaigaQuery userStory(int userStoryId) {
+        return param("user_story", userStoryId);
+    }
+
+    public TaigaQuery member(int userId) {
+        return param("member", userId);
+    }
+
+    public TaigaQuery ref(int ref) {
+        return param("ref", ref);
+    }
+
+    public TaigaQuery slug(String slug) {
+        return param("slug", slug);
+    }
+
+    /**
+     * Only sprints that are closed, or only open ones.
+     */
+    public TaigaQuery closed(boolean closed) {
+        return param("closed", closed);
+    }
+
+    /**
+     * Only items whose status is closed, or only those whose status is open.
+     */
+    public TaigaQuery statusIsClosed(boolean closed) {
+        return param("status__is_closed", closed);
+    }
+
+    /**
+     * Only items in no sprint at all, such as the backlog, or only items in some sprint.
+     */
+    public TaigaQuery milestoneIsNull(boolean isNull) {
+        return param("milestone__isnull", isNull);
+    }
+
+    /**
+     * Only items modified at or after the given instant.
+     */
+    public TaigaQuery modifiedSince(Instant since) {
+        return param("modified_date__gte", since);
+    }
+
+    public TaigaQuery modifiedSince(Date since) {
+        return modifiedSince(since.toInstant());
+    }
+
+    /**
+     * Whether Taiga should embed the attachments of every item in a listing. Leaving them out keeps
+     * listings of items with many attachments small.
+     */
+    public TaigaQuery includeAttachments(boolean include) {
+        return param("include_attachments", include);
+    }
+
+    /**
+     * Set any other Taiga filter. Prefer the typed setters where one exists.
+     *
+     * @param name  name of the parameter
+     * @param value value of the parameter, written with {@link String#valueOf(Object)}
+     * @return this query
+     */
+    public TaigaQuery param(String name, Object value) {
+        parameters.put(Objects.requireNonNull(name), String.valueOf(Objects.requireNonNull(value)));
+        return this;
+    }
+
+    /**
+     * @return the parameters set, sorted by name
+     */
+    public Map<String, String> getParameters() {
+        return Collections.unmodifiableMap(parameters);
+    }
+
+    /**
+     * Get the canonical form of this query, which is also its cache key: the query string with the
+     * parameters sorted by name and values URL-encoded.
+     *
+     * @param path path to put before the query string, such as "" or "/by_ref"
+     * @return the path followed by the query string, or just the path if no parameter is set
+     */
+    public String toQuery(String path) {
+        if (parameters.isEmpty()) {
+            return path;
+        }
+        StringBuilder query = new StringBuilder(path);
+        char separator = '?';
+        for (Map.Entry<String, String> parameter : parameters.entrySet()) {
+            query.append(separator)
+                    .append(URLEncoder.encode(parameter.getKey(), StandardCharsets.UTF_8))
+                    .append('=')
+                    .append(URLEncoder.encode(parameter.getValue(), StandardCharsets.UTF_8));
+            separator = '&';
+        }
+        return query.toString();
+    }
+
+    /**
+     * @return the canonical query string, see {@link #toQuery(String)}
+     */
+    public String toQuery() {
+        return toQuery("");
+    }
+
+    /**
+     * @return the canonical query string, see {@link #toQuery(String)}
+     */
+    public String getCacheKey() {
+        return toQuery();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof TaigaQuery && parameters.equals(((TaigaQuery) o).parameters);
+    }
+
+    @Override
+    public int hashCode() {
+        return parameters.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return getCacheKey();
+    }
+}
@@ -2,9 +2,14 @@ package taiga.api;
 
 import bostonhttp.api.APIResponse;
 import bostonhttp.api.APIWrapperBase;
+import bostonhttp.api.BulkOptions;
+import taiga.models.compact.CompactHistory;
 import taiga.models.taskhistory.ItemHistory;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 public class TaskHistoryAPI extends APIWrapperBase {
@@ -24,4 +29,70 @@ public class TaskHistoryAPI extends APIWrapperBase {
             int id, Consumer<APIResponse<ItemHistory[]>> callback) {
         return queryAsync("/" + id, ItemHistory[].class).thenAccept(callback);
     }
+
+    /**
+     * Get the history for the task with the given ID asynchronously, decoded straight into a
+     * {@link CompactHistory}. Use this when only the timestamps and status or sprint moves are needed.
+     *
+     * @param id       ID of the task.
+     * @param callback Consumer function to execute upon receiving query result.
+     * @return void future which can be joined to wait for call to complete.
+     */
+    public CompletableFuture<Void> getCompactTaskHistory(
+            int id, Consumer<APIResponse<CompactHistory>> callback) {
+        return queryAsync("/" + id, CompactHistory.class).thenAccept(callback);
+    }
+
+    /**
+     * Get the histories of many tasks with the default {@link BulkOptions}.
+     *
+     * @param ids IDs of the tasks.
+     * @return future of the histories that could be fetched, by task ID.
+     */
+    public CompletableFuture<Map<Integer, ItemHistory[]>> getTaskHistories(Collection<Integer> ids) {
+        return getTaskHistories(ids, BulkOptions.defaults());
+    }
+
+    /**
+     * Get the histories of many tasks, with at most {@link BulkOptions#getConcurrency()} requests in
+     * flight. Tasks whose history could not be fetched are missing from the result and reported to
+     * the error handler of the options.
+     *
+     * @param ids     IDs of the tasks.
+     * @param options concurrency, error handler and progress listener.
+     * @return future of the histories that could be fetched, by task ID.
+     */
+    public CompletableFuture<Map<Integer, ItemHistory[]>> getTaskHistories(
+            Collection<Integer> ids, BulkOptions options) {
+        return fetchAll(ids, id -> queryAsync("/" + id, ItemHistory[].class), options);
+    }
+
+    /**
+     * Get the histories of many tasks decoded into {@link CompactHistory}, see
+     * {@link #getTaskHistories(Collection, BulkOptions)}.
+     *
+     * @param ids     IDs of the tasks.
+     * @param options concurrency, error handler and progress listener.
+     * @return future of the histories that could be fetched, by task ID.
+     */
+    public CompletableFuture<Map<Integer, CompactHistory>> getCompactTaskHistories(
+            Collection<Integer> ids, BulkOptions options) {
+        return fetchAll(ids, id -> queryAsync("/" + id, CompactHistory.class), options);
+    }
+
+    /**
+     * Fetch the histories of many tasks decoded into {@link CompactHistory} and hand each one to a
+     * consumer as soon as it arrives, without collecting them. See
+     * {@link #getTaskHistories(Collection, BulkOptions)} for the options.
+     *
+     * @param ids      IDs of the tasks.
+     * @param options  concurrency, error handler and progress listener.
+     * @param consumer called with the task ID and history of every task whose history could be
+     *                 fetched, possibly from several threads at once.
+     * @return void future which completes once every task has finished.
+     */
+    public CompletableFuture<Void> forEachCompactTaskHistory(
+            Collection<Integer> ids, BulkOptions options, BiConsumer<Integer, CompactHistory> consumer) {
+        return forEachFetched(ids, id -> queryAsync("/" + id, CompactHistory.class), options, consumer);
+    }
 }
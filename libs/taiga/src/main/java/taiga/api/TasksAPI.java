@@ -2,9 +2,11 @@ package taiga.api;
 
 import bostonhttp.api.APIResponse;
 import bostonhttp.api.APIWrapperBase;
+import taiga.models.projections.TaskProjection;
 import taiga.models.tasks.Task;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
 import java.util.function.Consumer;
 
 public class TasksAPI extends APIWrapperBase {
@@ -13,6 +15,36 @@ public class TasksAPI extends APIWrapperBase {
     }
 
 
+    /**
+     * Get the tasks matching a query asynchronously, decoded into the given class. See
+     * {@link #listTasksByProject(int, Class, Consumer)}.
+     *
+     * @param query      filters to narrow the listing down server-side
+     * @param projection class to decode each task into
+     * @param callback   Consumer function to execute upon receiving query result.
+     * @param <T>        type of the decoded tasks
+     * @return void future which can be joined to wait for call to complete.
+     */
+    public <T> CompletableFuture<Void> listTasks(
+            TaigaQuery query, Class<T> projection, Consumer<APIResponse<T[]>> callback) {
+        return queryAsync(query.toQuery(), arrayOf(projection)).thenAccept(callback);
+    }
+
+    /**
+     * Get the tasks matching a query page by page asynchronously, decoded into the given class. See
+     * {@link #listTasksByProjectPaged(int, Consumer)}.
+     *
+     * @param query        filters to narrow the listing down server-side
+     * @param projection   class to decode each task into
+     * @param pageCallback Consumer function to execute for every page received.
+     * @param <T>          type of the decoded tasks
+     * @return void future which completes once every page has been delivered.
+     */
+    public <T> CompletableFuture<Void> listTasksPaged(
+            TaigaQuery query, Class<T> projection, Consumer<APIResponse<T[]>> pageCallback) {
+        return queryPagesAsync(query.toQuery(), arrayOf(projection), pageCallback);
+    }
+
     /**
      * Get a list of closed {@link Task}s from a project asynchronously.
      *
@@ -35,8 +67,7 @@ public class TasksAPI extends APIWrapperBase {
      */
     public CompletableFuture<Void> listTasksByProject(
             int project, boolean closed, Consumer<APIResponse<Task[]>> callback) {
-        return queryAsync("?project=" + project + "&status__is_closed=" + closed, Task[].class)
-                .thenAccept(callback);
+        return listTasks(TaigaQuery.create().project(project).statusIsClosed(closed), Task.class, callback);
     }
 
     /**
@@ -48,8 +79,62 @@ public class TasksAPI extends APIWrapperBase {
      */
     public CompletableFuture<Void> listTasksByProject(
             int project, Consumer<APIResponse<Task[]>> callback) {
-        return queryAsync("?project=" + project, Task[].class)
-                .thenAccept(callback);
+        return listTasksByProject(project, Task.class, callback);
+    }
+
+    /**
+     * Get the tasks of a project asynchronously, decoded into the given class. Passing a
+     * projection such as {@link TaskProjection} only keeps the fields it declares, the rest of
+     * every task is skipped while decoding.
+     *
+     * @param project    The project id to get tasks from
+     * @param projection class to decode each task into
+     * @param callback   Consumer function to execute upon receiving query result.
+     * @param <T>        type of the decoded tasks
+     * @return void future which can be joined to wait for call to complete.
+     */
+    public <T> CompletableFuture<Void> listTasksByProject(
+            int project, Class<T> projection, Consumer<APIResponse<T[]>> callback) {
+        return listTasks(TaigaQuery.create().project(project), projection, callback);
+    }
+
+    /**
+     * Get the {@link Task}s of a project page by page asynchronously. Pages are requested in
+     * parallel and handed to the callback as they arrive, possibly out of order and from several
+     * threads at once.
+     *
+     * @param project      The project id to get tasks from
+     * @param pageCallback Consumer function to execute for every page received.
+     * @return void future which completes once every page has been delivered.
+     */
+    public CompletableFuture<Void> listTasksByProjectPaged(
+            int project, Consumer<APIResponse<Task[]>> pageCallback) {
+        return listTasksByProjectPaged(project, Task.class, pageCallback);
+    }
+
+    /**
+     * Get the tasks of a project page by page asynchronously, decoded into the given class. See
+     * {@link #listTasksByProjectPaged(int, Consumer)} and {@link #listTasksByProject(int, Class, Consumer)}.
+     *
+     * @param project      The project id to get tasks from
+     * @param projection   class to decode each task into
+     * @param pageCallback Consumer function to execute for every page received.
+     * @param <T>          type of the decoded tasks
+     * @return void future which completes once every page has been delivered.
+     */
+    public <T> CompletableFuture<Void> listTasksByProjectPaged(
+            int project, Class<T> projection, Consumer<APIResponse<T[]>> pageCallback) {
+        return listTasksPaged(TaigaQuery.create().project(project), projection, pageCallback);
+    }
+
+    /**
+     * Publish the {@link Task}s of a project page by page as they arrive.
+     *
+     * @param project The project id to get tasks from
+     * @return publisher of task pages, requests are made when it is subscribed to.
+     */
+    public Flow.Publisher<Task[]> streamTasksByProject(int project) {
+        return publishPages(TaigaQuery.create().project(project).toQuery(), Task[].class);
     }
 
     /**
@@ -73,7 +158,22 @@ public class TasksAPI extends APIWrapperBase {
      */
     public CompletableFuture<Void> listTasksByMilestone(
             int milestone, Consumer<APIResponse<Task[]>> callback) {
-        return queryAsync("?milestone=" + milestone, Task[].class).thenAccept(callback);
+        return listTasksByMilestone(milestone, Task.class, callback);
+    }
+
+    /**
+     * Get the tasks of a milestone asynchronously, decoded into the given class. See
+     * {@link #listTasksByProject(int, Class, Consumer)}.
+     *
+     * @param milestone  The milestone id to get tasks from
+     * @param projection class to decode each task into
+     * @param callback   Consumer function to execute upon receiving query result.
+     * @param <T>        type of the decoded tasks
+     * @return void future which can be joined to wait for call to complete.
+     */
+    public <T> CompletableFuture<Void> listTasksByMilestone(
+            int milestone, Class<T> projection, Consumer<APIResponse<T[]>> callback) {
+        return listTasks(TaigaQuery.create().milestone(milestone), projection, callback);
     }
 
     /**
@@ -86,8 +186,7 @@ public class TasksAPI extends APIWrapperBase {
      */
     public CompletableFuture<Void> listTasksByMilestone(
             int milestone, boolean closed, Consumer<APIResponse<Task[]>> callback) {
-        return queryAsync("?milestone=" + milestone + "&status__is_closed=" + closed, Task[].class)
-                .thenAccept(callback);
+        return listTasks(TaigaQuery.create().milestone(milestone).statusIsClosed(closed), Task.class, callback);
     }
 
     /**
@@ -111,7 +210,7 @@ public class TasksAPI extends APIWrapperBase {
      */
     public CompletableFuture<Void> listTasksByUserStory(
             int userStory, Consumer<APIResponse<Task[]>> callback) {
-        return queryAsync("?user_story=" + userStory, Task[].class).thenAccept(callback);
+        return listTasks(TaigaQuery.create().userStory(userStory), Task.class, callback);
     }
 
     /**
@@ -124,7 +223,6 @@ public class TasksAPI extends APIWrapperBase {
      */
     public CompletableFuture<Void> listTasksByUserStory(
             int userStory, boolean closed, Consumer<APIResponse<Task[]>> callback) {
-        return queryAsync("?user_story=" + userStory + "&status__is_closed=" + closed, Task[].class)
-                .thenAccept(callback);
+        return listTasks(TaigaQuery.create().userStory(userStory).statusIsClosed(closed), Task.class, callback);
     }
 }
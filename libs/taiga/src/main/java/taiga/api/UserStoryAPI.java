@@ -3,10 +3,12 @@ package taiga.api;
 import bostonhttp.api.APIResponse;
 import bostonhttp.api.APIWrapperBase;
 import taiga.models.customattributes.UserStoryCustomAttributesValues;
+import taiga.models.projections.UserStoryProjection;
 import taiga.models.sprint.UserStoryDetail;
 import taiga.models.userstories.UserStory;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
 import java.util.function.Consumer;
 
 public class UserStoryAPI extends APIWrapperBase {
@@ -26,6 +28,36 @@ public class UserStoryAPI extends APIWrapperBase {
         return queryAsync("", UserStoryDetail[].class).thenAccept(callback);
     }
 
+    /**
+     * Lists the user stories matching a query asynchronously, decoded into the given class. See
+     * {@link #listProjectUserStories(int, Class, Consumer)}.
+     *
+     * @param query      filters to narrow the listing down server-side
+     * @param projection class to decode each user story into
+     * @param callback   Consumer function to execute upon receiving query result.
+     * @param <T>        type of the decoded user stories
+     * @return void future which can be joined to wait for call to complete.
+     */
+    public <T> CompletableFuture<Void> listUserStories(
+            TaigaQuery query, Class<T> projection, Consumer<APIResponse<T[]>> callback) {
+        return queryAsync(query.toQuery(), arrayOf(projection)).thenAccept(callback);
+    }
+
+    /**
+     * Lists the user stories matching a query page by page asynchronously, decoded into the given
+     * class. See {@link #listProjectUserStoriesPaged(int, Consumer)}.
+     *
+     * @param query        filters to narrow the listing down server-side
+     * @param projection   class to decode each user story into
+     * @param pageCallback Consumer function to execute for every page received.
+     * @param <T>          type of the decoded user stories
+     * @return void future which completes once every page has been delivered.
+     */
+    public <T> CompletableFuture<Void> listUserStoriesPaged(
+            TaigaQuery query, Class<T> projection, Consumer<APIResponse<T[]>> pageCallback) {
+        return queryPagesAsync(query.toQuery(), arrayOf(projection), pageCallback);
+    }
+
     /**
      * Lists the user stories for the given project asynchronously.
      *
@@ -35,7 +67,47 @@ public class UserStoryAPI extends APIWrapperBase {
      */
     public CompletableFuture<Void> listProjectUserStories(
             int projectId, Consumer<APIResponse<UserStoryDetail[]>> callback) {
-        return queryAsync("?project=" + projectId, UserStoryDetail[].class).thenAccept(callback);
+        return listProjectUserStories(projectId, UserStoryDetail.class, callback);
+    }
+
+    /**
+     * Lists the user stories for the given project asynchronously, decoded into the given class.
+     * Passing a projection such as {@link UserStoryProjection} only keeps the fields it declares,
+     * the rest of every story is skipped while decoding.
+     *
+     * @param projectId  project id
+     * @param projection class to decode each user story into
+     * @param callback   Consumer function to execute upon receiving query result.
+     * @param <T>        type of the decoded user stories
+     * @return void future which can be joined to wait for call to complete.
+     */
+    public <T> CompletableFuture<Void> listProjectUserStories(
+            int projectId, Class<T> projection, Consumer<APIResponse<T[]>> callback) {
+        return listUserStories(TaigaQuery.create().project(projectId), projection, callback);
+    }
+
+    /**
+     * Lists the user stories for the given project page by page asynchronously. Pages are requested
+     * in parallel and handed to the callback as they arrive, possibly out of order and from several
+     * threads at once.
+     *
+     * @param projectId    project id
+     * @param pageCallback Consumer function to execute for every page received.
+     * @return void future which completes once every page has been delivered.
+     */
+    public CompletableFuture<Void> listProjectUserStoriesPaged(
+            int projectId, Consumer<APIResponse<UserStoryDetail[]>> pageCallback) {
+        return listUserStoriesPaged(TaigaQuery.create().project(projectId), UserStoryDetail.class, pageCallback);
+    }
+
+    /**
+     * Publish the user stories for the given project page by page as they arrive.
+     *
+     * @param projectId project id
+     * @return publisher of user story pages, requests are made when it is subscribed to.
+     */
+    public Flow.Publisher<UserStoryDetail[]> streamProjectUserStories(int projectId) {
+        return publishPages(TaigaQuery.create().project(projectId).toQuery(), UserStoryDetail[].class);
     }
 
     /**
@@ -47,8 +119,22 @@ public class UserStoryAPI extends APIWrapperBase {
      */
     public CompletableFuture<Void> listMilestoneUserStories(
             int milestoneId, Consumer<APIResponse<UserStoryDetail[]>> callback) {
-        return queryAsync("?milestone=" + milestoneId, UserStoryDetail[].class)
-                .thenAccept(callback);
+        return listMilestoneUserStories(milestoneId, UserStoryDetail.class, callback);
+    }
+
+    /**
+     * Lists the user stories for the given milestone asynchronously, decoded into the given class.
+     * See {@link #listProjectUserStories(int, Class, Consumer)}.
+     *
+     * @param milestoneId milestone id
+     * @param projection  class to decode each user story into
+     * @param callback    Consumer function to execute upon receiving query result.
+     * @param <T>         type of the decoded user stories
+     * @return void future which can be joined to wait for call to complete.
+     */
+    public <T> CompletableFuture<Void> listMilestoneUserStories(
+            int milestoneId, Class<T> projection, Consumer<APIResponse<T[]>> callback) {
+        return listUserStories(TaigaQuery.create().milestone(milestoneId), projection, callback);
     }
 
     /**
@@ -73,8 +159,7 @@ public class UserStoryAPI extends APIWrapperBase {
      */
     public CompletableFuture<Void> getUserStoryByRef(
             int userStoryRef, int projectId, Consumer<APIResponse<UserStoryDetail>> callback) {
-        return queryAsync(
-                "/by_ref?ref=" + userStoryRef + "&project=" + projectId,
+        return queryAsync(TaigaQuery.create().ref(userStoryRef).project(projectId).toQuery("/by_ref"),
                 UserStoryDetail.class)
                 .thenAccept(callback);
     }
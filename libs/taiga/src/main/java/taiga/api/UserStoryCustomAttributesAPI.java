@@ -4,10 +4,24 @@ import bostonhttp.api.APIResponse;
 import bostonhttp.api.APIWrapperBase;
 import taiga.models.customattributes.UserStoryCustomAttribute;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
 public class UserStoryCustomAttributesAPI extends APIWrapperBase {
+    /**
+     * Name of the custom attribute holding the business value. Taiga has no business value field of
+     * its own, so projects track it in a user story custom attribute with this name.
+     */
+    public static final String BUSINESS_VALUE_ATTRIBUTE = "BV";
+
+    private static final Duration ATTRIBUTE_TIME_TO_LIVE = Duration.ofMinutes(10);
+
+    private final Map<Integer, CachedAttribute> businessValueAttributes = new ConcurrentHashMap<>();
 
     public UserStoryCustomAttributesAPI() {
         super("userstory-custom-attributes");
@@ -21,7 +35,44 @@ public class UserStoryCustomAttributesAPI extends APIWrapperBase {
      */
     public CompletableFuture<Void> getUserStoryCustomAttributeList(int project,
                                                                    Consumer<APIResponse<UserStoryCustomAttribute[]>> callback) {
-        return queryAsync("?project=" + project, UserStoryCustomAttribute[].class).thenAccept(callback);
+        return queryAsync(TaigaQuery.create().project(project).toQuery(), UserStoryCustomAttribute[].class).thenAccept(callback);
+    }
+
+    /**
+     * Get the custom attribute holding the business value in a project. The attribute definition,
+     * or that the project has none, is remembered for ten minutes; a failed lookup is not remembered.
+     *
+     * @param project  id of the project.
+     * @param callback Consumer function given the attribute, or null if the project has none.
+     * @return void future which can be joined to wait for call to complete.
+     */
+    public CompletableFuture<Void> getBusinessValueAttribute(int project,
+                                                             Consumer<UserStoryCustomAttribute> callback) {
+        CachedAttribute cached = businessValueAttributes.get(project);
+        if (cached != null && System.nanoTime() - cached.fetchedAt < ATTRIBUTE_TIME_TO_LIVE.toNanos()) {
+            callback.accept(cached.attribute.orElse(null));
+            return CompletableFuture.completedFuture(null);
+        }
+        return getUserStoryCustomAttributeList(project, result -> {
+            if (result == null || result.getStatus() != 200 || result.getContent() == null) {
+                callback.accept(null);
+                return;
+            }
+            Optional<UserStoryCustomAttribute> attribute = Arrays.stream(result.getContent())
+                    .filter(a -> BUSINESS_VALUE_ATTRIBUTE.equals(a.getName()))
+                    .findFirst();
+            businessValueAttributes.put(project, new CachedAttribute(attribute, System.nanoTime()));
+            callback.accept(attribute.orElse(null));
+        });
     }
 
+    private static class CachedAttribute {
+        private final Optional<UserStoryCustomAttribute> attribute;
+        private final long fetchedAt;
+
+        private CachedAttribute(Optional<UserStoryCustomAttribute> attribute, long fetchedAt) {
+            this.attribute = attribute;
+            this.fetchedAt = fetchedAt;
+        }
+    }
 }
@@ -2,8 +2,11 @@ package taiga.api;
 
 import bostonhttp.api.APIResponse;
 import bostonhttp.api.APIWrapperBase;
+import bostonhttp.api.BulkOptions;
 import taiga.models.customattributes.UserStoryCustomAttributesValues;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
@@ -24,4 +27,17 @@ public class UserStoryCustomAttributesValuesAPI extends APIWrapperBase {
         return queryAsync(customAttributeId.toString(), UserStoryCustomAttributesValues.class).thenAccept(callback);
     }
 
+    /**
+     * Retrieves the custom attribute values of many user stories, with at most
+     * {@link BulkOptions#getConcurrency()} requests in flight. Stories whose values could not be
+     * fetched are missing from the result and reported to the error handler of the options.
+     *
+     * @param userStoryIds IDs of the user stories.
+     * @param options      concurrency, error handler and progress listener.
+     * @return future of the values that could be fetched, by user story ID.
+     */
+    public CompletableFuture<Map<Integer, UserStoryCustomAttributesValues>> getUserStoryCustomAttributeValues(
+            Collection<Integer> userStoryIds, BulkOptions options) {
+        return fetchAll(userStoryIds, id -> queryAsync(Integer.toString(id), UserStoryCustomAttributesValues.class), options);
+    }
 }
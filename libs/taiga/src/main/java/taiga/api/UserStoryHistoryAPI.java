@@ -2,16 +2,51 @@ package taiga.api;
 
 import bostonhttp.api.APIResponse;
 import bostonhttp.api.APIWrapperBase;
+import bostonhttp.api.BulkOptions;
+import bostonhttp.util.Deadline;
+import taiga.models.compact.CompactHistory;
+import taiga.models.history.History;
+import taiga.models.history.HistoryEntries;
 import taiga.models.taskhistory.ItemHistory;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
+/**
+ * The one fetch path for user story history. Each story's history is downloaded once as
+ * {@link HistoryEntries} and cached by story id; the {@link ItemHistory}, {@link History} and
+ * {@link CompactHistory} methods are views decoded from that cached copy. Concurrent requests for the
+ * same story share one download, and failed downloads are not cached. The download is not bound by
+ * any caller's {@link Deadline}; each caller's deadline only bounds its own wait for it.
+ */
 public class UserStoryHistoryAPI extends APIWrapperBase {
+    private static final int MAX_CACHED_STORIES = 4096;
+
+    private final Map<Integer, CachedHistory> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, CachedHistory> eldest) {
+            return size() > MAX_CACHED_STORIES;
+        }
+    };
+    private volatile Duration timeToLive = Duration.ofMinutes(1);
+
     public UserStoryHistoryAPI() {
         super("history/userstory");
     }
 
+    /**
+     * Histories are cached here, by story, so they are kept out of the shared response cache.
+     */
+    @Override
+    protected boolean isResponseCacheable() {
+        return false;
+    }
+
     /**
      * Get the history for the User story with the given ID asynchronously.
      *
@@ -21,6 +56,171 @@ public class UserStoryHistoryAPI extends APIWrapperBase {
      */
     public CompletableFuture<Void> getUserStoryHistory(
             int id, Consumer<APIResponse<ItemHistory[]>> callback) {
-        return queryAsync("/" + id, ItemHistory[].class).thenAccept(callback);
+        return getView(id, HistoryEntries::asItemHistory, callback);
+    }
+
+    /**
+     * Get the history for the user story with the given ID asynchronously, decoded into the
+     * {@link History} model with the full diff and values.
+     *
+     * @param id       ID of the user story.
+     * @param callback Consumer function to execute upon receiving query result.
+     * @return void future which can be joined to wait for call to complete.
+     */
+    public CompletableFuture<Void> getDetailedUserStoryHistory(
+            int id, Consumer<APIResponse<History[]>> callback) {
+        return getView(id, HistoryEntries::asHistory, callback);
+    }
+
+    /**
+     * Get the history for the user story with the given ID asynchronously, decoded straight into a
+     * {@link CompactHistory}. Use this when only the timestamps and status or sprint moves are needed.
+     *
+     * @param id       ID of the user story.
+     * @param callback Consumer function to execute upon receiving query result.
+     * @return void future which can be joined to wait for call to complete.
+     */
+    public CompletableFuture<Void> getCompactUserStoryHistory(
+            int id, Consumer<APIResponse<CompactHistory>> callback) {
+        return getView(id, HistoryEntries::asCompactHistory, callback);
+    }
+
+    /**
+     * Get the histories of many user stories, with at most {@link BulkOptions#getConcurrency()}
+     * requests in flight. Stories whose history could not be fetched are missing from the result and
+     * reported to the error handler of the options. Histories already in the cache are not fetched
+     * again.
+     *
+     * @param ids     IDs of the user stories.
+     * @param options concurrency, error handler and progress listener.
+     * @return future of the histories that could be fetched, by user story ID.
+     */
+    public CompletableFuture<Map<Integer, ItemHistory[]>> getUserStoryHistories(
+            Collection<Integer> ids, BulkOptions options) {
+        return getViews(ids, HistoryEntries::asItemHistory, options);
+    }
+
+    /**
+     * Get the histories of many user stories decoded into the {@link History} model, see
+     * {@link #getUserStoryHistories(Collection, BulkOptions)}.
+     *
+     * @param ids     IDs of the user stories.
+     * @param options concurrency, error handler and progress listener.
+     * @return future of the histories that could be fetched, by user story ID.
+     */
+    public CompletableFuture<Map<Integer, History[]>> getDetailedUserStoryHistories(
+            Collection<Integer> ids, BulkOptions options) {
+        return getViews(ids, HistoryEntries::asHistory, options);
+    }
+
+    /**
+     * Get the histories of many user stories decoded into {@link CompactHistory}, see
+     * {@link #getUserStoryHistories(Collection, BulkOptions)}.
+     *
+     * @param ids     IDs of the user stories.
+     * @param options concurrency, error handler and progress listener.
+     * @return future of the histories that could be fetched, by user story ID.
+     */
+    public CompletableFuture<Map<Integer, CompactHistory>> getCompactUserStoryHistories(
+            Collection<Integer> ids, BulkOptions options) {
+        return getViews(ids, HistoryEntries::asCompactHistory, options);
+    }
+
+    /**
+     * Get the history for the user story with the given ID as Taiga sent it, from the cache when a
+     * fresh copy is held.
+     *
+     * @param id ID of the user story.
+     * @return future of the response
+     */
+    public CompletableFuture<APIResponse<HistoryEntries>> getHistoryEntries(int id) {
+        Deadline deadline = Deadline.current();
+        if (deadline != null && deadline.isExpired()) {
+            return CompletableFuture.failedFuture(deadline.exceeded());
+        }
+        long now = System.nanoTime();
+        CompletableFuture<APIResponse<HistoryEntries>> future;
+        synchronized (cache) {
+            CachedHistory cached = cache.get(id);
+            if (cached != null && now - cached.fetchedAt < timeToLive.toNanos()) {
+                return forCaller(cached.response, deadline);
+            }
+            // the cached download is shared, so it must outlive the deadline of whoever started it
+            Deadline.setCurrent(null);
+            try {
+                future = queryAsync("/" + id, HistoryEntries.class);
+            } finally {
+                Deadline.setCurrent(deadline);
+            }
+            cache.put(id, new CachedHistory(future, now));
+        }
+        future.whenComplete((response, throwable) -> {
+            if (throwable != null || response == null || response.getStatus() != 200) {
+                invalidate(id, future);
+            }
+        });
+        return forCaller(future, deadline);
+    }
+
+    /**
+     * Drop the cached history of a user story, so the next request downloads it again.
+     *
+     * @param id ID of the user story.
+     */
+    public void invalidate(int id) {
+        synchronized (cache) {
+            cache.remove(id);
+        }
+    }
+
+    public void clearCache() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Set how long a downloaded history is served from the cache before it is fetched again.
+     *
+     * @param timeToLive the new lifetime; zero disables caching
+     */
+    public void setTimeToLive(Duration timeToLive) {
+        this.timeToLive = timeToLive;
+    }
+
+    private <T> CompletableFuture<Void> getView(
+            int id, Function<HistoryEntries, T> view, Consumer<APIResponse<T>> callback) {
+        return decode(id, view).thenAccept(callback);
+    }
+
+    private <T> CompletableFuture<Map<Integer, T>> getViews(
+            Collection<Integer> ids, Function<HistoryEntries, T> view, BulkOptions options) {
+        return fetchAll(ids, id -> decode(id, view), options);
+    }
+
+    private <T> CompletableFuture<APIResponse<T>> decode(int id, Function<HistoryEntries, T> view) {
+        return getHistoryEntries(id).thenApply(response -> response == null
+                ? new APIResponse<>(500, null)
+                : new APIResponse<>(response.getStatus(),
+                        response.getContent() == null ? null : view.apply(response.getContent())));
+    }
+
+    private void invalidate(int id, CompletableFuture<APIResponse<HistoryEntries>> future) {
+        synchronized (cache) {
+            CachedHistory cached = cache.get(id);
+            if (cached != null && cached.response == future) {
+                cache.remove(id);
+            }
+        }
+    }
+
+    private static class CachedHistory {
+        private final CompletableFuture<APIResponse<HistoryEntries>> response;
+        private final long fetchedAt;
+
+        private CachedHistory(CompletableFuture<APIResponse<HistoryEntries>> response, long fetchedAt) {
+            this.response = response;
+            this.fetchedAt = fetchedAt;
+        }
     }
 }
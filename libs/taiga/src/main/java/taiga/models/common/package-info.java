@@ -0,0 +1,4 @@
+@GenerateTypeAdapters
+package taiga.models.common;
+
+import adaptergen.GenerateTypeAdapters;
@@ -0,0 +1,110 @@
+package taiga.models.compact;
+
+/**
+ * Business value by user story id, held in two primitive arrays with open addressing so a sprint's
+ * worth of values costs no boxing. Stories without a value read as 0, the same as a story whose
+ * business value was left blank in Taiga.
+ */
+public final class BusinessValues {
+    private static final int FREE = 0;
+
+    private int[] keys;
+    private double[] values;
+    private int size;
+    // story ids are positive, so 0 marks a free slot and a story with id 0 is kept aside
+    private boolean hasZero;
+    private double zeroValue;
+
+    public BusinessValues() {
+        this(16);
+    }
+
+    public BusinessValues(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        keys = new int[capacity];
+        values = new double[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean containsKey(int storyId) {
+        if (storyId == FREE) {
+            return hasZero;
+        }
+        return keys[slot(keys, storyId)] == storyId;
+    }
+
+    /**
+     * @param storyId id of the user story
+     * @return the business value of the story, 0 if it has none
+     */
+    public double get(int storyId) {
+        if (storyId == FREE) {
+            return hasZero ? zeroValue : 0;
+        }
+        int slot = slot(keys, storyId);
+        return keys[slot] == storyId ? values[slot] : 0;
+    }
+
+    public void put(int storyId, double value) {
+        if (storyId == FREE) {
+            if (!hasZero) {
+                hasZero = true;
+                size++;
+            }
+            zeroValue = value;
+            return;
+        }
+        int slot = slot(keys, storyId);
+        if (keys[slot] != storyId) {
+            keys[slot] = storyId;
+            size++;
+        }
+        values[slot] = value;
+        if (size * 2 > keys.length) {
+            grow();
+        }
+    }
+
+    /**
+     * @return the sum of every value held
+     */
+    public double total() {
+        double total = hasZero ? zeroValue : 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE) {
+                total += values[i];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Find the slot holding the key, or the free slot where it would go.
+     */
+    private static int slot(int[] keys, int key) {
+        int mask = keys.length - 1;
+        int hash = key * 0x9E3779B9;
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        while (keys[slot] != FREE && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        double[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new double[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                int slot = slot(keys, oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package taiga.models.compact;
+
+import com.google.gson.annotations.JsonAdapter;
+
+import java.util.Date;
+
+/**
+ * The history of one task or user story, reduced to the columns the metrics read: when each entry was
+ * made, the status it moved to (by Taiga id and by name), and the sprint it moved to. Entries are sorted
+ * oldest first. Built straight from the history JSON by {@link CompactHistoryTypeAdapter}, so the full
+ * entry objects (user, diff, values) are never materialised. {@link StatusDictionary} turns the status
+ * columns into project status codes.
+ */
+@JsonAdapter(CompactHistoryTypeAdapter.class)
+public final class CompactHistory {
+    /**
+     * Status or milestone value of an entry that did not change it.
+     */
+    public static final int NONE = -1;
+
+    /**
+     * Milestone value of an entry that removed the item from its sprint.
+     */
+    public static final int NO_MILESTONE = 0;
+
+    /**
+     * Milestone value of an entry that moved the item into a sprint whose id was not reported.
+     */
+    public static final int UNKNOWN_MILESTONE = Integer.MAX_VALUE;
+
+    static final byte VALUES_DIFF = 1;
+    static final byte ASSIGNEE_CHANGED = 2;
+
+    private final long[] times;
+    private final int[] statusIds;
+    private final int[] statuses;
+    private final int[] milestones;
+    private final byte[] flags;
+
+    CompactHistory(long[] times, int[] statusIds, int[] statuses, int[] milestones, byte[] flags) {
+        this.times = times;
+        this.statusIds = statusIds;
+        this.statuses = statuses;
+        this.milestones = milestones;
+        this.flags = flags;
+    }
+
+    /**
+     * @return the number of history entries
+     */
+    public int size() {
+        return times.length;
+    }
+
+    /**
+     * @param index entry index
+     * @return when the entry was made, in epoch milliseconds
+     */
+    public long getTime(int index) {
+        return times[index];
+    }
+
+    /**
+     * @param index entry index
+     * @return when the entry was made
+     */
+    public Date getCreatedAt(int index) {
+        return new Date(times[index]);
+    }
+
+    /**
+     * @param index entry index
+     * @return the Taiga id of the status the entry moved to, or {@link #NONE} if the entry did not
+     * report one
+     */
+    public int getStatusId(int index) {
+        return statusIds[index];
+    }
+
+    /**
+     * @param index entry index
+     * @return the {@link StatusNames} code of the status the entry moved to, or {@link #NONE}
+     */
+    public int getStatus(int index) {
+        return statuses[index];
+    }
+
+    /**
+     * @param index entry index
+     * @return the name of the status the entry moved to, or null if it did not change status
+     */
+    public String getStatusName(int index) {
+        int status = statuses[index];
+        return status == NONE ? null : StatusNames.name(status);
+    }
+
+    public boolean hasStatusChange(int index) {
+        return statusIds[index] != NONE || statuses[index] != NONE;
+    }
+
+    /**
+     * @param index entry index
+     * @return the id of the sprint the entry moved to, {@link #NO_MILESTONE}, {@link #UNKNOWN_MILESTONE},
+     * or {@link #NONE} if it did not change sprint
+     */
+    public int getMilestone(int index) {
+        return milestones[index];
+    }
+
+    public boolean hasMilestoneChange(int index) {
+        return milestones[index] != NONE;
+    }
+
+    public boolean hasAssigneeChange(int index) {
+        return (flags[index] & ASSIGNEE_CHANGED) != 0;
+    }
+
+    /**
+     * @param index entry index
+     * @return whether the entry carried a values_diff (every change does; some comment entries do not)
+     */
+    public boolean hasValuesDiff(int index) {
+        return (flags[index] & VALUES_DIFF) != 0;
+    }
+
+    /**
+     * @return the index of the first entry that changed status, or -1 if none did
+     */
+    public int firstStatusChange() {
+        for (int i = 0; i < times.length; i++) {
+            if (hasStatusChange(i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,307 @@
+package taiga.models.compact;
+
+import bostonhttp.util.IsoDateAdapter;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Reads a Taiga history response (an array of entries) into a {@link CompactHistory}. Only
+ * {@code created_at}, the {@code status} and {@code milestone} keys of {@code diff}, and the {@code status}, {@code milestone} and
+ * {@code assigned_to} keys of {@code values_diff} are kept; everything else is skipped in the stream.
+ */
+public class CompactHistoryTypeAdapter extends TypeAdapter<CompactHistory> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    @Override
+    public CompactHistory read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        long[] times = new long[INITIAL_CAPACITY];
+        int[] statusIds = new int[INITIAL_CAPACITY];
+        int[] statuses = new int[INITIAL_CAPACITY];
+        int[] milestones = new int[INITIAL_CAPACITY];
+        byte[] flags = new byte[INITIAL_CAPACITY];
+        int size = 0;
+        Entry entry = new Entry();
+
+        in.beginArray();
+        while (in.hasNext()) {
+            if (in.peek() != JsonToken.BEGIN_OBJECT) {
+                in.skipValue();
+                continue;
+            }
+            readEntry(in, entry);
+            if (entry.time == Long.MIN_VALUE) {
+                continue;
+            }
+            if (size == times.length) {
+                times = Arrays.copyOf(times, size * 2);
+                statusIds = Arrays.copyOf(statusIds, size * 2);
+                statuses = Arrays.copyOf(statuses, size * 2);
+                milestones = Arrays.copyOf(milestones, size * 2);
+                flags = Arrays.copyOf(flags, size * 2);
+            }
+            times[size] = entry.time;
+            statusIds[size] = entry.statusId;
+            statuses[size] = entry.status;
+            milestones[size] = entry.diffMilestone != CompactHistory.NONE ? entry.diffMilestone : entry.valuesMilestone;
+            flags[size] = entry.flags;
+            size++;
+        }
+        in.endArray();
+
+        times = Arrays.copyOf(times, size);
+        statusIds = Arrays.copyOf(statusIds, size);
+        statuses = Arrays.copyOf(statuses, size);
+        milestones = Arrays.copyOf(milestones, size);
+        flags = Arrays.copyOf(flags, size);
+        sortByTime(times, statusIds, statuses, milestones, flags);
+        return new CompactHistory(times, statusIds, statuses, milestones, flags);
+    }
+
+    @Override
+    public void write(JsonWriter out, CompactHistory history) throws IOException {
+        if (history == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginArray();
+        for (int i = 0; i < history.size(); i++) {
+            out.beginObject();
+            out.name("created_at").value(Instant.ofEpochMilli(history.getTime(i)).toString());
+            int statusId = history.getStatusId(i);
+            int milestone = history.getMilestone(i);
+            boolean knownMilestone = milestone != CompactHistory.NONE && milestone != CompactHistory.UNKNOWN_MILESTONE;
+            if (statusId != CompactHistory.NONE || knownMilestone) {
+                out.name("diff").beginObject();
+                if (statusId != CompactHistory.NONE) {
+                    out.name("status").beginArray().nullValue().value(statusId).endArray();
+                }
+                if (knownMilestone) {
+                    out.name("milestone").beginArray().nullValue();
+                    if (milestone == CompactHistory.NO_MILESTONE) {
+                        out.nullValue();
+                    } else {
+                        out.value(milestone);
+                    }
+                    out.endArray();
+                }
+                out.endObject();
+            }
+            if (history.hasValuesDiff(i)) {
+                out.name("values_diff").beginObject();
+                if (history.getStatus(i) != CompactHistory.NONE) {
+                    out.name("status").beginArray().nullValue().value(history.getStatusName(i)).endArray();
+                }
+                if (milestone == CompactHistory.UNKNOWN_MILESTONE) {
+                    out.name("milestone").beginArray().nullValue().value("").endArray();
+                }
+                if (history.hasAssigneeChange(i)) {
+                    out.name("assigned_to").beginArray().nullValue().nullValue().endArray();
+                }
+                out.endObject();
+            }
+            out.endObject();
+        }
+        out.endArray();
+    }
+
+    private static void readEntry(JsonReader in, Entry entry) throws IOException {
+        entry.reset();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "created_at":
+                    if (in.peek() == JsonToken.NULL) {
+                        in.nextNull();
+                    } else {
+                        entry.time = IsoDateAdapter.parseMillis(in.nextString());
+                    }
+                    break;
+                case "diff":
+                    readDiff(in, entry);
+                    break;
+                case "values_diff":
+                    readValuesDiff(in, entry);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+    }
+
+    private static void readDiff(JsonReader in, Entry entry) throws IOException {
+        if (in.peek() != JsonToken.BEGIN_OBJECT) {
+            in.skipValue();
+            return;
+        }
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() != JsonToken.BEGIN_ARRAY) {
+                in.skipValue();
+            } else if (name.equals("milestone")) {
+                String to = readTarget(in);
+                entry.diffMilestone = to == null
+                        ? CompactHistory.NO_MILESTONE
+                        : parseId(to, CompactHistory.UNKNOWN_MILESTONE);
+            } else if (name.equals("status")) {
+                // an id that is not a number is no id, the status is then found by its name
+                String to = readTarget(in);
+                entry.statusId = to == null ? CompactHistory.NONE : parseId(to, CompactHistory.NONE);
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+    }
+
+    private static void readValuesDiff(JsonReader in, Entry entry) throws IOException {
+        if (in.peek() != JsonToken.BEGIN_OBJECT) {
+            in.skipValue();
+            return;
+        }
+        entry.flags |= CompactHistory.VALUES_DIFF;
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() != JsonToken.BEGIN_ARRAY) {
+                in.skipValue();
+                continue;
+            }
+            switch (name) {
+                case "status": {
+                    String to = readTarget(in);
+                    if (to != null) {
+                        entry.status = StatusNames.code(to);
+                    }
+                    break;
+                }
+                case "milestone":
+                    entry.valuesMilestone = readTarget(in) == null
+                            ? CompactHistory.NO_MILESTONE
+                            : CompactHistory.UNKNOWN_MILESTONE;
+                    break;
+                case "assigned_to":
+                    entry.flags |= CompactHistory.ASSIGNEE_CHANGED;
+                    in.skipValue();
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+    }
+
+    /**
+     * Read a {@code [from, to]} pair and return {@code to} as text.
+     */
+    private static String readTarget(JsonReader in) throws IOException {
+        String to = null;
+        in.beginArray();
+        int index = 0;
+        while (in.hasNext()) {
+            if (index++ != 1) {
+                in.skipValue();
+                continue;
+            }
+            JsonToken token = in.peek();
+            if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
+                to = in.nextString();
+            } else if (token == JsonToken.BOOLEAN) {
+                to = Boolean.toString(in.nextBoolean());
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endArray();
+        return to;
+    }
+
+    /**
+     * @param unknown what to return if the id is not a number
+     */
+    private static int parseId(String id, int unknown) {
+        try {
+            return Integer.parseInt(id);
+        } catch (NumberFormatException e) {
+            return unknown;
+        }
+    }
+
+    /**
+     * Taiga lists history newest first, so the common case is a reversal. Anything else is insertion
+     * sorted, which is cheap for the tens of entries an item has.
+     */
+    private static void sortByTime(long[] times, int[] statusIds, int[] statuses, int[] milestones, byte[] flags) {
+        boolean ascending = true;
+        boolean descending = true;
+        for (int i = 1; i < times.length; i++) {
+            ascending &= times[i - 1] <= times[i];
+            descending &= times[i - 1] >= times[i];
+        }
+        if (ascending) {
+            return;
+        }
+        if (descending) {
+            for (int i = 0, j = times.length - 1; i < j; i++, j--) {
+                swap(times, statusIds, statuses, milestones, flags, i, j);
+            }
+            return;
+        }
+        for (int i = 1; i < times.length; i++) {
+            for (int j = i; j > 0 && times[j - 1] > times[j]; j--) {
+                swap(times, statusIds, statuses, milestones, flags, j - 1, j);
+            }
+        }
+    }
+
+    private static void swap(long[] times, int[] statusIds, int[] statuses, int[] milestones, byte[] flags, int i, int j) {
+        long time = times[i];
+        times[i] = times[j];
+        times[j] = time;
+        int statusId = statusIds[i];
+        statusIds[i] = statusIds[j];
+        statusIds[j] = statusId;
+        int status = statuses[i];
+        statuses[i] = statuses[j];
+        statuses[j] = status;
+        int milestone = milestones[i];
+        milestones[i] = milestones[j];
+        milestones[j] = milestone;
+        byte flag = flags[i];
+        flags[i] = flags[j];
+        flags[j] = flag;
+    }
+
+    /**
+     * The columns of the entry being read, reused across entries.
+     */
+    private static class Entry {
+        private long time;
+        private int statusId;
+        private int status;
+        private int diffMilestone;
+        private int valuesMilestone;
+        private byte flags;
+
+        private void reset() {
+            time = Long.MIN_VALUE;
+            statusId = CompactHistory.NONE;
+            status = CompactHistory.NONE;
+            diffMilestone = CompactHistory.NONE;
+            valuesMilestone = CompactHistory.NONE;
+            flags = 0;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package taiga.models.compact;
+
+import taiga.models.project.Project;
+
+/**
+ * The task and user story {@link StatusDictionary}s of one project.
+ */
+public final class ProjectStatuses {
+    public static final ProjectStatuses EMPTY = new ProjectStatuses(StatusDictionary.EMPTY, StatusDictionary.EMPTY);
+
+    private final StatusDictionary taskStatuses;
+    private final StatusDictionary userStoryStatuses;
+
+    public ProjectStatuses(Project project) {
+        this(StatusDictionary.of(project.getTaskStatuses()), StatusDictionary.of(project.getUsStatuses()));
+    }
+
+    private ProjectStatuses(StatusDictionary taskStatuses, StatusDictionary userStoryStatuses) {
+        this.taskStatuses = taskStatuses;
+        this.userStoryStatuses = userStoryStatuses;
+    }
+
+    public StatusDictionary getTaskStatuses() {
+        return taskStatuses;
+    }
+
+    public StatusDictionary getUserStoryStatuses() {
+        return userStoryStatuses;
+    }
+}
@@ -0,0 +1,12 @@
+package taiga.models.compact;
+
+/**
+ * What a status means for the metrics, independent of what the project calls it.
+ */
+public enum StatusCategory {
+    NEW,
+    IN_PROGRESS,
+    TEST,
+    DONE,
+    CLOSED
+}
@@ -0,0 +1,193 @@
+package taiga.models.compact;
+
+import taiga.models.project.ProjectStatus;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Locale;
+
+/**
+ * The statuses of one kind (tasks or user stories) in one project, numbered 0..n-1 in board order
+ * and each given a {@link StatusCategory}. Calculators compare these codes and categories instead of
+ * status names, so a project that renamed its statuses is still measured correctly.
+ * <p>
+ * Categories come from the board: the first status is {@link StatusCategory#NEW}, the first closed
+ * status is {@link StatusCategory#DONE} and later closed ones are {@link StatusCategory#CLOSED}. Open
+ * statuses whose name mentions "test" are {@link StatusCategory#TEST}; the rest are
+ * {@link StatusCategory#IN_PROGRESS}.
+ */
+public final class StatusDictionary {
+    public static final StatusDictionary EMPTY = new StatusDictionary(new ProjectStatus[0]);
+
+    private static final int UNRESOLVED = -2;
+
+    private final int[] ids;
+    private final String[] names;
+    private final StatusCategory[] categories;
+
+    /**
+     * Project codes by {@link StatusNames} code, filled in as history entries without a status id
+     * are looked up.
+     */
+    private volatile int[] codesByName = new int[0];
+
+    private StatusDictionary(ProjectStatus[] statuses) {
+        ProjectStatus[] sorted = Arrays.stream(statuses)
+                .filter(s -> s.getId() != null && s.getName() != null)
+                .sorted(Comparator.comparing(s -> s.getOrder() == null ? Integer.MAX_VALUE : s.getOrder()))
+                .toArray(ProjectStatus[]::new);
+        ids = new int[sorted.length];
+        names = new String[sorted.length];
+        categories = new StatusCategory[sorted.length];
+        boolean seenDone = false;
+        for (int code = 0; code < sorted.length; code++) {
+            ProjectStatus status = sorted[code];
+            ids[code] = status.getId();
+            names[code] = status.getName();
+            if (Boolean.TRUE.equals(status.getIsClosed())) {
+                categories[code] = seenDone ? StatusCategory.CLOSED : StatusCategory.DONE;
+                seenDone = true;
+            } else if (code == 0) {
+                categories[code] = StatusCategory.NEW;
+            } else if (status.getName().toLowerCase(Locale.ROOT).contains("test")) {
+                categories[code] = StatusCategory.TEST;
+            } else {
+                categories[code] = StatusCategory.IN_PROGRESS;
+            }
+        }
+    }
+
+    /**
+     * Build the dictionary for a project's status list.
+     *
+     * @param statuses the statuses, in any order; null gives an empty dictionary
+     * @return the dictionary
+     */
+    public static StatusDictionary of(ProjectStatus[] statuses) {
+        return statuses == null ? EMPTY : new StatusDictionary(statuses);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * @param statusId a Taiga status id
+     * @return the code of the status, or {@link CompactHistory#NONE} if it is not in this project
+     */
+    public int code(Integer statusId) {
+        if (statusId == null) {
+            return CompactHistory.NONE;
+        }
+        for (int code = 0; code < ids.length; code++) {
+            if (ids[code] == statusId) {
+                return code;
+            }
+        }
+        return CompactHistory.NONE;
+    }
+
+    /**
+     * @param name a status name, matched ignoring case
+     * @return the code of the status, or {@link CompactHistory#NONE} if it is not in this project
+     */
+    public int code(String name) {
+        for (int code = 0; code < names.length; code++) {
+            if (names[code].equalsIgnoreCase(name)) {
+                return code;
+            }
+        }
+        return CompactHistory.NONE;
+    }
+
+    /**
+     * Get the code of the status a history entry moved to. The status id is used when the entry has
+     * one; older entries that only carry the status name are resolved once per name.
+     *
+     * @param history the item history
+     * @param index   entry index
+     * @return the code, or {@link CompactHistory#NONE} if the entry did not move to a known status
+     */
+    public int code(CompactHistory history, int index) {
+        int statusId = history.getStatusId(index);
+        if (statusId != CompactHistory.NONE) {
+            return code(statusId);
+        }
+        int nameCode = history.getStatus(index);
+        if (nameCode == CompactHistory.NONE) {
+            return CompactHistory.NONE;
+        }
+        int[] table = codesByName;
+        if (nameCode < table.length && table[nameCode] != UNRESOLVED) {
+            return table[nameCode];
+        }
+        int code = code(StatusNames.name(nameCode));
+        synchronized (this) {
+            table = codesByName;
+            if (nameCode >= table.length) {
+                int oldLength = table.length;
+                table = Arrays.copyOf(table, Math.max(nameCode + 1, oldLength * 2));
+                Arrays.fill(table, oldLength, table.length, UNRESOLVED);
+            }
+            table[nameCode] = code;
+            codesByName = table;
+        }
+        return code;
+    }
+
+    public int getId(int code) {
+        return ids[code];
+    }
+
+    public String getName(int code) {
+        return names[code];
+    }
+
+    /**
+     * @param code a status code, or {@link CompactHistory#NONE}
+     * @return the category of the status, or null for {@link CompactHistory#NONE}
+     */
+    public StatusCategory getCategory(int code) {
+        return code == CompactHistory.NONE ? null : categories[code];
+    }
+
+    /**
+     * @param statusId a Taiga status id
+     * @return the category of the status, or null if it is not in this project
+     */
+    public StatusCategory categoryOf(Integer statusId) {
+        return getCategory(code(statusId));
+    }
+
+    /**
+     * Find the first entry that moved the item into a status of the given category.
+     *
+     * @param history  the item history
+     * @param category the category
+     * @return the entry index, or -1 if there is none
+     */
+    public int firstMoveTo(CompactHistory history, StatusCategory category) {
+        for (int i = 0; i < history.size(); i++) {
+            if (history.hasStatusChange(i) && getCategory(code(history, i)) == category) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Find the last entry that moved the item into a status of the given category.
+     *
+     * @param history  the item history
+     * @param category the category
+     * @return the entry index, or -1 if there is none
+     */
+    public int lastMoveTo(CompactHistory history, StatusCategory category) {
+        for (int i = history.size() - 1; i >= 0; i--) {
+            if (history.hasStatusChange(i) && getCategory(code(history, i)) == category) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
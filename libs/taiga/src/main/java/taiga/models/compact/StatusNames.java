@@ -0,0 +1,49 @@
+package taiga.models.compact;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide dictionary of status names. {@link CompactHistory} stores a status as its code here, so
+ * each distinct name is held once no matter how many history entries mention it.
+ * <p>
+ * Looking a code up takes no lock: the names are an array that is copied whenever a name is added,
+ * which only happens a handful of times per project.
+ */
+public class StatusNames {
+    private static final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+    private static final Object lock = new Object();
+    private static volatile String[] names = new String[0];
+
+    /**
+     * Get the code for a status name, assigning the next free code the first time a name is seen.
+     *
+     * @param name the status name
+     * @return the code for the name
+     */
+    public static int code(String name) {
+        Integer code = codes.get(name);
+        if (code != null) {
+            return code;
+        }
+        synchronized (lock) {
+            // the name is published before its code, so any code handed out can be looked up
+            return codes.computeIfAbsent(name, n -> {
+                String[] added = Arrays.copyOf(names, names.length + 1);
+                added[added.length - 1] = n;
+                names = added;
+                return added.length - 1;
+            });
+        }
+    }
+
+    /**
+     * Get the status name for a code.
+     *
+     * @param code a code returned by {@link #code(String)}
+     * @return the status name
+     */
+    public static String name(int code) {
+        return names[code];
+    }
+}
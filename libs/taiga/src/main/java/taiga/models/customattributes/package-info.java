@@ -0,0 +1,4 @@
+@GenerateTypeAdapters
+package taiga.models.customattributes;
+
+import adaptergen.GenerateTypeAdapters;
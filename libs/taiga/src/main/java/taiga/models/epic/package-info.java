@@ -0,0 +1,4 @@
+@GenerateTypeAdapters
+package taiga.models.epic;
+
+import adaptergen.GenerateTypeAdapters;
@@ -0,0 +1,156 @@
+package taiga.models.history;
+
+import bostonhttp.util.GsonSingleton;
+import com.google.gson.JsonIOException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import taiga.models.compact.CompactHistory;
+import taiga.models.taskhistory.ItemHistory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The history of one item exactly as Taiga sent it. This is what is fetched and cached; the
+ * {@link History}, {@link ItemHistory} and {@link CompactHistory} models are views decoded from it, so
+ * callers that want different models still share one download.
+ * <p>
+ * The entries are kept as their compact JSON bytes rather than a tree of JSON elements. The
+ * {@link CompactHistory} view is immutable and decoded at most once; the other views are mutable
+ * models, so each call decodes fresh ones from the bytes.
+ */
+@JsonAdapter(HistoryEntries.Adapter.class)
+public final class HistoryEntries {
+    private final byte[] json;
+    private final int size;
+    private volatile CompactHistory compact;
+
+    private HistoryEntries(byte[] json, int size) {
+        this.json = json;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public History[] asHistory() {
+        return GsonSingleton.getInstance().fromJson(reader(), History[].class);
+    }
+
+    public ItemHistory[] asItemHistory() {
+        return GsonSingleton.getInstance().fromJson(reader(), ItemHistory[].class);
+    }
+
+    public CompactHistory asCompactHistory() {
+        CompactHistory decoded = compact;
+        if (decoded == null) {
+            // decoding twice in a race is harmless, both results are equal
+            decoded = GsonSingleton.getInstance().fromJson(reader(), CompactHistory.class);
+            compact = decoded;
+        }
+        return decoded;
+    }
+
+    private Reader reader() {
+        return new InputStreamReader(new ByteArrayInputStream(json), StandardCharsets.UTF_8);
+    }
+
+    public static class Adapter extends TypeAdapter<HistoryEntries> {
+        @Override
+        public void write(JsonWriter out, HistoryEntries value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            try (JsonReader in = new JsonReader(value.reader())) {
+                copy(in, out);
+            }
+        }
+
+        @Override
+        public HistoryEntries read(JsonReader in) throws IOException {
+            JsonToken token = in.peek();
+            if (token == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            int size = 0;
+            try (JsonWriter out = new JsonWriter(new OutputStreamWriter(bytes, StandardCharsets.UTF_8))) {
+                out.beginArray();
+                if (token == JsonToken.BEGIN_ARRAY) {
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        copy(in, out);
+                        size++;
+                    }
+                    in.endArray();
+                } else {
+                    // anything but a list holds no entries
+                    in.skipValue();
+                }
+                out.endArray();
+            }
+            return new HistoryEntries(bytes.toByteArray(), size);
+        }
+
+        /**
+         * Copy the next value token by token, without building it in memory.
+         */
+        private static void copy(JsonReader in, JsonWriter out) throws IOException {
+            int depth = 0;
+            do {
+                switch (in.peek()) {
+                    case BEGIN_ARRAY:
+                        in.beginArray();
+                        out.beginArray();
+                        depth++;
+                        break;
+                    case END_ARRAY:
+                        in.endArray();
+                        out.endArray();
+                        depth--;
+                        break;
+                    case BEGIN_OBJECT:
+                        in.beginObject();
+                        out.beginObject();
+                        depth++;
+                        break;
+                    case END_OBJECT:
+                        in.endObject();
+                        out.endObject();
+                        depth--;
+                        break;
+                    case NAME:
+                        out.name(in.nextName());
+                        break;
+                    case STRING:
+                        out.value(in.nextString());
+                        break;
+                    case NUMBER:
+                        // keep the number as written, it is only parsed by the view decoding it
+                        out.jsonValue(in.nextString());
+                        break;
+                    case BOOLEAN:
+                        out.value(in.nextBoolean());
+                        break;
+                    case NULL:
+                        in.nextNull();
+                        out.nullValue();
+                        break;
+                    default:
+                        throw new JsonIOException("Unexpected end of history at " + in.getPath());
+                }
+            } while (depth > 0);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+@GenerateTypeAdapters
+package taiga.models.history;
+
+import adaptergen.GenerateTypeAdapters;
@@ -178,6 +178,10 @@ public class Project {
     @Expose
     private TaskStatus[] taskStatuses = null;
 
+    @SerializedName("us_statuses")
+    @Expose
+    private UserStoryStatus[] usStatuses = null;
+
     @SerializedName("tags")
     @Expose
     private List<String> tags = null;
@@ -589,6 +593,14 @@ public class Project {
         this.taskStatuses = taskStatuses;
     }
 
+    public UserStoryStatus[] getUsStatuses() {
+        return usStatuses;
+    }
+
+    public void setUsStatuses(UserStoryStatus[] usStatuses) {
+        this.usStatuses = usStatuses;
+    }
+
     public List<String> getTags() {
         return tags;
     }
@@ -0,0 +1,14 @@
+package taiga.models.project;
+
+/**
+ * A task or user story status as listed on a {@link Project}.
+ */
+public interface ProjectStatus {
+    Integer getId();
+
+    String getName();
+
+    Integer getOrder();
+
+    Boolean getIsClosed();
+}
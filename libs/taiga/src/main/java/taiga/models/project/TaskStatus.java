@@ -3,7 +3,7 @@ package taiga.models.project;
 import com.google.gson.annotations.Expose;
 import com.google.gson.annotations.SerializedName;
 
-public class TaskStatus {
+public class TaskStatus implements ProjectStatus {
 
     @SerializedName("id")
     @Expose
@@ -0,0 +1,4 @@
+@GenerateTypeAdapters
+package taiga.models.project;
+
+import adaptergen.GenerateTypeAdapters;
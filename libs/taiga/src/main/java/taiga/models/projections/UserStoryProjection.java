@@ -0,0 +1,91 @@
+package taiga.models.projections;
+
+import com.google.gson.annotations.SerializedName;
+import taiga.models.common.StatusExtraInfo;
+
+import java.util.Date;
+
+/**
+ * The fields of a {@link taiga.models.sprint.UserStoryDetail} the metric calculators use. Decoding
+ * into this class skips everything else in the story, such as the owner, attachments, tags and
+ * epics, without building any objects for it.
+ */
+public class UserStoryProjection {
+    private Integer id;
+
+    private Integer ref;
+
+    private String subject;
+
+    private Integer project;
+
+    @SerializedName("created_date")
+    private Date createdDate;
+
+    @SerializedName("modified_date")
+    private Date modifiedDate;
+
+    @SerializedName("finish_date")
+    private Date finishDate;
+
+    private Integer milestone;
+
+    private Integer status;
+
+    @SerializedName("status_extra_info")
+    private StatusExtraInfo statusExtraInfo;
+
+    @SerializedName("is_closed")
+    private Boolean isClosed;
+
+    @SerializedName("total_points")
+    private Double totalPoints;
+
+    public Integer getId() {
+        return id;
+    }
+
+    public Integer getRef() {
+        return ref;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public Integer getProject() {
+        return project;
+    }
+
+    public Date getCreatedDate() {
+        return createdDate;
+    }
+
+    public Date getModifiedDate() {
+        return modifiedDate;
+    }
+
+    public Date getFinishDate() {
+        return finishDate;
+    }
+
+    public Integer getMilestone() {
+        return milestone;
+    }
+
+    public Integer getStatus() {
+        return status;
+    }
+
+    public StatusExtraInfo getStatusExtraInfo() {
+        return statusExtraInfo;
+    }
+
+    public Boolean getIsClosed() {
+        return isClosed;
+    }
+
+    public Double getTotalPoints() {
+        return totalPoints;
+    }
+}
@@ -0,0 +1,4 @@
+@GenerateTypeAdapters
+package taiga.models.projections;
+
+import adaptergen.GenerateTypeAdapters;
@@ -0,0 +1,4 @@
+@GenerateTypeAdapters
+package taiga.models.sprint;
+
+import adaptergen.GenerateTypeAdapters;
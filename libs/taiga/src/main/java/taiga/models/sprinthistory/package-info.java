@@ -0,0 +1,4 @@
+@GenerateTypeAdapters
+package taiga.models.sprinthistory;
+
+import adaptergen.GenerateTypeAdapters;
@@ -0,0 +1,4 @@
+@GenerateTypeAdapters
+package taiga.models.taskhistory;
+
+import adaptergen.GenerateTypeAdapters;
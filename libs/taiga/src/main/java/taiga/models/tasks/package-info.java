@@ -0,0 +1,4 @@
+@GenerateTypeAdapters
+package taiga.models.tasks;
+
+import adaptergen.GenerateTypeAdapters;
@@ -0,0 +1,4 @@
+@GenerateTypeAdapters
+package taiga.models.user;
+
+import adaptergen.GenerateTypeAdapters;
@@ -0,0 +1,4 @@
+@GenerateTypeAdapters
+package taiga.models.userstories;
+
+import adaptergen.GenerateTypeAdapters;
@@ -0,0 +1,217 @@
+package taiga.sync;
+
+import bostonhttp.api.APIResponse;
+import taiga.api.TaigaQuery;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A locally held copy of one listing, such as the tasks of a project, kept up to date with delta
+ * syncs. The first sync downloads the whole listing. Later syncs only ask Taiga for items with a
+ * {@code modified_date} at or after the newest one already held, the high-water mark, and merge
+ * them in.
+ * <p>
+ * A delta cannot see deleted items, so every {@link #setFullSyncInterval(Duration) full sync
+ * interval} the whole listing is downloaded again and items no longer in it are dropped. Taiga's
+ * clock sets the high-water mark, so clock skew on this side cannot make a delta miss changes.
+ * <p>
+ * Concurrent calls to {@link #sync()} share one sync.
+ *
+ * @param <T> type of the items
+ */
+public class ItemSync<T> {
+    private static final long NO_MARK = Long.MIN_VALUE;
+
+    /**
+     * A paged listing endpoint, such as {@link taiga.api.TasksAPI#listTasksPaged}.
+     */
+    @FunctionalInterface
+    public interface Listing<T> {
+        CompletableFuture<Void> list(TaigaQuery query, Consumer<APIResponse<T[]>> pageCallback);
+    }
+
+    private final Supplier<TaigaQuery> baseQuery;
+    private final Listing<T> listing;
+    private final Function<T, Integer> idOf;
+    private final Function<T, Date> modifiedDateOf;
+
+    private final Map<Integer, T> items = new ConcurrentHashMap<>();
+    private volatile Duration fullSyncInterval = Duration.ofMinutes(15);
+    private long highWaterMark = NO_MARK;
+    private long lastFullSync;
+    private CompletableFuture<Result> inFlight;
+
+    /**
+     * @param baseQuery      supplies a new query selecting the whole listing, such as the tasks of
+     *                       one project
+     * @param listing        the paged endpoint to fetch from
+     * @param idOf           id of an item
+     * @param modifiedDateOf modified date of an item
+     */
+    public ItemSync(Supplier<TaigaQuery> baseQuery, Listing<T> listing,
+                    Function<T, Integer> idOf, Function<T, Date> modifiedDateOf) {
+        this.baseQuery = baseQuery;
+        this.listing = listing;
+        this.idOf = idOf;
+        this.modifiedDateOf = modifiedDateOf;
+    }
+
+    /**
+     * Bring the local copy up to date.
+     *
+     * @return future of what changed. If any page could not be fetched the local copy and the
+     * high-water mark are left as they were and the result is marked failed.
+     */
+    public CompletableFuture<Result> sync() {
+        boolean full;
+        TaigaQuery query = baseQuery.get();
+        CompletableFuture<Result> sync;
+        synchronized (this) {
+            if (inFlight != null) {
+                return inFlight;
+            }
+            full = highWaterMark == NO_MARK || System.nanoTime() - lastFullSync >= fullSyncInterval.toNanos();
+            if (!full) {
+                query.modifiedSince(Instant.ofEpochMilli(highWaterMark));
+            }
+            sync = inFlight = new CompletableFuture<>();
+        }
+
+        Queue<T> fetched = new ConcurrentLinkedQueue<>();
+        AtomicBoolean failed = new AtomicBoolean();
+        long startedAt = System.nanoTime();
+        CompletableFuture<Void> pages;
+        try {
+            pages = listing.list(query, page -> {
+                if (page == null || page.getStatus() != 200 || page.getContent() == null) {
+                    failed.set(true);
+                    return;
+                }
+                Collections.addAll(fetched, page.getContent());
+            });
+        } catch (RuntimeException e) {
+            pages = CompletableFuture.failedFuture(e);
+        }
+        pages.whenComplete((ignored, error) -> {
+            Result result = error != null || failed.get() ? Result.FAILED : merge(fetched, full, startedAt);
+            synchronized (this) {
+                inFlight = null;
+            }
+            sync.complete(result);
+        });
+        return sync;
+    }
+
+    private synchronized Result merge(Collection<T> fetched, boolean full, long startedAt) {
+        Set<Integer> changed = new HashSet<>();
+        Set<Integer> seen = new HashSet<>();
+        long mark = highWaterMark;
+        for (T item : fetched) {
+            Integer id = idOf.apply(item);
+            if (id == null) {
+                continue;
+            }
+            seen.add(id);
+            long modified = modifiedMillis(item);
+            T previous = items.put(id, item);
+            if (previous == null || modifiedMillis(previous) != modified) {
+                changed.add(id);
+            }
+            mark = Math.max(mark, modified);
+        }
+        Set<Integer> removed = new HashSet<>();
+        if (full) {
+            items.keySet().removeIf(id -> !seen.contains(id) && removed.add(id));
+            lastFullSync = startedAt;
+        }
+        highWaterMark = mark;
+        return new Result(full, false, changed, removed);
+    }
+
+    private long modifiedMillis(T item) {
+        Date modified = modifiedDateOf.apply(item);
+        return modified == null ? NO_MARK : modified.getTime();
+    }
+
+    /**
+     * @return the items held, by id
+     */
+    public Map<Integer, T> getItems() {
+        return Collections.unmodifiableMap(items);
+    }
+
+    /**
+     * @return the newest modified date seen, or null before the first sync
+     */
+    public synchronized Instant getHighWaterMark() {
+        return highWaterMark == NO_MARK ? null : Instant.ofEpochMilli(highWaterMark);
+    }
+
+    /**
+     * Set how often the whole listing is downloaded again to notice deleted items.
+     *
+     * @param fullSyncInterval the interval; zero makes every sync a full one
+     */
+    public void setFullSyncInterval(Duration fullSyncInterval) {
+        this.fullSyncInterval = fullSyncInterval;
+    }
+
+    /**
+     * What one sync changed in the local copy.
+     */
+    public static final class Result {
+        static final Result FAILED = new Result(false, true, Set.of(), Set.of());
+
+        private final boolean full;
+        private final boolean failed;
+        private final Set<Integer> changed;
+        private final Set<Integer> removed;
+
+        Result(boolean full, boolean failed, Set<Integer> changed, Set<Integer> removed) {
+            this.full = full;
+            this.failed = failed;
+            this.changed = Collections.unmodifiableSet(changed);
+            this.removed = Collections.unmodifiableSet(removed);
+        }
+
+        /**
+         * @return whether the whole listing was downloaded
+         */
+        public boolean isFull() {
+            return full;
+        }
+
+        public boolean isFailed() {
+            return failed;
+        }
+
+        /**
+         * @return ids of items that are new or were modified since the previous sync
+         */
+        public Set<Integer> getChanged() {
+            return changed;
+        }
+
+        /**
+         * @return ids of items that are gone, only known after a full sync
+         */
+        public Set<Integer> getRemoved() {
+            return removed;
+        }
+    }
+}
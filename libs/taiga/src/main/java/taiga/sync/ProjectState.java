@@ -0,0 +1,170 @@
+package taiga.sync;
+
+import bostonhttp.api.BulkOptions;
+import taiga.TaigaClient;
+import taiga.api.TaigaQuery;
+import taiga.models.compact.CompactHistory;
+import taiga.models.projections.TaskProjection;
+import taiga.models.projections.UserStoryProjection;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The tasks and user stories of one project, held locally and kept up to date with
+ * {@link ItemSync delta syncs}, together with the history of every task. After the first sync a
+ * recomputation only downloads the items modified since the previous one, and only those items
+ * have their history fetched again.
+ * <p>
+ * There is one state per project, shared by every caller in the process. States are dropped once
+ * they have not been used for an hour, and the least recently used one is dropped when more than
+ * {@value #MAX_PROJECTS} projects are held; a dropped project starts over with a full sync.
+ */
+public class ProjectState {
+    private static final int MAX_PROJECTS = 64;
+    private static final Duration IDLE_TIMEOUT = Duration.ofHours(1);
+
+    private static final Map<Integer, ProjectState> states = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, ProjectState> eldest) {
+            return size() > MAX_PROJECTS;
+        }
+    };
+
+    private final int projectId;
+    private final ItemSync<TaskProjection> tasks;
+    private final ItemSync<UserStoryProjection> userStories;
+    private final Map<Integer, CompactHistory> taskHistories = new ConcurrentHashMap<>();
+    private volatile long lastUsed = System.nanoTime();
+
+    private ProjectState(int projectId) {
+        this.projectId = projectId;
+        this.tasks = new ItemSync<>(() -> TaigaQuery.create().project(projectId),
+                (query, pages) -> TaigaClient.getTasksAPI().listTasksPaged(query, TaskProjection.class, pages),
+                TaskProjection::getId, TaskProjection::getModifiedDate);
+        this.userStories = new ItemSync<>(() -> TaigaQuery.create().project(projectId),
+                (query, pages) -> TaigaClient.getUserStoryAPI().listUserStoriesPaged(query, UserStoryProjection.class, pages),
+                UserStoryProjection::getId, UserStoryProjection::getModifiedDate);
+    }
+
+    /**
+     * Get the state of a project, creating it empty if it does not exist yet. States idle for too
+     * long are dropped on the way.
+     *
+     * @param projectId id of the project
+     * @return the state shared by all callers
+     */
+    public static ProjectState forProject(int projectId) {
+        long now = System.nanoTime();
+        synchronized (states) {
+            // access order puts the least recently used first, so stop at the first one still in use
+            Iterator<ProjectState> idle = states.values().iterator();
+            while (idle.hasNext()) {
+                if (now - idle.next().lastUsed < IDLE_TIMEOUT.toNanos()) {
+                    break;
+                }
+                idle.remove();
+            }
+            ProjectState state = states.computeIfAbsent(projectId, ProjectState::new);
+            state.lastUsed = now;
+            return state;
+        }
+    }
+
+    public int getProjectId() {
+        return projectId;
+    }
+
+    /**
+     * Bring the tasks up to date. The held history of every changed or removed task is dropped, so
+     * {@link #syncTaskHistories()} fetches it again.
+     *
+     * @return future of what changed, marked failed if the tasks could not be fetched, in which case
+     * the tasks held are left as they were
+     */
+    public CompletableFuture<ItemSync.Result> syncTasks() {
+        return tasks.sync().thenApply(result -> {
+            result.getChanged().forEach(taskHistories::remove);
+            result.getRemoved().forEach(taskHistories::remove);
+            return result;
+        });
+    }
+
+    /**
+     * Bring the user stories up to date. The cached history of every changed story is invalidated
+     * in the {@link taiga.api.UserStoryHistoryAPI}, so it is downloaded again on its next use.
+     *
+     * @return future of what changed, marked failed if the user stories could not be fetched, in
+     * which case the stories held are left as they were
+     */
+    public CompletableFuture<ItemSync.Result> syncUserStories() {
+        return userStories.sync().thenApply(result -> {
+            result.getChanged().forEach(TaigaClient.getUserStoryHistoryAPI()::invalidate);
+            return result;
+        });
+    }
+
+    /**
+     * Bring the tasks up to date and fetch the history of every task whose history is not held,
+     * which after the first sync is only the tasks that changed. Histories that could not be
+     * fetched are tried again on the next call.
+     *
+     * @return future of what changed, completing once the histories are held. It is marked failed if
+     * the tasks or any history could not be fetched; what is held is then as of the last success.
+     */
+    public CompletableFuture<ItemSync.Result> syncTaskHistories() {
+        return syncTasks().thenCompose(result -> {
+            List<Integer> missing = tasks.getItems().keySet().stream()
+                    .filter(id -> !taskHistories.containsKey(id))
+                    .toList();
+            AtomicBoolean historyFailed = new AtomicBoolean();
+            return TaigaClient.getTaskHistoryAPI()
+                    .getCompactTaskHistories(missing, BulkOptions.defaults()
+                            .withErrorHandler((id, status) -> historyFailed.set(true)))
+                    .thenApply(histories -> {
+                        taskHistories.putAll(histories);
+                        return historyFailed.get() ? ItemSync.Result.FAILED : result;
+                    });
+        });
+    }
+
+    /**
+     * @return the tasks held, in no particular order
+     */
+    public List<TaskProjection> getTasks() {
+        return new ArrayList<>(tasks.getItems().values());
+    }
+
+    /**
+     * @return the user stories held, in no particular order
+     */
+    public List<UserStoryProjection> getUserStories() {
+        return new ArrayList<>(userStories.getItems().values());
+    }
+
+    /**
+     * @return the task histories held, by task id
+     */
+    public Map<Integer, CompactHistory> getTaskHistories() {
+        return Collections.unmodifiableMap(taskHistories);
+    }
+
+    /**
+     * Set how often tasks and user stories are downloaded in full to notice deleted items, see
+     * {@link ItemSync#setFullSyncInterval(Duration)}.
+     *
+     * @param fullSyncInterval the interval
+     */
+    public void setFullSyncInterval(Duration fullSyncInterval) {
+        tasks.setFullSyncInterval(fullSyncInterval);
+        userStories.setFullSyncInterval(fullSyncInterval);
+    }
+}
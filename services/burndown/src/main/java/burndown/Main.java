@@ -1,5 +1,9 @@
 package burndown;
 
+import bostonhttp.util.HTTPClientSingleton;
+import bostonhttp.util.HttpClientOptions;
+import bostonmodel.util.DeadlineFilter;
+import bostonmodel.util.GzipFilter;
 import bostonmodel.util.JsonTransformer;
 import burndown.calculators.BurndownAggregator;
 import org.apache.http.HttpStatus;
@@ -7,6 +11,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import serviceutil.Env;
 
+import java.util.Arrays;
+import java.util.List;
+
+import static spark.Spark.after;
+import static spark.Spark.before;
 import static spark.Spark.get;
 import static spark.Spark.port;
 
@@ -14,24 +23,38 @@ public class Main {
     private static final Logger logger = LoggerFactory.getLogger(Main.class);
 
     public static void main(String[] args) {
+        HTTPClientSingleton.setDefaultOptions(HttpClientOptions.fromEnvironment());
         port(Env.getPort());
+        before(new DeadlineFilter());
+        after(new GzipFilter());
         get("/burndown", (request, response) -> {
             response.type("application/json");
             String sprintIdParam = request.queryParams("sprint_id");
-            if (sprintIdParam == null) {
+            String sprintIdsParam = request.queryParams("sprint_ids");
+            String projectIdParam = request.queryParams("project_id");
+            String epicIdParam = request.queryParams("epic_id");
+            if (sprintIdParam == null && epicIdParam == null && (sprintIdsParam == null || projectIdParam == null)) {
                 response.type("application/json");
                 response.status(HttpStatus.SC_BAD_REQUEST);
                 return "";
             }
-            int sprintId;
             try {
-                sprintId = Integer.parseInt(sprintIdParam);
+                if (sprintIdParam != null) {
+                    return BurndownAggregator.calculate(response, Integer.parseInt(sprintIdParam));
+                }
+                if (epicIdParam != null) {
+                    return BurndownAggregator.calculateEpic(response, Integer.parseInt(epicIdParam));
+                }
+                List<Integer> sprintIds = Arrays.stream(sprintIdsParam.split(","))
+                        .map(String::trim)
+                        .filter(id -> !id.isEmpty())
+                        .map(Integer::parseInt)
+                        .toList();
+                return BurndownAggregator.calculateSprints(response, Integer.parseInt(projectIdParam), sprintIds);
             } catch (NumberFormatException ex) {
-                logger.error("All sprint ids must be integers", ex);
+                logger.error("All sprint, project and epic ids must be integers", ex);
                 return "";
             }
-
-            return BurndownAggregator.calculate(response, sprintId);
         }, new JsonTransformer());
     }
 }
@@ -1,14 +1,80 @@
 package burndown.calculators;
 
+import bostonmodel.burndown.BurnDownEntry;
 import bostonmodel.burndown.BurndownMetrics;
+import org.apache.http.HttpStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import spark.Response;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 public class BurndownAggregator {
+    private static final Logger logger = LoggerFactory.getLogger(BurndownAggregator.class);
+
+    /**
+     * Calculate every burndown of a sprint. Everything the calculators need is fetched once into a
+     * {@link SprintSnapshot}, then the calculators run over it in parallel.
+     *
+     * @param response the response to set the status on
+     * @param sprintId id of the sprint
+     * @return the task, user story and business value burndowns
+     */
     public static BurndownMetrics calculate(Response response, int sprintId) {
-        return new BurndownMetrics(
-                new TaskBurndown().calculate(response, sprintId),
-                new UserStoryBurndown().calculate(response, sprintId),
-                new BusinessValueBurndown().calculate(response, sprintId)
-        );
+        return calculate(response, SprintSnapshot.load(sprintId));
+    }
+
+    /**
+     * Calculate the combined burndown of several sprints of a project, such as a release, from the
+     * start of the earliest to the finish of the latest. There is no task burndown across sprints.
+     *
+     * @param response  the response to set the status on
+     * @param projectId id of the project
+     * @param sprintIds ids of the sprints
+     * @return the user story and business value burndowns, with an empty task burndown
+     */
+    public static BurndownMetrics calculateSprints(Response response, int projectId, Collection<Integer> sprintIds) {
+        return calculate(response, SprintSnapshot.loadSprints(projectId, sprintIds));
+    }
+
+    /**
+     * Calculate the burndown of the user stories of an epic over the sprints they are planned in.
+     * There is no task burndown across sprints.
+     *
+     * @param response the response to set the status on
+     * @param epicId   id of the epic
+     * @return the user story and business value burndowns, with an empty task burndown
+     */
+    public static BurndownMetrics calculateEpic(Response response, int epicId) {
+        return calculate(response, SprintSnapshot.loadEpic(epicId));
+    }
+
+    private static BurndownMetrics calculate(Response response, CompletableFuture<SprintSnapshot> load) {
+        SprintSnapshot snapshot;
+        try {
+            snapshot = load.join();
+        } catch (CompletionException e) {
+            logger.warn("Could not load the burndown snapshot", e.getCause());
+            response.status(HttpStatus.SC_BAD_GATEWAY);
+            return new BurndownMetrics(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        }
+        if (snapshot == null) {
+            response.status(HttpStatus.SC_BAD_REQUEST);
+            return new BurndownMetrics(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        }
+
+        CompletableFuture<List<BurnDownEntry>> tasks = calculateAsync(new TaskBurndown(), snapshot);
+        CompletableFuture<List<BurnDownEntry>> userStories = calculateAsync(new UserStoryBurndown(), snapshot);
+        List<BurnDownEntry> businessValue = new BusinessValueBurndown().calculate(snapshot);
+
+        return new BurndownMetrics(tasks.join(), userStories.join(), businessValue);
+    }
+
+    private static CompletableFuture<List<BurnDownEntry>> calculateAsync(BurndownCalculator calculator, SprintSnapshot snapshot) {
+        return CompletableFuture.supplyAsync(() -> calculator.calculate(snapshot));
     }
 }
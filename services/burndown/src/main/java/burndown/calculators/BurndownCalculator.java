@@ -2,7 +2,6 @@ package burndown.calculators;
 
 
 import bostonmodel.burndown.BurnDownEntry;
-import taiga.models.sprint.Sprint;
 
 import java.util.List;
 
@@ -11,10 +10,11 @@ import java.util.List;
  */
 public interface BurndownCalculator {
     /**
-     * Calculate burndown metrics for a given sprint
+     * Calculate burndown metrics for a given sprint. Calculators only read the snapshot, so
+     * several can run over the same one at once.
      *
-     * @param sprint The sprint to calculate burndown for
+     * @param snapshot The sprint to calculate burndown for, with everything fetched for it
      * @return The burndown data as a list of {@link BurnDownEntry} data points
      */
-    List<BurnDownEntry> calculate(Sprint sprint);
+    List<BurnDownEntry> calculate(SprintSnapshot snapshot);
 }
@@ -0,0 +1,78 @@
+package burndown.calculators;
+
+import bostonmodel.burndown.BurnDownEntry;
+import serviceutil.DateUtil;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Builds a burndown over a range of days from the total scope and the amounts completed on each
+ * day. Completions are bucketed into one slot per day as they are added, and the ideal and actual
+ * series are then produced in a single pass over the days, so the cost grows with days plus
+ * completions rather than with their product.
+ */
+public class BurndownSeries {
+    private final LocalDate start;
+    private final long startDay;
+    private final double[] completed;
+    private double total;
+
+    /**
+     * @param start first day of the burndown
+     * @param end   last day of the burndown, inclusive
+     */
+    public BurndownSeries(LocalDate start, LocalDate end) {
+        this.start = start;
+        this.startDay = start.toEpochDay();
+        this.completed = new double[(int) Math.max(0, end.toEpochDay() - startDay + 1)];
+    }
+
+    /**
+     * Add to the amount to burn down.
+     *
+     * @param amount points or business value in scope
+     */
+    public void addScope(double amount) {
+        total += amount;
+    }
+
+    /**
+     * Record an amount completed. Completions outside the range of days are not counted.
+     *
+     * @param completedOn when the amount was completed, null if it was not
+     * @param amount      points or business value completed
+     */
+    public void complete(Date completedOn, double amount) {
+        if (completedOn == null) {
+            return;
+        }
+        long day = DateUtil.toLocal(completedOn).toEpochDay() - startDay;
+        if (day >= 0 && day < completed.length) {
+            completed[(int) day] += amount;
+        }
+    }
+
+    public double getTotal() {
+        return total;
+    }
+
+    /**
+     * @return one entry per day. The ideal line falls linearly from the total on the first day to
+     * zero on the last, and the actual line is the total minus everything completed up to and
+     * including that day.
+     */
+    public List<BurnDownEntry> toEntries() {
+        List<BurnDownEntry> entries = new ArrayList<>(completed.length);
+        int length = completed.length - 1;
+        double remaining = total;
+        for (int i = 0; i < completed.length; i++) {
+            remaining -= completed[i];
+            double ideal = length == 0 ? total : Math.max(0, total - total * i / length);
+            entries.add(new BurnDownEntry(ideal, remaining, DateUtil.toDate(start.plusDays(i))));
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,234 @@
+package burndown.calculators;
+
+import bostonhttp.api.APIResponse;
+import bostonhttp.api.BulkOptions;
+import serviceutil.DateUtil;
+import taiga.TaigaClient;
+import taiga.api.BusinessValueResolver;
+import taiga.api.TaigaQuery;
+import taiga.models.compact.BusinessValues;
+import taiga.models.compact.CompactHistory;
+import taiga.models.compact.ProjectStatuses;
+import taiga.models.compact.StatusDictionary;
+import taiga.models.epic.EpicDetail;
+import taiga.models.sprint.Sprint;
+import taiga.models.sprint.SprintStats;
+import taiga.models.sprint.UserStory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Everything the burndown calculators read about one sprint, or about several sprints burned down
+ * together such as a release or an epic, fetched once per request. The sprints come first; as soon
+ * as they arrive the histories of their user stories, their business values and the project's
+ * statuses are requested together, so loading a snapshot takes about two round trips however many
+ * stories and sprints it covers.
+ */
+public class SprintSnapshot {
+    private final List<Sprint> sprints;
+    private final SprintStats stats;
+    private final List<UserStory> userStories;
+    private final LocalDate start;
+    private final LocalDate end;
+    private final Map<Integer, CompactHistory> userStoryHistories;
+    private final BusinessValues businessValues;
+    private final StatusDictionary userStoryStatuses;
+
+    SprintSnapshot(List<Sprint> sprints, SprintStats stats, List<UserStory> userStories,
+                   Map<Integer, CompactHistory> userStoryHistories, BusinessValues businessValues,
+                   StatusDictionary userStoryStatuses) {
+        this.sprints = sprints;
+        this.stats = stats;
+        this.userStories = userStories;
+        this.start = sprints.stream().map(s -> DateUtil.toLocal(s.getEstimatedStart()))
+                .min(Comparator.naturalOrder()).orElseThrow();
+        this.end = sprints.stream().map(s -> DateUtil.toLocal(s.getEstimatedFinish()))
+                .max(Comparator.naturalOrder()).orElseThrow();
+        this.userStoryHistories = userStoryHistories;
+        this.businessValues = businessValues;
+        this.userStoryStatuses = userStoryStatuses;
+    }
+
+    /**
+     * Fetch the snapshot of a sprint.
+     *
+     * @param sprintId id of the sprint
+     * @return future of the snapshot, holding null if the sprint could not be fetched. It fails if the
+     * statuses of the sprint's project could not be fetched.
+     */
+    public static CompletableFuture<SprintSnapshot> load(int sprintId) {
+        CompletableFuture<SprintStats> stats = content(callback -> TaigaClient.getSprintStatsAPI().getSprintStats(sprintId, callback));
+        CompletableFuture<Sprint> sprint = content(callback -> TaigaClient.getSprintAPI().getSprint(sprintId, callback));
+
+        return sprint.thenCompose(s -> s == null
+                ? CompletableFuture.completedFuture(null)
+                : load(List.of(s), stats, story -> true));
+    }
+
+    /**
+     * Fetch the snapshot of several sprints of a project burned down together, such as the sprints
+     * of a release. The sprints come from one listing of the project rather than one request each.
+     * There are no sprint stats for a range of sprints, so the task burndown of such a snapshot is
+     * empty.
+     *
+     * @param projectId id of the project
+     * @param sprintIds ids of the sprints
+     * @return future of the snapshot, holding null if none of the sprints could be found. It fails if
+     * the statuses of the project could not be fetched.
+     */
+    public static CompletableFuture<SprintSnapshot> loadSprints(int projectId, Collection<Integer> sprintIds) {
+        return listSprints(projectId).thenCompose(sprints -> load(
+                sprints.stream().filter(s -> sprintIds.contains(s.getId())).toList(),
+                CompletableFuture.completedFuture(null), story -> true));
+    }
+
+    /**
+     * Fetch the snapshot of the user stories of an epic, over the sprints they are planned in.
+     * Stories of the epic still in the backlog are not part of any sprint and are left out.
+     *
+     * @param epicId id of the epic
+     * @return future of the snapshot, holding null if the epic could not be fetched or none of its
+     * stories is planned in a sprint. It fails if the statuses of the project could not be fetched.
+     */
+    public static CompletableFuture<SprintSnapshot> loadEpic(int epicId) {
+        CompletableFuture<EpicDetail> epic = content(callback -> TaigaClient.getEpicsAPI().getEpic(epicId, callback));
+        Predicate<UserStory> inEpic = story -> story.getEpics() != null
+                && story.getEpics().stream().anyMatch(e -> Objects.equals(e.getId(), epicId));
+
+        return epic.thenCompose(e -> e == null || e.getProject() == null
+                ? CompletableFuture.completedFuture(null)
+                : listSprints(e.getProject()).thenCompose(sprints -> load(
+                        sprints.stream().filter(s -> userStoriesOf(s).stream().anyMatch(inEpic)).toList(),
+                        CompletableFuture.completedFuture(null), inEpic)));
+    }
+
+    /**
+     * Fetch everything about the given user stories of the sprints. A story listed in more than one
+     * sprint, because it moved while the sprints were listed, is only counted once.
+     */
+    private static CompletableFuture<SprintSnapshot> load(List<Sprint> sprints, CompletableFuture<SprintStats> stats,
+                                                          Predicate<UserStory> include) {
+        if (sprints.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        Map<Integer, UserStory> stories = new LinkedHashMap<>();
+        for (Sprint sprint : sprints) {
+            for (UserStory story : userStoriesOf(sprint)) {
+                if (story.getId() != null && include.test(story)) {
+                    stories.putIfAbsent(story.getId(), story);
+                }
+            }
+        }
+        int projectId = sprints.get(0).getProject();
+        List<Integer> storyIds = new ArrayList<>(stories.keySet());
+        CompletableFuture<Map<Integer, CompactHistory>> histories = TaigaClient.getUserStoryHistoryAPI()
+                .getCompactUserStoryHistories(storyIds, BulkOptions.defaults());
+        CompletableFuture<BusinessValues> businessValues = BusinessValueResolver.forProject(projectId).resolve(storyIds);
+        CompletableFuture<ProjectStatuses> statuses = projectStatuses(projectId);
+
+        return CompletableFuture.allOf(stats, histories, businessValues, statuses)
+                .thenApply(ignored -> new SprintSnapshot(sprints, stats.join(), List.copyOf(stories.values()),
+                        histories.join(), businessValues.join(), statuses.join().getUserStoryStatuses()));
+    }
+
+    private static CompletableFuture<List<Sprint>> listSprints(int projectId) {
+        return SprintSnapshot.<Sprint[]>content(callback -> TaigaClient.getSprintAPI()
+                        .listSprints(TaigaQuery.create().project(projectId), callback))
+                .thenApply(sprints -> sprints == null ? List.of() : Arrays.stream(sprints)
+                        .filter(s -> s.getEstimatedStart() != null && s.getEstimatedFinish() != null)
+                        .toList());
+    }
+
+    private static List<UserStory> userStoriesOf(Sprint sprint) {
+        return sprint.getUserStories() == null ? List.of() : sprint.getUserStories();
+    }
+
+    /**
+     * Start a request and get its content, or null if it failed.
+     */
+    private static <T> CompletableFuture<T> content(Function<Consumer<APIResponse<T>>, CompletableFuture<Void>> request) {
+        CompletableFuture<T> content = new CompletableFuture<>();
+        request.apply(result -> content.complete(result != null && result.getStatus() == 200 ? result.getContent() : null))
+                .whenComplete((ignored, error) -> content.complete(null));
+        return content;
+    }
+
+    /**
+     * Fetch the statuses of a project. Without them no story can be recognised as done, so the future
+     * fails rather than giving a burndown that never burns down.
+     */
+    private static CompletableFuture<ProjectStatuses> projectStatuses(int projectId) {
+        AtomicReference<ProjectStatuses> statuses = new AtomicReference<>();
+        return TaigaClient.getProjectAPI().getProjectStatuses(projectId, statuses::set)
+                .handle((ignored, error) -> statuses.get())
+                .thenCompose(fetched -> fetched != null
+                        ? CompletableFuture.completedFuture(fetched)
+                        : CompletableFuture.failedFuture(new IllegalStateException(
+                                "Could not fetch the statuses of project " + projectId)));
+    }
+
+    /**
+     * @return the sprints covered, in no particular order
+     */
+    public List<Sprint> getSprints() {
+        return sprints;
+    }
+
+    /**
+     * @return the estimated start of the earliest sprint
+     */
+    public LocalDate getStart() {
+        return start;
+    }
+
+    /**
+     * @return the estimated finish of the latest sprint
+     */
+    public LocalDate getEnd() {
+        return end;
+    }
+
+    /**
+     * @return the stats of the sprint, or null if they could not be fetched or the snapshot covers
+     * several sprints
+     */
+    public SprintStats getStats() {
+        return stats;
+    }
+
+    /**
+     * @return the user stories covered, each once
+     */
+    public List<UserStory> getUserStories() {
+        return userStories;
+    }
+
+    /**
+     * @param userStoryId id of a user story covered
+     * @return its history, or null if it could not be fetched
+     */
+    public CompactHistory getUserStoryHistory(int userStoryId) {
+        return userStoryHistories.get(userStoryId);
+    }
+
+    public BusinessValues getBusinessValues() {
+        return businessValues;
+    }
+
+    public StatusDictionary getUserStoryStatuses() {
+        return userStoryStatuses;
+    }
+}
@@ -1,50 +1,27 @@
 package burndown.calculators;
 
 import bostonmodel.burndown.BurnDownEntry;
-import org.apache.http.HttpStatus;
-import spark.Response;
-import taiga.TaigaClient;
 import taiga.models.sprint.Days;
-import taiga.models.sprint.Sprint;
+import taiga.models.sprint.SprintStats;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.atomic.AtomicReference;
 
 public class TaskBurndown implements BurndownCalculator {
 
     @Override
-    public List<BurnDownEntry> calculate(Sprint sprint) {
-        AtomicReference<List<Days>> days = new AtomicReference<>();
-
-        CompletableFuture<Void> future = TaigaClient.getSprintStatsAPI().getSprintStats(sprint.getId(), result -> {
-            days.set(List.of(result.getContent().getDays()));
-        });
-
-        future.join(); // wait for the request to complete
-
+    public List<BurnDownEntry> calculate(SprintSnapshot snapshot) {
         List<BurnDownEntry> burndown = new ArrayList<>();
 
-        days.get().forEach(
-                d -> burndown.add(new BurnDownEntry(Math.max(0, d.getOptimalPoints()), d.getOpenPoints(), d.getDay())));
-
-        return burndown;
-    }
-
-    public List<BurnDownEntry> calculate(Response response, int sprintId) {
-        AtomicReference<Sprint> sprint = new AtomicReference<>();
-        TaigaClient.getSprintAPI().getSprint(sprintId, result -> {
-            if (result.getStatus() == HttpStatus.SC_OK) {
-                sprint.set(result.getContent());
-            }
-        }).join();
+        SprintStats stats = snapshot.getStats();
+        if (stats == null || stats.getDays() == null) {
+            return burndown;
+        }
 
-        if (sprint.get() == null) {
-            response.status(HttpStatus.SC_BAD_REQUEST);
-            return new ArrayList<>();
+        for (Days d : stats.getDays()) {
+            burndown.add(new BurnDownEntry(Math.max(0, d.getOptimalPoints()), d.getOpenPoints(), d.getDay()));
         }
 
-        return calculate(sprint.get());
+        return burndown;
     }
 }
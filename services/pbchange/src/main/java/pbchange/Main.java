@@ -1,5 +1,7 @@
 package pbchange;
 
+import static spark.Spark.after;
+import static spark.Spark.before;
 import static spark.Spark.get;
 import static spark.Spark.port;
 
@@ -7,6 +9,10 @@ import org.eclipse.jetty.http.HttpStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import bostonhttp.util.HTTPClientSingleton;
+import bostonhttp.util.HttpClientOptions;
+import bostonmodel.util.DeadlineFilter;
+import bostonmodel.util.GzipFilter;
 import bostonmodel.util.JsonTransformer;
 import serviceutil.Env;
 
@@ -14,7 +20,10 @@ public class Main {
     private static final Logger logger = LoggerFactory.getLogger(Main.class);
 
     public static void main(String[] args) {
+        HTTPClientSingleton.setDefaultOptions(HttpClientOptions.fromEnvironment());
         port(Env.getPort());
+        before(new DeadlineFilter());
+        after(new GzipFilter());
         get("/pbchange", (request, response) -> {
             response.type("application/json");
             int sprintId;
@@ -20,7 +20,7 @@ public class PBChangeCalculator {
 
     private static Date getRemovedFromPbAfterStartDate(UserStoryDetail userStory, Sprint sprint) {
         AtomicReference<Date> removedDate = new AtomicReference<>();
-        TaigaClient.getHistoryAPI().getUserStoryHistory(userStory.getId(), result -> {
+        TaigaClient.getUserStoryHistoryAPI().getDetailedUserStoryHistory(userStory.getId(), result -> {
             if (result.getStatus() != HttpStatus.SC_OK) {
                 return;
             }
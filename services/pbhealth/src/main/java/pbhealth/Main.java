@@ -1,9 +1,15 @@
 package pbhealth;
 
+import static spark.Spark.after;
+import static spark.Spark.before;
 import static spark.Spark.get;
 import static spark.Spark.port;
 
+import bostonhttp.util.HTTPClientSingleton;
+import bostonhttp.util.HttpClientOptions;
 import bostonmodel.pbhealth.PBHealthMetrics;
+import bostonmodel.util.DeadlineFilter;
+import bostonmodel.util.GzipFilter;
 import bostonmodel.util.JsonTransformer;
 import org.apache.http.HttpStatus;
 import org.slf4j.Logger;
@@ -14,7 +20,10 @@ public class Main {
     private static final Logger logger = LoggerFactory.getLogger(Main.class);
 
     public static void main(String[] args) {
+        HTTPClientSingleton.setDefaultOptions(HttpClientOptions.fromEnvironment());
         port(9000);
+        before(new DeadlineFilter());
+        after(new GzipFilter());
         get("/pbhealth", (request, response) -> {
             String projectIdParam = request.queryParams("project_id");
             if (projectIdParam == null) {
@@ -32,6 +41,10 @@ public class Main {
             }
 
             PBHealthMetrics metrics = PBHealthService.calculatePBHealth(projectId);
+            if (metrics == null) {
+                response.status(HttpStatus.SC_BAD_GATEWAY);
+                return "";
+            }
 
             return metrics;
         }, new JsonTransformer());
@@ -1,46 +1,66 @@
 package pbhealth;
 
 import taiga.TaigaClient;
+import taiga.models.compact.CompactHistory;
+import taiga.models.compact.ProjectStatuses;
+import taiga.models.compact.StatusCategory;
+import taiga.models.compact.StatusDictionary;
 import taiga.models.project.Project;
-import taiga.models.sprint.UserStoryDetail;
+import taiga.models.projections.UserStoryProjection;
+import taiga.sync.ItemSync;
+import taiga.sync.ProjectState;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 
 public class PBHealthHelper {
 
-    private final List<UserStoryDetail> pbUserStories;
+    private final List<UserStoryProjection> pbUserStories;
+    private final StatusDictionary statuses;
+    private final int sprintReady;
+    private final boolean available;
 
     public PBHealthHelper(Project project) {
         this(project.getId());
     }
 
     public PBHealthHelper(Integer projectId) {
-        AtomicReference<List<UserStoryDetail>> userStoryListReference = new AtomicReference<>();
-        TaigaClient.getUserStoryAPI().listProjectUserStories(projectId, result -> {
-            userStoryListReference.set(new ArrayList<>(List.of(result.getContent())));
-        }).join();
-
-        List<UserStoryDetail> userStoryList = userStoryListReference.get();
+        // after the first call only the stories modified since the previous one are downloaded
+        ProjectState state = ProjectState.forProject(projectId);
+        ItemSync.Result sync = state.syncUserStories().join();
+        List<UserStoryProjection> userStoryList = state.getUserStories();
 
         this.pbUserStories = userStoryList
                 .stream()
                 .filter(us -> us.getMilestone() == null)
                 .toList();
+
+        AtomicReference<ProjectStatuses> statusesReference = new AtomicReference<>();
+        TaigaClient.getProjectAPI().getProjectStatuses(projectId, statusesReference::set).join();
+        // stories held from an earlier sync are still worth answering with, no stories at all are not
+        this.available = statusesReference.get() != null && !(sync.isFailed() && userStoryList.isEmpty());
+        this.statuses = available ? statusesReference.get().getUserStoryStatuses() : StatusDictionary.EMPTY;
+        this.sprintReady = statuses.code("Sprint-ready");
+    }
+
+    /**
+     * @return whether everything needed was fetched. If not, neither list can be trusted.
+     */
+    public boolean isAvailable() {
+        return available;
     }
 
-    public List<UserStoryDetail> getGroomedPB() {
+    public List<UserStoryProjection> getGroomedPB() {
         return pbUserStories
                 .stream()
-                .filter(us -> us.getStatusExtraInfo().getName().equalsIgnoreCase("Sprint-ready")) //TODO: test if these are the correct strings
+                .filter(us -> sprintReady != CompactHistory.NONE && statuses.code(us.getStatus()) == sprintReady)
                 .toList();
     }
 
-    public List<UserStoryDetail> getNotGroomedPB() {
+    public List<UserStoryProjection> getNotGroomedPB() {
         return pbUserStories
                 .stream()
-                .filter(us -> us.getStatusExtraInfo().getName().equalsIgnoreCase("New")) //TODO: test if these are the correct strings
+                .filter(us -> statuses.categoryOf(us.getStatus()) == StatusCategory.NEW)
                 .toList();
     }
 }
@@ -1,16 +1,19 @@
 package pbhealth;
 
 import bostonmodel.pbhealth.PBHealthMetrics;
-import taiga.models.sprint.UserStoryDetail;
+import taiga.models.projections.UserStoryProjection;
 
 import java.util.List;
 
 public class PBHealthService {
-    // calculate PB health
+    // calculate PB health, null if the data it needs could not be fetched
     public static PBHealthMetrics calculatePBHealth(int projectId) {
         PBHealthHelper pbHealthHelper = new PBHealthHelper(projectId);
-        List<UserStoryDetail> groomedUserStories = pbHealthHelper.getGroomedPB();
-        List<UserStoryDetail> notGroomedUserStories = pbHealthHelper.getNotGroomedPB();
+        if (!pbHealthHelper.isAvailable()) {
+            return null;
+        }
+        List<UserStoryProjection> groomedUserStories = pbHealthHelper.getGroomedPB();
+        List<UserStoryProjection> notGroomedUserStories = pbHealthHelper.getNotGroomedPB();
 
         int totalUserStoryCount = groomedUserStories.size() + notGroomedUserStories.size();
         double ratio = 0;
@@ -21,4 +21,16 @@ public class Env {
                 ? 4567
                 : Integer.parseInt(System.getenv("PORT"));
     }
+
+    /**
+     * Gets how long the router waits on a service before giving up, unless the caller sent a
+     * shorter deadline
+     *
+     * @return The request timeout in milliseconds
+     */
+    public static long getRequestTimeout() {
+        return System.getenv("REQUEST_TIMEOUT_MS") == null || System.getenv("REQUEST_TIMEOUT_MS").trim().equals("")
+                ? 60000
+                : Long.parseLong(System.getenv("REQUEST_TIMEOUT_MS"));
+    }
 }
@@ -1,5 +1,7 @@
 package router;
 
+import bostonhttp.util.Deadline;
+import bostonmodel.util.GzipFilter;
 import bostonmodel.util.JsonTransformer;
 import org.apache.http.HttpStatus;
 import org.slf4j.Logger;
@@ -7,6 +9,11 @@ import org.slf4j.LoggerFactory;
 
 import router.routes.Routes;
 
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+
+import static spark.Spark.after;
 import static spark.Spark.get;
 import static spark.Spark.port;
 
@@ -14,17 +21,32 @@ public class Router {
     private final static Logger logger = LoggerFactory.getLogger(Router.class);
     public static void start() {
         port(Env.getPort());
+        after(new GzipFilter());
         logger.info("Starting server");
         Routes.getAll().forEach(route -> {
             logger.trace("Adding " + route.getName() + " to api.");
             get("/" + route.getName(), ((request, response) -> {
                 response.type("application/json");
-                Object data = route.handleServiceRequest(request, response);
-                if (data == null) {
-                    response.status(HttpStatus.SC_BAD_REQUEST);
+                // the caller's deadline if it sent one, otherwise our own; services get what is left
+                Deadline deadline = Deadline.fromHeader(request.headers(Deadline.HEADER));
+                Deadline.setCurrent(deadline != null ? deadline : Deadline.after(Duration.ofMillis(Env.getRequestTimeout())));
+                try {
+                    Object data = route.handleServiceRequest(request, response);
+                    if (data == null) {
+                        response.status(HttpStatus.SC_BAD_REQUEST);
+                        return null;
+                    }
+                    return data;
+                } catch (CompletionException ex) {
+                    if (!(ex.getCause() instanceof TimeoutException)) {
+                        throw ex;
+                    }
+                    logger.warn("Request to " + route.getName() + " ran past its deadline.");
+                    response.status(HttpStatus.SC_GATEWAY_TIMEOUT);
                     return null;
+                } finally {
+                    Deadline.setCurrent(null);
                 }
-                return data;
             }), new JsonTransformer());
         });
     }
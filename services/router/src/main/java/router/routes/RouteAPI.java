@@ -2,11 +2,15 @@ package router.routes;
 
 import bostonhttp.api.APIWrapperBase;
 import bostonhttp.api.APIWrapperBehaviors;
+import bostonhttp.util.HttpClientOptions;
 
 /**
  * Base class for defining API wrappers {@link Route}s that want to communicate with a microservice.
  */
 public class RouteAPI extends APIWrapperBase {
+    // every route shares one client and its connections to the services
+    private static final HttpClientOptions httpClientOptions = HttpClientOptions.fromEnvironment();
+
     /**
      * Create an API wrapper for a given microservice. Given a service name and the service url, this
      * class will direct API requests to {serviceUrl}/{serviceName}
@@ -14,6 +18,9 @@ public class RouteAPI extends APIWrapperBase {
      * @param route the route for this api
      */
     public RouteAPI(Route route) {
-        super(route.getName(), new APIWrapperBehaviors().withBaseApiUrlResolver(route::getHost));
+        super(route.getName(), new APIWrapperBehaviors()
+                .withBaseApiUrlResolver(route::getHost)
+                .withHttpClientOptions(httpClientOptions)
+                .withDeadlinePropagation(true));
     }
 }
@@ -5,8 +5,10 @@ import bostonmodel.burndown.BurndownMetrics;
 import router.routes.Route;
 import router.routes.RouteAPI;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 public class BurndownAPI extends RouteAPI {
     /**
@@ -25,4 +27,35 @@ public class BurndownAPI extends RouteAPI {
         return queryAsync("?sprint_id=" + sprintId, BurndownMetrics.class)
                 .thenAccept(callback);
     }
+
+    /**
+     * Get the combined burndown of several sprints of a project, such as a release.
+     *
+     * @param projectId id of the project
+     * @param sprintIds ids of the sprints
+     * @param callback  Consumer function to execute upon receiving query result.
+     * @return void future which can be joined to wait for call to complete.
+     */
+    public CompletableFuture<Void> getReleaseBurndown(
+            int projectId,
+            List<Integer> sprintIds,
+            Consumer<APIResponse<BurndownMetrics>> callback) {
+        String ids = sprintIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        return queryAsync("?project_id=" + projectId + "&sprint_ids=" + ids, BurndownMetrics.class)
+                .thenAccept(callback);
+    }
+
+    /**
+     * Get the burndown of the user stories of an epic.
+     *
+     * @param epicId   id of the epic
+     * @param callback Consumer function to execute upon receiving query result.
+     * @return void future which can be joined to wait for call to complete.
+     */
+    public CompletableFuture<Void> getEpicBurndown(
+            int epicId,
+            Consumer<APIResponse<BurndownMetrics>> callback) {
+        return queryAsync("?epic_id=" + epicId, BurndownMetrics.class)
+                .thenAccept(callback);
+    }
 }
@@ -0,0 +1,40 @@
+package router.routes.burndown;
+
+import bostonmodel.burndown.BurndownMetrics;
+import org.apache.http.HttpStatus;
+import router.routes.RouteQueryHandler;
+import spark.Request;
+import spark.Response;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Burndown of the user stories of an epic, asked for with {@code epic_id}.
+ */
+public class BurndownEpicQueryHandler extends RouteQueryHandler<Object> {
+    private final BurndownAPI api;
+
+    public BurndownEpicQueryHandler(BurndownAPI api) {
+        this.api = api;
+    }
+
+    @Override
+    public boolean matches(Request request) {
+        return request.queryParams().contains("epic_id");
+    }
+
+    @Override
+    public Object handle(Request request, Response response) {
+        AtomicReference<BurndownMetrics> apiResult = new AtomicReference<>(null);
+        api.getEpicBurndown(Integer.parseInt(request.queryParams("epic_id")),
+                result -> {
+                    if (result == null) {
+                        response.status(HttpStatus.SC_INTERNAL_SERVER_ERROR);
+                    } else {
+                        response.status(result.getStatus());
+                        apiResult.set(result.getContent());
+                    }
+                }).join();
+        return apiResult.get();
+    }
+}
@@ -0,0 +1,48 @@
+package router.routes.burndown;
+
+import bostonmodel.burndown.BurndownMetrics;
+import org.apache.http.HttpStatus;
+import router.routes.RouteQueryHandler;
+import spark.Request;
+import spark.Response;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Combined burndown of several sprints, asked for with {@code project_id} and a comma separated
+ * list of {@code sprint_ids}.
+ */
+public class BurndownReleaseQueryHandler extends RouteQueryHandler<Object> {
+    private final BurndownAPI api;
+
+    public BurndownReleaseQueryHandler(BurndownAPI api) {
+        this.api = api;
+    }
+
+    @Override
+    public boolean matches(Request request) {
+        return request.queryParams().contains("project_id") && request.queryParams().contains("sprint_ids");
+    }
+
+    @Override
+    public Object handle(Request request, Response response) {
+        AtomicReference<BurndownMetrics> apiResult = new AtomicReference<>(null);
+        List<Integer> sprintIds = Arrays.stream(request.queryParams("sprint_ids").split(","))
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .map(Integer::parseInt)
+                .toList();
+        api.getReleaseBurndown(Integer.parseInt(request.queryParams("project_id")), sprintIds,
+                result -> {
+                    if (result == null) {
+                        response.status(HttpStatus.SC_INTERNAL_SERVER_ERROR);
+                    } else {
+                        response.status(result.getStatus());
+                        apiResult.set(result.getContent());
+                    }
+                }).join();
+        return apiResult.get();
+    }
+}
@@ -36,6 +36,8 @@ public class BurndownRoute extends Route {
 
     @Override
     public List<RouteQueryHandler<Object>> getRouteQueryHandlers() {
-        return List.of(new BurndownChangeQueryHandler(api));
+        return List.of(new BurndownChangeQueryHandler(api),
+                new BurndownReleaseQueryHandler(api),
+                new BurndownEpicQueryHandler(api));
     }
 }
@@ -30,7 +30,7 @@ public class ScopeChangeCalculator {
      */
     public static Date getAddedAfterStartDate(UserStory userStory, Sprint sprint) {
         AtomicReference<Date> addedDate = new AtomicReference<>();
-        TaigaClient.getHistoryAPI().getUserStoryHistory(userStory.getId(), result -> {
+        TaigaClient.getUserStoryHistoryAPI().getDetailedUserStoryHistory(userStory.getId(), result -> {
             if (result.getStatus() != 200) {
                 return;
             }
@@ -0,0 +1,57 @@
+package taskchurn;
+
+import bostonmodel.taskchurn.TaskChurnItem;
+import serviceutil.DateUtil;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Churn counted per day of a sprint, with one {@link LongAdder} per day indexed by epoch day from
+ * the start. Histories fetched concurrently can be counted as soon as each arrives, from whichever
+ * thread completes it, and the totals do not depend on the order they arrive in.
+ */
+class ChurnHistogram {
+    private final LocalDate start;
+    private final long startDay;
+    private final LongAdder[] days;
+
+    /**
+     * @param start first day of the sprint
+     * @param end   last day of the sprint, inclusive
+     */
+    ChurnHistogram(LocalDate start, LocalDate end) {
+        this.start = start;
+        this.startDay = start.toEpochDay();
+        this.days = new LongAdder[(int) Math.max(0, end.toEpochDay() - startDay + 1)];
+        for (int i = 0; i < days.length; i++) {
+            days[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Count one change on the day of the given date. Dates outside the sprint are not counted.
+     *
+     * @param date when the change happened
+     */
+    void count(Date date) {
+        long day = DateUtil.toLocal(date).toEpochDay() - startDay;
+        if (day >= 0 && day < days.length) {
+            days[(int) day].increment();
+        }
+    }
+
+    /**
+     * @return the churn of every day of the sprint in order, zero for days without any
+     */
+    List<TaskChurnItem> toItems() {
+        List<TaskChurnItem> items = new ArrayList<>(days.length);
+        for (int i = 0; i < days.length; i++) {
+            items.add(new TaskChurnItem(start.plusDays(i), days[i].intValue()));
+        }
+        return items;
+    }
+}
@@ -1,11 +1,17 @@
 package taskchurn;
 
+import bostonhttp.util.HTTPClientSingleton;
+import bostonhttp.util.HttpClientOptions;
+import bostonmodel.util.DeadlineFilter;
+import bostonmodel.util.GzipFilter;
 import bostonmodel.util.JsonTransformer;
 import org.apache.http.HttpStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import serviceutil.Env;
 
+import static spark.Spark.after;
+import static spark.Spark.before;
 import static spark.Spark.get;
 import static spark.Spark.port;
 
@@ -13,7 +19,10 @@ public class Main {
     private static final Logger logger = LoggerFactory.getLogger(Main.class);
 
     public static void main(String[] args) {
+        HTTPClientSingleton.setDefaultOptions(HttpClientOptions.fromEnvironment());
         port(Env.getPort());
+        before(new DeadlineFilter());
+        after(new GzipFilter());
         get("/taskchurn", (request, response) -> {
             response.type("application/json");
 
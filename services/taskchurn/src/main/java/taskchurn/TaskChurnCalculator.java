@@ -1,36 +1,37 @@
 package taskchurn;
 
-import bostonmodel.taskchurn.TaskChurnItem;
+import bostonhttp.api.BulkOptions;
 import bostonmodel.taskchurn.TaskChurnMetrics;
-import java.time.LocalDate;
-import java.util.ArrayList;
+
 import java.util.List;
-import java.util.TreeMap;
-import java.util.TreeSet;
 
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.http.HttpStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import serviceutil.DateUtil;
 import spark.Response;
 import taiga.TaigaClient;
+import taiga.models.compact.CompactHistory;
+import taiga.models.projections.TaskProjection;
 import taiga.models.sprint.Sprint;
-import taiga.models.taskhistory.ItemHistory;
-import taiga.models.taskhistory.ItemHistoryValuesDiff;
-import taiga.models.tasks.Task;
 
 public class TaskChurnCalculator {
+    private static final Logger logger = LoggerFactory.getLogger(TaskChurnCalculator.class);
+
     /**
-     * Calculates the amount of task churn for each day in the sprint
+     * Calculates the amount of task churn for each day in the sprint. Churn is the tasks added on a
+     * day plus the edits to tasks that day, other than moves between statuses or assignees. Each
+     * task history is counted as soon as it arrives and then dropped, so the histories of the
+     * sprint are never all held at once. If any history cannot be fetched the churn would be
+     * undercounted, so the response is a 502 instead.
      * @param response the response to send any errors to
      * @param sprintId the id of thes print whose tasks are being analyzed for churn
      * @return a list of TaskChurnItems which speify a date and the amount of churn on that date for all dates in the sprint.
      */
     public static TaskChurnMetrics calculate(Response response, int sprintId) {
-        TreeMap<LocalDate, Integer> taskCount = new TreeMap<>();
-        TreeMap<LocalDate, Integer> taskModifiedCount = new TreeMap<>();
-        TreeMap<LocalDate, Integer> taskChurn = new TreeMap<>();
-
         AtomicReference<Sprint> sprintReference = new AtomicReference<>();
         TaigaClient.getSprintAPI().getSprint(sprintId, result -> {
             if (result.getStatus() != 200) {
@@ -47,8 +48,8 @@ public class TaskChurnCalculator {
         }
 
 
-        AtomicReference<List<Task>> allTasksReference = new AtomicReference<>();
-        TaigaClient.getTasksAPI().listTasksByMilestone(sprintId,
+        AtomicReference<List<TaskProjection>> allTasksReference = new AtomicReference<>();
+        TaigaClient.getTasksAPI().listTasksByMilestone(sprintId, TaskProjection.class,
             result -> {
                 if (result.getStatus() != 200) {
                     return;
@@ -57,92 +58,54 @@ public class TaskChurnCalculator {
             }).join();
 
 
-        List<Task> allTasks = allTasksReference.get();
-
-        List<ItemHistory> taskHistoryList = new ArrayList<>();
-        //find number of tasks per day in sprint
-        allTasks.parallelStream()
-            .forEach(task ->{
-                    AtomicReference<List<ItemHistory>> itemHistoryReference = new AtomicReference<>();
-                    TaigaClient.getTaskHistoryAPI().getTaskHistory(task.getId(), result -> {
-                        if (result.getStatus() != 200) {
-                            return;
-                        }
-                        itemHistoryReference.set(List.of(result.getContent()));
-                    }).join();
-                    taskHistoryList.addAll(itemHistoryReference.get().stream()
-                        .filter(entry -> {
-                            return entry.getCreatedAt().after(sprint.getEstimatedStart()) && entry.getCreatedAt().before(sprint.getEstimatedFinish());
-                        })
-                        .toList()
-                    );
-                });
-
-
-        for (Task task : allTasks) {
-            //populate task count
-            LocalDate createdDate = DateUtil.toLocal(task.getCreatedDate());
-            if(task.getCreatedDate().before(sprint.getEstimatedStart()) || task.getCreatedDate().after(sprint.getEstimatedFinish())){
-                continue;
-            }
+        List<TaskProjection> allTasks = allTasksReference.get();
 
-            if (taskCount.containsKey(createdDate)) {
-                Integer temp = taskCount.get(createdDate);
-                taskCount.put(createdDate, ++temp);
-            } else {
-                taskCount.put(createdDate, 1);
-            }
-        }
-
-        for (ItemHistory taskHistory : taskHistoryList) {
-            if (taskHistory.getValuesDiff() != null) { //null check
-                ItemHistoryValuesDiff valuesDiff = taskHistory.getValuesDiff();
-                LocalDate createdAt = DateUtil.toLocal(taskHistory.getCreatedAt());
-                if (valuesDiff.getStatus() == null && valuesDiff.getAssignedTo() == null) {
-                    if (taskModifiedCount.containsKey(createdAt)) {
-                        Integer temp = taskModifiedCount.get(createdAt);
-                        taskModifiedCount.put(createdAt, ++temp);
-                    } else {
-                        taskModifiedCount.put(createdAt, 1);
-                    }
-                }
-            }
+        if (allTasks == null) {
+            response.status(HttpStatus.SC_INTERNAL_SERVER_ERROR);
+            return new TaskChurnMetrics(null);
         }
 
-        TreeSet<LocalDate> allKeys = new TreeSet<>();
-        allKeys.addAll(taskCount.keySet());
-        allKeys.addAll(taskModifiedCount.keySet());
-        for (LocalDate date : allKeys) {
+        ChurnHistogram churn = new ChurnHistogram(DateUtil.toLocal(sprint.getEstimatedStart()),
+            DateUtil.toLocal(sprint.getEstimatedFinish()));
 
-            int tasksAdded = 0;
-            if(taskCount.containsKey(date)){
-                tasksAdded = taskCount.get(date);
-            }
-
-            int tasksModified = 0;
-            if(taskModifiedCount.containsKey(date)){
-                tasksModified = taskModifiedCount.get(date);
+        for (TaskProjection task : allTasks) {
+            //count tasks added during the sprint
+            if (task.getCreatedDate() == null
+                || task.getCreatedDate().before(sprint.getEstimatedStart())
+                || task.getCreatedDate().after(sprint.getEstimatedFinish())) {
+                continue;
             }
+            churn.count(task.getCreatedDate());
+        }
 
-            taskChurn.put(date, tasksAdded + tasksModified);
-
+        long sprintStart = sprint.getEstimatedStart().getTime();
+        long sprintEnd = sprint.getEstimatedFinish().getTime();
+        AtomicInteger failedHistories = new AtomicInteger();
+        BulkOptions options = BulkOptions.defaults().withErrorHandler((taskId, status) -> {
+            logger.warn("Could not fetch the history of task " + taskId + ", status " + status);
+            failedHistories.incrementAndGet();
+        });
+        TaigaClient.getTaskHistoryAPI().forEachCompactTaskHistory(
+            allTasks.stream().map(TaskProjection::getId).toList(), options,
+            (taskId, taskHistory) -> countModifications(churn, taskHistory, sprintStart, sprintEnd)).join();
+
+        if (failedHistories.get() > 0) {
+            response.status(HttpStatus.SC_BAD_GATEWAY);
+            return new TaskChurnMetrics(null);
         }
 
-        //put days with no churn to 0
-        LocalDate start = DateUtil.toLocal(sprint.getEstimatedStart());
-        LocalDate end = DateUtil.toLocal(sprint.getEstimatedFinish());
-        List<LocalDate> dates = start.datesUntil(end.plusDays(1)).toList();
+        return new TaskChurnMetrics(churn.toItems());
+    }
 
-        for(LocalDate date : dates){
-            if(!taskChurn.containsKey(date)){
-                taskChurn.put(date, 0);
+    private static void countModifications(ChurnHistogram churn, CompactHistory taskHistory, long sprintStart, long sprintEnd) {
+        for (int i = 0; i < taskHistory.size(); i++) {
+            long time = taskHistory.getTime(i);
+            if (time <= sprintStart || time >= sprintEnd || !taskHistory.hasValuesDiff(i)) {
+                continue;
+            }
+            if (!taskHistory.hasStatusChange(i) && !taskHistory.hasAssigneeChange(i)) {
+                churn.count(taskHistory.getCreatedAt(i));
             }
         }
-
-        List<TaskChurnItem> taskChurnItemList = new ArrayList<>();
-        for(LocalDate date : taskChurn.keySet()){
-            taskChurnItemList.add(new TaskChurnItem(date, taskChurn.get(date)));
-        }
-        return new TaskChurnMetrics(taskChurnItemList);
     }
 }
@@ -5,7 +5,7 @@ import org.apache.http.HttpStatus;
 import spark.Request;
 import spark.Response;
 import taiga.TaigaClient;
-import taiga.models.tasks.Task;
+import taiga.models.projections.TaskProjection;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -13,9 +13,9 @@ public class TaskDefectDensityCalculator {
 
     public static TaskDefectDensityMetrics calculate(Request request, Response response, int sprintId) {
 
-        AtomicReference<List<Task>> tasks = new AtomicReference<>(null);
+        AtomicReference<List<TaskProjection>> tasks = new AtomicReference<>(null);
 
-        TaigaClient.getTasksAPI().listTasksByMilestone(sprintId, result -> {
+        TaigaClient.getTasksAPI().listTasksByMilestone(sprintId, TaskProjection.class, result -> {
             if (result.getStatus() == HttpStatus.SC_OK) {
                 tasks.set(List.of(result.getContent()));
             }
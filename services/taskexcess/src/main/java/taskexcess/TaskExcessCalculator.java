@@ -9,12 +9,15 @@ import bostonmodel.taskexcess.TaskExcessMetrics;
 import spark.Request;
 import spark.Response;
 import taiga.TaigaClient;
-import taiga.models.tasks.Task;
+import taiga.models.compact.ProjectStatuses;
+import taiga.models.compact.StatusCategory;
+import taiga.models.compact.StatusDictionary;
+import taiga.models.projections.TaskProjection;
 
 public class TaskExcessCalculator {
     public static TaskExcessMetrics calculate(Request request, Response response, int sprintId) {
-        AtomicReference<List<Task>> tasks = new AtomicReference<>(null);
-        TaigaClient.getTasksAPI().listTasksByMilestone(sprintId, result -> {
+        AtomicReference<List<TaskProjection>> tasks = new AtomicReference<>(null);
+        TaigaClient.getTasksAPI().listTasksByMilestone(sprintId, TaskProjection.class, result -> {
             if (result.getStatus() == HttpStatus.SC_OK) {
                 tasks.set(List.of(result.getContent()));
             }
@@ -25,12 +28,25 @@ public class TaskExcessCalculator {
             return null;
         }
 
+        AtomicReference<ProjectStatuses> statuses = new AtomicReference<>(ProjectStatuses.EMPTY);
+        if (!tasks.get().isEmpty()) {
+            statuses.set(null);
+            TaigaClient.getProjectAPI().getProjectStatuses(tasks.get().get(0).getProject(), statuses::set).join();
+        }
+        if (statuses.get() == null) {
+            // without the statuses no task can be recognised as new
+            response.status(HttpStatus.SC_BAD_GATEWAY);
+            return null;
+        }
+        StatusDictionary taskStatuses = statuses.get().getTaskStatuses();
+
         int totalTasks = tasks.get().size();
-        int newTasks = tasks.get()
-                .stream()
-                .filter(t -> t.getStatusExtraInfo().getName().equalsIgnoreCase("new"))
-                .toList()
-                .size();
+        int newTasks = 0;
+        for (TaskProjection task : tasks.get()) {
+            if (taskStatuses.categoryOf(task.getStatus()) == StatusCategory.NEW) {
+                newTasks++;
+            }
+        }
 
         double taskExcess;
         
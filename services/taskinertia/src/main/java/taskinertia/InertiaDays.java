@@ -0,0 +1,91 @@
+package taskinertia;
+
+import serviceutil.DateUtil;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Task inertia over a range of days, built in one pass over the tasks and one over their
+ * histories instead of rescanning every task for every day.
+ * <p>
+ * The tasks open on each day are kept as a difference array: a task adds one on the first day it
+ * is open and removes one the day after it finishes, and a running sum over the days gives the
+ * open count of each. The tasks that first moved on each day are counted with one
+ * {@link LongAdder} per day, so histories can be counted from several threads at once.
+ */
+class InertiaDays {
+    private final LocalDate start;
+    private final long startDay;
+    private final int[] openDelta;
+    private final LongAdder[] firstMoves;
+
+    /**
+     * @param start first day of the range
+     * @param end   last day of the range, inclusive
+     */
+    InertiaDays(LocalDate start, LocalDate end) {
+        int length = (int) Math.max(0, end.toEpochDay() - start.toEpochDay() + 1);
+        this.start = start;
+        this.startDay = start.toEpochDay();
+        this.openDelta = new int[length + 1];
+        this.firstMoves = new LongAdder[length];
+        for (int i = 0; i < length; i++) {
+            firstMoves[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Count a task as open from the day it was created through the day it finished. A task
+     * finished before the day it was created only counts on the day it finished. Not thread-safe.
+     *
+     * @param created  when the task was created
+     * @param finished when the task finished, null if it is still open
+     */
+    void addTask(Date created, Date finished) {
+        if (created == null) {
+            return;
+        }
+        long first = DateUtil.toLocal(created).toEpochDay() - startDay;
+        long last = finished == null ? Long.MAX_VALUE : DateUtil.toLocal(finished).toEpochDay() - startDay;
+        if (first > last) {
+            first = last;
+        }
+        first = Math.max(first, 0);
+        last = Math.min(last, firstMoves.length - 1);
+        if (first > last) {
+            return;
+        }
+        openDelta[(int) first]++;
+        openDelta[(int) last + 1]--;
+    }
+
+    /**
+     * Count a task that first changed status at the given date. Thread-safe.
+     *
+     * @param date when the task first changed status
+     */
+    void addFirstMove(Date date) {
+        long day = DateUtil.toLocal(date).toEpochDay() - startDay;
+        if (day >= 0 && day < firstMoves.length) {
+            firstMoves[(int) day].increment();
+        }
+    }
+
+    /**
+     * @return for each day, the share of the open tasks that did not first move that day, or 1 on
+     * days where no task first moved
+     */
+    TreeMap<LocalDate, Double> toInertia() {
+        TreeMap<LocalDate, Double> inertia = new TreeMap<>();
+        int open = 0;
+        for (int i = 0; i < firstMoves.length; i++) {
+            open += openDelta[i];
+            long moved = firstMoves[i].sum();
+            inertia.put(start.plusDays(i), moved == 0 ? 1.0d : (double) (open - moved) / open);
+        }
+        return inertia;
+    }
+}
@@ -2,90 +2,53 @@ package taskinertia;
 
 import bostonmodel.taskinertia.TaskInertiaMetrics;
 import org.apache.http.HttpStatus;
-import serviceutil.DateUtil;
 import spark.Response;
-import taiga.TaigaClient;
-import taiga.models.taskhistory.ItemHistory;
-import taiga.models.taskhistory.ItemHistoryValuesDiff;
-import taiga.models.tasks.Task;
+import taiga.models.compact.CompactHistory;
+import taiga.models.projections.TaskProjection;
+import taiga.sync.ItemSync;
+import taiga.sync.ProjectState;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.TreeMap;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 public class TaskInertiaCalculator {
     public static TaskInertiaMetrics calculate(Response response, int projectId, LocalDate startDate, LocalDate endDate) {
-
-        List<Task> tasks = new ArrayList<>();
-        TaigaClient.getTasksAPI().listTasksByProject(projectId, result -> {
-            if (result.getStatus() == HttpStatus.SC_OK) {
-                tasks.addAll(List.of(result.getContent()));
-            }
-        }).join();
-
+        // after the first call only the tasks modified since the previous one, and their
+        // histories, are downloaded
+        ProjectState state = ProjectState.forProject(projectId);
+        ItemSync.Result sync = state.syncTaskHistories().join();
+        List<TaskProjection> tasks = state.getTasks();
+
+        if (sync.isFailed() && tasks.isEmpty()) {
+            // nothing held to answer with, reporting no tasks would hide that Taiga could not be reached
+            response.status(HttpStatus.SC_BAD_GATEWAY);
+            return null;
+        }
         if (tasks.isEmpty()) {
             response.status(HttpStatus.SC_BAD_REQUEST);
             return null;
         }
 
-        TreeMap<LocalDate, Integer> taskCounts = new TreeMap<>();
-        TreeMap<LocalDate, Double> inertia = new TreeMap<>();
-
-        tasks
-                .parallelStream()
-                .forEach(t -> {
-                    List<ItemHistory> taskHistory = new ArrayList<>();
-                    TaigaClient.getTaskHistoryAPI().getTaskHistory(t.getId(), result -> {
-                        if (result.getStatus() == HttpStatus.SC_OK) {
-                            taskHistory.addAll(List.of(result.getContent()));
-                        }
-                    }).join();
-                    AtomicBoolean moved = new AtomicBoolean(false);
-                    taskHistory.forEach(entry -> {
-                        ItemHistoryValuesDiff valuesDiff = entry.getValuesDiff();
-                        if (valuesDiff.getStatus() == null) {
-                            return;
-                        }
-                        if (!moved.get()) {
-                            Integer currentDateCount = taskCounts.get(DateUtil.toLocal(entry.getCreatedAt()));
-                            if (currentDateCount == null) {
-                                currentDateCount = 0;
-                            }
-                            taskCounts.put(DateUtil.toLocal(entry.getCreatedAt()), currentDateCount + 1);
-                            moved.set(true);
-                        }
-                    });
-                });
-
-        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-            int taskCount = totalTasksAtGivenDate(tasks, date);
-            if (taskCounts.containsKey(date)) {
-                double percent = ((double) (taskCount - taskCounts.get(date)) / taskCount);
-                inertia.put(date, percent);
-            } else {
-                inertia.put(date, 1.0d);
-            }
+        InertiaDays days = new InertiaDays(startDate, endDate);
+        for (TaskProjection task : tasks) {
+            days.addTask(task.getCreatedDate(), task.getFinishedDate());
         }
+        state.getTaskHistories().values().parallelStream().forEach(history -> countFirstMove(days, history));
 
         response.status(HttpStatus.SC_OK);
-        return new TaskInertiaMetrics(inertia);
+        return new TaskInertiaMetrics(days.toInertia());
     }
 
-    private static int totalTasksAtGivenDate(List<Task> tasks, LocalDate date) {
-        return tasks
-                .stream()
-                .filter(t -> {
-                    LocalDate createdDate = DateUtil.toLocal(t.getCreatedDate());
-                    boolean createdBeforeDate = createdDate.isBefore(date) || createdDate.isEqual(date);
-                    if (t.getFinishedDate() == null) {
-                        return createdBeforeDate;
-                    }
-                    LocalDate finishedDate = DateUtil.toLocal(t.getFinishedDate());
-                    return createdBeforeDate && finishedDate.isAfter(date) || finishedDate.isEqual(date);
-                })
-                .toList()
-                .size();
+    /**
+     * Count the day a task first changed status.
+     *
+     * @param days        the days being counted
+     * @param taskHistory the history of a single task
+     */
+    private static void countFirstMove(InertiaDays days, CompactHistory taskHistory) {
+        int first = taskHistory.firstStatusChange();
+        if (first >= 0) {
+            days.addFirstMove(taskHistory.getCreatedAt(first));
+        }
     }
 }